@@ -0,0 +1,38 @@
+package com.careerdevs.gorestfinal;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Collection;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * Runs the JMH suite in {@code com.careerdevs.gorestfinal.benchmarks} and writes the scores to
+ * target/jmh-result.json, so a run can be kept as the baseline for the next one. A subset can be
+ * picked with {@code -Djmh.include=<regex>}, e.g. {@code -Djmh.include=IdParsing}.
+ */
+@Tag("benchmark")
+class JmhBenchmarkTests {
+
+    @Test
+    void runBenchmarks() throws Exception {
+
+        Options options = new OptionsBuilder()
+                .include(System.getProperty("jmh.include", "com\\.careerdevs\\.gorestfinal\\.benchmarks\\..*"))
+                .resultFormat(ResultFormatType.JSON)
+                .result(System.getProperty("jmh.result", "target/jmh-result.json"))
+                .shouldFailOnError(true)
+                .build();
+
+        Collection<RunResult> results = new Runner(options).run();
+
+        assertFalse(results.isEmpty(), "no benchmark matched " + options.getIncludes());
+    }
+
+}
@@ -0,0 +1,85 @@
+package com.careerdevs.gorestfinal.benchmarks;
+
+import com.careerdevs.gorestfinal.utils.ApiClientError;
+import com.careerdevs.gorestfinal.utils.ApiErrorHandling;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpClientErrorException;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parses the id of every request with an id in the path. The {@code exceptionDriven*} benchmarks keep
+ * the previous implementation (Integer.parseInt inside a try, a thrown HttpClientErrorException for the
+ * 400) as the baseline the current path is compared against.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IdParsingBenchmark {
+
+    @Param({"12345", "abc", "12a45", "9999999999"})
+    public String id;
+
+    @Benchmark
+    public boolean isStrNaN() {
+        return ApiErrorHandling.isStrNaN(id);
+    }
+
+    @Benchmark
+    public long parseId() {
+        return ApiErrorHandling.parseId(id);
+    }
+
+    @Benchmark
+    public Object parseIdOrClientError() {
+
+        long parsed = ApiErrorHandling.parseId(id);
+
+        if (parsed == ApiErrorHandling.INVALID_ID) {
+            return new ApiClientError(HttpStatus.BAD_REQUEST, id + " is not a valid ID");
+        }
+
+        return parsed;
+    }
+
+    @Benchmark
+    public boolean exceptionDrivenIsStrNaN() {
+        try {
+            Integer.parseInt(id);
+        } catch (NumberFormatException e) {
+            return true;
+        }
+        return false;
+    }
+
+    @Benchmark
+    public Object exceptionDrivenParseOrClientError() {
+
+        try {
+            try {
+                Integer.parseInt(id);
+            } catch (NumberFormatException e) {
+                throw new HttpClientErrorException(HttpStatus.BAD_REQUEST, id + " id is not a valid ID");
+            }
+
+            return (long) Integer.parseInt(id);
+
+        } catch (HttpClientErrorException e) {
+            return e;
+        }
+    }
+
+}
@@ -0,0 +1,112 @@
+package com.careerdevs.gorestfinal.benchmarks;
+
+import com.careerdevs.gorestfinal.GorestfinalApplication;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+/**
+ * Whole requests through the servlet stack (controllers, validation, JPA on an in-memory H2 and
+ * Jackson), without the network. Each benchmark returns the status so a broken endpoint shows up
+ * as a suspiciously fast result rather than going unnoticed.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MockMvcBenchmark {
+
+    private static final int USERS = 200;
+
+
+    private static final String INVALID_USER = "{\"name\":\"\",\"gender\":\"unknown\",\"status\":\"active\"}";
+
+    private ConfigurableApplicationContext app;
+
+    private MockMvc mockMvc;
+
+    private String firstUser;
+
+    // emails are unique, every created user needs its own
+    private int usersCreated;
+
+    @Setup(Level.Trial)
+    public void startApplication() throws Exception {
+
+        app = new SpringApplicationBuilder(GorestfinalApplication.class)
+                .profiles("test")
+                .run("--server.port=0", "--logging.level.root=WARN");
+
+        mockMvc = MockMvcBuilders.webAppContextSetup((WebApplicationContext) app).build();
+
+        String created = null;
+        for (int i = 0; i < USERS; i++) {
+            String body = mockMvc.perform(post("/api/users/").contentType(MediaType.APPLICATION_JSON).content(newUser()))
+                    .andReturn().getResponse().getContentAsString();
+            if (created == null) {
+                created = body;
+            }
+        }
+
+        firstUser = "/api/users/" + created.replaceAll(".*\"id\":(\\d+).*", "$1");
+    }
+
+    private String newUser() {
+        return "{\"name\":\"Benchmark\",\"email\":\"benchmark" + usersCreated++ + "@example.com\",\"gender\":\"male\",\"status\":\"active\"}";
+    }
+
+    @TearDown(Level.Trial)
+    public void stopApplication() {
+        app.close();
+    }
+
+    @Benchmark
+    public int getUserById() throws Exception {
+        return mockMvc.perform(get(firstUser)).andReturn().getResponse().getStatus();
+    }
+
+    @Benchmark
+    public int getUserWithInvalidId() throws Exception {
+        return mockMvc.perform(get("/api/users/abc")).andReturn().getResponse().getStatus();
+    }
+
+    @Benchmark
+    public int getUsersPage() throws Exception {
+        return mockMvc.perform(get("/api/users/?page=2&limit=20")).andReturn().getResponse().getStatus();
+    }
+
+    @Benchmark
+    public int createUser() throws Exception {
+        return mockMvc.perform(post("/api/users/").contentType(MediaType.APPLICATION_JSON).content(newUser()))
+                .andReturn().getResponse().getStatus();
+    }
+
+    @Benchmark
+    public int createInvalidUser() throws Exception {
+        return mockMvc.perform(post("/api/users/").contentType(MediaType.APPLICATION_JSON).content(INVALID_USER))
+                .andReturn().getResponse().getStatus();
+    }
+
+}
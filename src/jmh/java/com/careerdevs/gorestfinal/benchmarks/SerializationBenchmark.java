@@ -0,0 +1,93 @@
+package com.careerdevs.gorestfinal.benchmarks;
+
+import com.careerdevs.gorestfinal.models.Comment;
+import com.careerdevs.gorestfinal.models.Post;
+import com.careerdevs.gorestfinal.models.ToDo;
+import com.careerdevs.gorestfinal.models.User;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writes lists of each model with an ObjectMapper configured the way Spring MVC configures its own,
+ * which is what the list and page endpoints spend their time on once the rows are loaded.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializationBenchmark {
+
+    @Param({"10", "100", "1000"})
+    public int rows;
+
+    private ObjectMapper objectMapper;
+
+    private List<User> users;
+
+    private List<Post> posts;
+
+    private List<Comment> comments;
+
+    private List<ToDo> toDos;
+
+    @Setup
+    public void setUp() throws JsonProcessingException {
+
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+        users = new ArrayList<>(rows);
+        posts = new ArrayList<>(rows);
+        comments = new ArrayList<>(rows);
+        toDos = new ArrayList<>(rows);
+
+        for (int i = 1; i <= rows; i++) {
+            users.add(objectMapper.readValue("{\"id\":" + i + ",\"name\":\"User " + i + "\",\"email\":\"user" + i +
+                    "@example.com\",\"gender\":\"female\",\"status\":\"active\"}", User.class));
+            posts.add(objectMapper.readValue("{\"id\":" + i + ",\"user_id\":" + i + ",\"title\":\"Title " + i +
+                    "\",\"body\":\"" + "Lorem ipsum dolor sit amet. ".repeat(8) + "\"}", Post.class));
+            comments.add(objectMapper.readValue("{\"id\":" + i + ",\"post_id\":" + i + ",\"name\":\"Commenter " + i +
+                    "\",\"email\":\"c" + i + "@example.com\",\"body\":\"Nice post.\"}", Comment.class));
+            toDos.add(objectMapper.readValue("{\"id\":" + i + ",\"user_id\":" + i + ",\"title\":\"Todo " + i +
+                    "\",\"due_on\":\"2026-10-17T00:00:00.000+05:30\",\"status\":\"pending\"}", ToDo.class));
+        }
+    }
+
+    @Benchmark
+    public byte[] users() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(users);
+    }
+
+    @Benchmark
+    public byte[] posts() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(posts);
+    }
+
+    @Benchmark
+    public byte[] comments() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(comments);
+    }
+
+    @Benchmark
+    public byte[] toDos() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(toDos);
+    }
+
+}
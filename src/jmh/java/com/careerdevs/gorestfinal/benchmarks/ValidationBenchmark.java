@@ -0,0 +1,85 @@
+package com.careerdevs.gorestfinal.benchmarks;
+
+import com.careerdevs.gorestfinal.models.User;
+import com.careerdevs.gorestfinal.utils.ApiErrorHandling;
+import com.careerdevs.gorestfinal.validation.EntityValidator;
+import com.careerdevs.gorestfinal.validation.ExistenceCheck;
+import com.careerdevs.gorestfinal.validation.ValidationError;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ValidationBenchmark {
+
+    private User validUser;
+
+    private User invalidUser;
+
+    private EntityValidator entityValidator;
+
+    private ValidationError errors;
+
+    private ObjectMapper objectMapper;
+
+    @Setup
+    public void setUp() {
+
+        // the field rules only, references are not checked without an ExistenceCheck
+        entityValidator = new EntityValidator((ExistenceCheck) null);
+
+        validUser = new User();
+        validUser.setId(42L);
+        validUser.setName("Valid User");
+        validUser.setEmail("valid@example.com");
+        validUser.setGender("female");
+        validUser.setStatus("active");
+
+        invalidUser = new User();
+        invalidUser.setName("   ");
+        invalidUser.setGender("");
+
+        errors = entityValidator.validate(invalidUser, true);
+
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    }
+
+    @Benchmark
+    public ValidationError validateValidUser() {
+        return entityValidator.validate(validUser, true);
+    }
+
+    @Benchmark
+    public ValidationError validateInvalidUser() {
+        return entityValidator.validate(invalidUser, true);
+    }
+
+    @Benchmark
+    public String validationErrorToJson() {
+        return errors.toJSONString();
+    }
+
+    // the whole 400 body as the message converter writes it
+    @Benchmark
+    public byte[] validationProblem() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(ApiErrorHandling.validationApiError(errors).getBody());
+    }
+
+}
@@ -1,13 +1,35 @@
 package com.careerdevs.gorestfinal;
 
+import com.careerdevs.gorestfinal.services.DumpImportRunner;
 import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.Arrays;
 
 @SpringBootApplication
+@EnableCaching
 public class GorestfinalApplication {
 
 	public static void main(String[] args) {
-		SpringApplication.run(GorestfinalApplication.class, args);
+
+		SpringApplication application = new SpringApplication(GorestfinalApplication.class);
+
+		// --import-dump loads the dump files and exits instead of serving the API, see DumpImportRunner
+		boolean importDump = Arrays.stream(args).anyMatch(arg -> arg.equals("--" + DumpImportRunner.OPTION)
+				|| arg.startsWith("--" + DumpImportRunner.OPTION + "="));
+
+		if (importDump) {
+			application.setWebApplicationType(WebApplicationType.NONE);
+		}
+
+		ConfigurableApplicationContext context = application.run(args);
+
+		if (importDump) {
+			System.exit(SpringApplication.exit(context));
+		}
 	}
 
 }
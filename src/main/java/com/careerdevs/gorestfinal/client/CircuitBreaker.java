@@ -0,0 +1,92 @@
+package com.careerdevs.gorestfinal.client;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Stops calling GoREST once it keeps failing. After {@code failureThreshold} failed requests in a row the
+ * circuit opens and every request fails at once with {@link CircuitOpenException}. Once {@code openDuration}
+ * has passed a single trial request is let through: if it succeeds the circuit closes again, if it fails
+ * the circuit stays open for another {@code openDuration}.
+ *
+ * A failure is a connection error, a timeout or a 5xx. A 4xx, including a 429, is GoREST answering.
+ */
+public class CircuitBreaker {
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final int failureThreshold;
+
+    private final long openNanos;
+
+    private State state = State.CLOSED;
+
+    private int failures;
+
+    private long openedAt;
+
+    private boolean trialInFlight;
+
+    public CircuitBreaker(int failureThreshold, Duration openDuration) {
+
+        if (failureThreshold < 1) {
+            throw new IllegalArgumentException("The failure threshold must be at least 1, was " + failureThreshold);
+        }
+
+        this.failureThreshold = failureThreshold;
+        this.openNanos = openDuration.toNanos();
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    /**
+     * Called before each request, throws while the circuit is open or while the trial request of a
+     * half-open circuit is still out.
+     */
+    public synchronized void beforeRequest() {
+
+        if (state == State.OPEN) {
+
+            long openFor = openNanos - (System.nanoTime() - openedAt);
+
+            if (openFor > 0) {
+                throw new CircuitOpenException("GoREST failed " + failures + " times in a row, not calling it for another "
+                        + TimeUnit.NANOSECONDS.toMillis(openFor) + "ms");
+            }
+
+            state = State.HALF_OPEN;
+            trialInFlight = false;
+        }
+
+        if (state == State.HALF_OPEN) {
+
+            if (trialInFlight) {
+                throw new CircuitOpenException("GoREST is being tried again, not calling it until that request is back");
+            }
+
+            trialInFlight = true;
+        }
+    }
+
+    public synchronized void onSuccess() {
+        state = State.CLOSED;
+        failures = 0;
+        trialInFlight = false;
+    }
+
+    public synchronized void onFailure() {
+
+        failures++;
+
+        if (state == State.HALF_OPEN || failures >= failureThreshold) {
+            state = State.OPEN;
+            openedAt = System.nanoTime();
+            trialInFlight = false;
+        }
+    }
+
+}
@@ -0,0 +1,14 @@
+package com.careerdevs.gorestfinal.client;
+
+import org.springframework.web.client.RestClientException;
+
+/**
+ * A request to GoREST that was not sent because the {@link CircuitBreaker} is open. Answered with a 503.
+ */
+public class CircuitOpenException extends RestClientException {
+
+    public CircuitOpenException(String message) {
+        super(message);
+    }
+
+}
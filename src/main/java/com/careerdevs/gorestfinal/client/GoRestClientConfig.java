@@ -0,0 +1,70 @@
+package com.careerdevs.gorestfinal.client;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.web.client.RestTemplate;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+
+/**
+ * The RestTemplate every call to GoREST goes through. It sends its requests with one JDK {@link HttpClient},
+ * which keeps connections open between requests and speaks HTTP/2 where the server offers it. Connects
+ * time out after {@code gorest.client.connect-timeout} and responses after {@code gorest.client.read-timeout},
+ * and the {@link ResilientRequestInterceptor} adds the rate limit, the retries and the circuit breaker.
+ */
+@Configuration
+@Profile("!reactive")
+public class GoRestClientConfig {
+
+    @Bean
+    public TokenBucket goRestRateLimiter(@Value("${gorest.client.requests-per-second:20}") double requestsPerSecond,
+                                         @Value("${gorest.client.burst:20}") int burst) {
+        return new TokenBucket(requestsPerSecond, burst);
+    }
+
+    @Bean
+    public CircuitBreaker goRestCircuitBreaker(@Value("${gorest.client.failure-threshold:5}") int failureThreshold,
+                                               @Value("${gorest.client.open-duration:30s}") Duration openDuration) {
+        return new CircuitBreaker(failureThreshold, openDuration);
+    }
+
+    @Bean
+    public RestTemplate goRestRestTemplate(RestTemplateBuilder restTemplateBuilder, TokenBucket goRestRateLimiter,
+                                           CircuitBreaker goRestCircuitBreaker,
+                                           @Value("${gorest.client.connect-timeout:2s}") Duration connectTimeout,
+                                           @Value("${gorest.client.read-timeout:10s}") Duration readTimeout,
+                                           @Value("${gorest.client.max-attempts:4}") int maxAttempts,
+                                           @Value("${gorest.client.backoff:200ms}") Duration backoff,
+                                           @Value("${gorest.client.max-backoff:5s}") Duration maxBackoff) {
+
+        ResilientRequestInterceptor interceptor = new ResilientRequestInterceptor(goRestRateLimiter, goRestCircuitBreaker,
+                maxAttempts, backoff, maxBackoff);
+
+        return resilientRestTemplate(restTemplateBuilder, connectTimeout, readTimeout, interceptor);
+    }
+
+    // the builder Spring Boot provides records http.client.requests, see MetricsConfig
+    public static RestTemplate resilientRestTemplate(RestTemplateBuilder restTemplateBuilder, Duration connectTimeout,
+                                                     Duration readTimeout, ResilientRequestInterceptor interceptor) {
+
+        HttpClient httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .connectTimeout(connectTimeout)
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .build();
+
+        JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(httpClient);
+        requestFactory.setReadTimeout(readTimeout);
+
+        return restTemplateBuilder
+                .requestFactory(() -> requestFactory)
+                .additionalInterceptors(interceptor)
+                .build();
+    }
+
+}
@@ -0,0 +1,153 @@
+package com.careerdevs.gorestfinal.client;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Every request to GoREST goes through the {@link TokenBucket} and the {@link CircuitBreaker}, and a GET
+ * that fails with a connection error, a timeout, a 429 or a 502/503/504 is sent again, up to
+ * {@code maxAttempts} times in all.
+ *
+ * Retries wait a random time between zero and {@code backoff} doubled for every attempt so far, capped at
+ * {@code maxBackoff} ("full jitter"), so the download threads of an import that all hit the same outage
+ * do not come back in step. A {@code Retry-After} from the server is waited out in any case.
+ */
+public class ResilientRequestInterceptor implements ClientHttpRequestInterceptor {
+
+    public static final String RATE_LIMIT_LIMIT = "X-RateLimit-Limit";
+
+    public static final String RATE_LIMIT_REMAINING = "X-RateLimit-Remaining";
+
+    public static final String RATE_LIMIT_RESET = "X-RateLimit-Reset";
+
+    private static final Set<Integer> RETRIED_STATUSES = Set.of(429, 502, 503, 504);
+
+    private final TokenBucket rateLimiter;
+
+    private final CircuitBreaker circuitBreaker;
+
+    private final int maxAttempts;
+
+    private final long backoffNanos;
+
+    private final long maxBackoffNanos;
+
+    public ResilientRequestInterceptor(TokenBucket rateLimiter, CircuitBreaker circuitBreaker, int maxAttempts,
+                                       Duration backoff, Duration maxBackoff) {
+
+        if (maxAttempts < 1) {
+            throw new IllegalArgumentException("maxAttempts must be at least 1, was " + maxAttempts);
+        }
+
+        this.rateLimiter = rateLimiter;
+        this.circuitBreaker = circuitBreaker;
+        this.maxAttempts = maxAttempts;
+        this.backoffNanos = backoff.toNanos();
+        this.maxBackoffNanos = maxBackoff.toNanos();
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
+            throws IOException {
+
+        // only reads are safe to repeat, a POST that timed out may still have been written
+        boolean retryable = request.getMethod() == HttpMethod.GET || request.getMethod() == HttpMethod.HEAD;
+
+        for (int attempts = 1; ; attempts++) {
+
+            int attempt = attempts;
+            boolean lastAttempt = !retryable || attempt >= maxAttempts;
+
+            pause(rateLimiter::acquire);
+            circuitBreaker.beforeRequest();
+
+            ClientHttpResponse response;
+
+            try {
+                // the last interceptor in the chain, so every call sends a fresh request
+                response = execution.execute(request, body);
+
+            } catch (IOException e) {
+                circuitBreaker.onFailure();
+                if (lastAttempt || Thread.currentThread().isInterrupted()) {
+                    throw e;
+                }
+                pause(() -> sleepBackoff(attempt, 0));
+                continue;
+            }
+
+            HttpHeaders headers = response.getHeaders();
+            int status = response.getStatusCode().value();
+
+            rateLimiter.observe(longHeader(headers, RATE_LIMIT_LIMIT), longHeader(headers, RATE_LIMIT_REMAINING),
+                    longHeader(headers, RATE_LIMIT_RESET));
+
+            if (status >= 500) {
+                circuitBreaker.onFailure();
+            } else {
+                circuitBreaker.onSuccess();
+            }
+
+            if (lastAttempt || !RETRIED_STATUSES.contains(status)) {
+                return response;
+            }
+
+            long retryAfterSeconds = longHeader(headers, HttpHeaders.RETRY_AFTER);
+            response.close();
+
+            pause(() -> sleepBackoff(attempt, TimeUnit.SECONDS.toNanos(Math.max(0, retryAfterSeconds))));
+        }
+    }
+
+    private void sleepBackoff(int attempt, long atLeastNanos) throws InterruptedException {
+
+        long ceiling = Math.min(maxBackoffNanos, backoffNanos << Math.min(attempt - 1, 30));
+        long jittered = ThreadLocalRandom.current().nextLong(Math.max(1, ceiling) + 1);
+
+        TimeUnit.NANOSECONDS.sleep(Math.max(jittered, atLeastNanos));
+    }
+
+    // an interrupted wait ends the request the way an interrupted read would
+    private static void pause(Wait wait) throws InterruptedIOException {
+
+        try {
+            wait.run();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting to call GoREST");
+        }
+    }
+
+    private static long longHeader(HttpHeaders headers, String name) {
+
+        String value = headers.getFirst(name);
+
+        if (value == null) {
+            return -1;
+        }
+
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            // Retry-After may also be an HTTP date, which is left to the backoff
+            return -1;
+        }
+    }
+
+    @FunctionalInterface
+    private interface Wait {
+        void run() throws InterruptedException;
+    }
+
+}
@@ -0,0 +1,91 @@
+package com.careerdevs.gorestfinal.client;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rate limiter for the requests to GoREST: {@code permitsPerSecond} on average, up to {@code burst} at once.
+ *
+ * Permits are reserved in the order they are asked for, a caller that finds the bucket empty takes a
+ * permit on credit and sleeps until it is due, so waiting threads do not race each other for the next
+ * token. GoREST's own {@code X-RateLimit-*} headers are fed back through {@link #observe}, the bucket
+ * never holds more than the server says is left and waits out the reset when nothing is.
+ */
+public class TokenBucket {
+
+    private final double permitsPerNano;
+
+    private final int burst;
+
+    private double capacity;
+
+    private double tokens;
+
+    private long refilledAt;
+
+    public TokenBucket(double permitsPerSecond, int burst) {
+
+        if (permitsPerSecond <= 0 || burst < 1) {
+            throw new IllegalArgumentException("A token bucket needs a positive rate and a burst of at least 1, was "
+                    + permitsPerSecond + "/s and " + burst);
+        }
+
+        this.permitsPerNano = permitsPerSecond / TimeUnit.SECONDS.toNanos(1);
+        this.burst = burst;
+        this.capacity = burst;
+        this.tokens = burst;
+        this.refilledAt = System.nanoTime();
+    }
+
+    public void acquire() throws InterruptedException {
+
+        long waitNanos = reserve();
+
+        if (waitNanos > 0) {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+    }
+
+    /**
+     * What the last response said about the server's limit: {@code limit} requests per window, {@code remaining}
+     * of them left and {@code resetSeconds} until the window starts over. A negative value means the header
+     * was missing.
+     */
+    public synchronized void observe(long limit, long remaining, long resetSeconds) {
+
+        refill();
+
+        if (limit > 0) {
+            capacity = Math.min(burst, limit);
+        }
+
+        if (remaining == 0 && resetSeconds > 0) {
+            // the next permit is due when the server's window resets
+            tokens = Math.min(tokens, -TimeUnit.SECONDS.toNanos(resetSeconds) * permitsPerNano);
+        } else if (remaining >= 0) {
+            tokens = Math.min(tokens, remaining);
+        }
+    }
+
+    // permits that can be taken without waiting, negative while callers are queued
+    public synchronized double available() {
+        refill();
+        return tokens;
+    }
+
+    private synchronized long reserve() {
+
+        refill();
+        tokens -= 1;
+
+        return tokens >= 0 ? 0 : (long) Math.ceil(-tokens / permitsPerNano);
+    }
+
+    private void refill() {
+
+        long now = System.nanoTime();
+
+        tokens = Math.min(capacity, tokens + (now - refilledAt) * permitsPerNano);
+        refilledAt = now;
+    }
+
+}
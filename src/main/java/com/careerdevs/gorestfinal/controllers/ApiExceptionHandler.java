@@ -0,0 +1,52 @@
+package com.careerdevs.gorestfinal.controllers;
+
+import com.careerdevs.gorestfinal.client.CircuitOpenException;
+import com.careerdevs.gorestfinal.utils.ApiErrorHandling;
+import org.springframework.beans.TypeMismatchException;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.HttpMessageConversionException;
+import org.springframework.web.ErrorResponse;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.client.HttpClientErrorException;
+
+/**
+ * The try/catch every handler used to end with, in one place. Expected client errors are answered
+ * by the handlers themselves or thrown as {@link com.careerdevs.gorestfinal.utils.ApiClientError},
+ * which has no stack trace; HttpClientErrorExceptions from GoREST are passed on with their status and
+ * a taken email is a 409 and GoREST behind an open circuit breaker a 503.
+ */
+@RestControllerAdvice
+@Profile("!reactive")
+public class ApiExceptionHandler {
+
+    @ExceptionHandler(HttpClientErrorException.class)
+    public ResponseEntity<?> clientError(HttpClientErrorException e) {
+        return ApiErrorHandling.customApiError(e);
+    }
+
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    public ResponseEntity<?> conflict(DataIntegrityViolationException e) {
+        return ApiErrorHandling.conflictApiError(e);
+    }
+
+    @ExceptionHandler(CircuitOpenException.class)
+    public ResponseEntity<?> upstreamUnavailable(CircuitOpenException e) {
+        return ApiErrorHandling.customApiError(e.getMessage(), HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
+    @ExceptionHandler(Exception.class)
+    public ResponseEntity<?> unexpectedError(Exception e) throws Exception {
+
+        // malformed bodies, unsupported methods and the like keep Spring MVC's own 4xx handling
+        if (e instanceof ErrorResponse || e instanceof HttpMessageConversionException || e instanceof TypeMismatchException) {
+            throw e;
+        }
+
+        return ApiErrorHandling.genericApiError(e);
+    }
+
+}
@@ -1,246 +1,210 @@
 package com.careerdevs.gorestfinal.controllers;
 
 import com.careerdevs.gorestfinal.models.Comment;
+import com.careerdevs.gorestfinal.repositories.IdIndex;
 import com.careerdevs.gorestfinal.repositories.CommentRepository;
+import com.careerdevs.gorestfinal.services.BulkResult;
+import com.careerdevs.gorestfinal.services.BulkWriteService;
+import com.careerdevs.gorestfinal.services.EntityStreamService;
+import com.careerdevs.gorestfinal.services.GoRestImportService;
+import com.careerdevs.gorestfinal.services.GoRestSyncService;
+import com.careerdevs.gorestfinal.services.ImportJob;
+import com.careerdevs.gorestfinal.services.ImportJobService;
+import com.careerdevs.gorestfinal.services.SyncResult;
 import com.careerdevs.gorestfinal.utils.ApiErrorHandling;
-import com.careerdevs.gorestfinal.validation.CommentValidation;
+import com.careerdevs.gorestfinal.utils.Pagination;
+import com.careerdevs.gorestfinal.validation.EntityValidator;
 import com.careerdevs.gorestfinal.validation.ValidationError;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.http.HttpHeaders;
+import org.springframework.context.annotation.Profile;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
-import org.springframework.web.client.HttpClientErrorException;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.Objects;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
 import java.util.Optional;
 
 @RestController
+@Profile("!reactive")
 @RequestMapping("/api/comments")
 public class CommentController {
 
     @Autowired
     CommentRepository commentRepository;
 
-    @GetMapping("/{id}")
-    public ResponseEntity<?> getCommentById (@PathVariable("id") String id) {
+    @Autowired
+    GoRestImportService goRestImportService;
 
-        try {
+    @Autowired
+    GoRestSyncService goRestSyncService;
 
-            if (ApiErrorHandling.isStrNaN(id)) {
-                System.out.println("NOT AN ID.");
-                throw new HttpClientErrorException(HttpStatus.BAD_REQUEST, id + " ID is not a valid ID.");
-            }
+    @Autowired
+    ImportJobService importJobService;
 
-            long uID = Long.parseLong(id);
+    @Autowired
+    EntityStreamService entityStreamService;
+
+    @Autowired
+    BulkWriteService bulkWriteService;
 
-            Optional<Comment> foundComment = commentRepository.findById(uID);
+    @Autowired
+    EntityValidator entityValidator;
 
-            if (foundComment.isEmpty()) {
-                throw new HttpClientErrorException(HttpStatus.NOT_FOUND, " Comment Not Found With ID: " + id);
-            }
+    @Autowired
+    IdIndex idIndex;
 
-            return new ResponseEntity<>(foundComment, HttpStatus.OK);
+    @GetMapping("/{id}")
+    public ResponseEntity<?> getCommentById (@IdPathVariable long id) {
 
-        } catch (HttpClientErrorException e) {
-            return ApiErrorHandling.customApiError(e.getMessage(), e.getStatusCode());
+        // an id the index does not know has no row, no need to ask the cache or the database
+        Optional<Comment> foundComment = idIndex.exists(Comment.class, id) ? commentRepository.findById(id) : Optional.empty();
 
-        } catch (Exception e) {
-            return ApiErrorHandling.genericApiError(e);
+        if (foundComment.isEmpty()) {
+            return ApiErrorHandling.customApiError("Comment Not Found With ID: " + id, HttpStatus.NOT_FOUND);
         }
 
+        return new ResponseEntity<>(foundComment, HttpStatus.OK);
+
     }
 
     @GetMapping("/all")
-    public ResponseEntity<?> getAllComments() {
+    public ResponseEntity<StreamingResponseBody> getAllComments() {
 
-        try {
+        // rows are written as they are read, so errors after the first row can no longer become a 500
+        StreamingResponseBody allComments = entityStreamService.streamAll(commentRepository::streamAll);
 
-            Iterable<Comment> allComments = commentRepository.findAll();
-
-            return new ResponseEntity<>(allComments, HttpStatus.OK);
-
-        } catch (Exception e) {
-            return ApiErrorHandling.genericApiError(e);
-        }
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(allComments);
 
     }
 
-    @DeleteMapping("/{id}")
-    public ResponseEntity<?> deleteCommentById(@PathVariable("id") String id) {
-
-        try {
-            if (ApiErrorHandling.isStrNaN(id)) {
-                throw new HttpClientErrorException(HttpStatus.BAD_REQUEST, id + " id not a valid ID");
-            }
+    @GetMapping("/")
+    public ResponseEntity<?> getCommentsPage(@RequestParam(value = "after", required = false) String after,
+                                             @RequestParam(value = "page", required = false) String page,
+                                             @RequestParam(value = "limit", required = false) String limit) {
 
-            long uID = Long.parseLong(id);
+        return Pagination.list(after, page, limit, commentRepository::findAll, commentRepository::findByIdGreaterThan, Comment::getId);
 
-            Optional<Comment> foundComment = commentRepository.findById(uID);
-
-            if (foundComment.isEmpty()) {
-                throw new HttpClientErrorException(HttpStatus.NOT_FOUND, " Comment not found with ID:" + id);
-            }
+    }
 
-            commentRepository.deleteById(uID);
+    @DeleteMapping("/{id}")
+    public ResponseEntity<?> deleteCommentById(@IdPathVariable long id) {
 
-            return new ResponseEntity<>(foundComment, HttpStatus.OK);
+        // one conditional DELETE instead of findById + deleteById, which loaded the row twice,
+        // and none at all for an id the index does not know
+        if (!idIndex.exists(Comment.class, id) || commentRepository.deleteRowById(id) == 0) {
+            return ApiErrorHandling.customApiError("Comment not found with ID: " + id, HttpStatus.NOT_FOUND);
+        }
 
-        } catch (HttpClientErrorException e) {
-            return ApiErrorHandling.customApiError(e.getMessage(), e.getStatusCode());
+        // the query bypasses Hibernate's delete events
+        idIndex.remove(Comment.class, id);
 
-        } catch (Exception e) {
-            return ApiErrorHandling.genericApiError(e);
-        }
+        return new ResponseEntity<>("Comment Deleted With ID: " + id, HttpStatus.OK);
 
     }
 
     @DeleteMapping("/deleteall")
     public ResponseEntity<?> deleteAllComments() {
 
-        try {
+        // chunked DELETE ... LIMIT statements instead of loading and deleting every entity,
+        // the count is what the statements report
+        long deletedComments = commentRepository.deleteAllInChunks();
 
-            long totalComments = commentRepository.count();
-            commentRepository.deleteAll();
+        // the statements bypass Hibernate's delete events
+        idIndex.reload(Comment.class);
 
-            return new ResponseEntity<>("Comments Deleted: " + totalComments, HttpStatus.OK);
-
-        } catch (HttpClientErrorException e) {
-            return ApiErrorHandling.customApiError(e.getMessage(), e.getStatusCode());
-
-        } catch (Exception e) {
-            return ApiErrorHandling.genericApiError(e);
-        }
+        return new ResponseEntity<>("Comments Deleted: " + deletedComments, HttpStatus.OK);
 
     }
 
     @PostMapping("/")
     public ResponseEntity<?> createComment(@RequestBody Comment newComment) {
 
-        try {
-
-            ValidationError errors = CommentValidation.validateComment(newComment, commentRepository, false);
-            if (errors.hasError()) {
-                throw new HttpClientErrorException(HttpStatus.BAD_REQUEST, errors.toJSONString());
-            }
-
-            Comment createdComment = commentRepository.save(newComment);
-
-            return new ResponseEntity<>(createdComment, HttpStatus.CREATED);
-
-        } catch(HttpClientErrorException e) {
-            return ApiErrorHandling.customApiError(e.getMessage(), e.getStatusCode());
-
-        } catch (Exception e) {
-            return ApiErrorHandling.genericApiError(e);
+        ValidationError errors = entityValidator.validate(newComment, false);
+        if (errors.hasError()) {
+            return ApiErrorHandling.validationApiError(errors);
         }
 
-    }
-
-    @PostMapping("/upload/{id}")
-    public ResponseEntity<?> uploadCommentById(@PathVariable("id") String commentId, RestTemplate restTemplate) {
+        Comment createdComment = commentRepository.save(newComment);
 
-        try {
+        return new ResponseEntity<>(createdComment, HttpStatus.CREATED);
 
-            if (ApiErrorHandling.isStrNaN(commentId)) {
-                throw new HttpClientErrorException(HttpStatus.BAD_REQUEST, commentId + " is not a valid ID.");
-            }
+    }
 
-            long uID = Long.parseLong(commentId);
+    @PostMapping(value = "/bulk", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<?> createComments(InputStream body) throws IOException {
 
-            String url = "https://gorest.co.in/public/v2/comments/" + uID;
+        List<Comment> newComments = bulkWriteService.read(body, Comment.class, true);
 
-            Comment foundComment = restTemplate.getForObject(url, Comment.class);
+        BulkResult result = bulkWriteService.create("comments", newComments, commentRepository, Comment::getId);
 
-            System.out.println(foundComment);
+        return new ResponseEntity<>(result, HttpStatus.CREATED);
 
-            assert foundComment != null;
+    }
 
-            if (foundComment == null) {
-                throw new HttpClientErrorException(HttpStatus.NOT_FOUND, "Comment with ID: " + uID + " not found.");
-            }
+    @PostMapping("/upload/{id}")
+    public ResponseEntity<?> uploadCommentById(@IdPathVariable long id) {
 
-            Comment savedComment = commentRepository.save(foundComment);
+        Comment foundComment = goRestImportService.fetchOne("comments", id, Comment.class);
 
-            return new ResponseEntity<>(savedComment, HttpStatus.CREATED);
+        if (foundComment == null) {
+            return ApiErrorHandling.customApiError("Comment with ID: " + id + " not found.", HttpStatus.NOT_FOUND);
+        }
 
-        } catch (HttpClientErrorException e) {
-            return ApiErrorHandling.customApiError(e.getMessage(), e.getStatusCode());
+        Comment savedComment = commentRepository.save(foundComment);
 
-        } catch (Exception e) {
-            return ApiErrorHandling.genericApiError(e);
-        }
+        return new ResponseEntity<>(savedComment, HttpStatus.CREATED);
 
     }
 
     @PostMapping("/uploadall")
-    public ResponseEntity<?> uploadAll(RestTemplate restTemplate) {
-
-        try {
-
-            String url = "https://gorest.co.in/public/v2/comments";
-
-            ResponseEntity<Comment[]> response = restTemplate.getForEntity(url, Comment[].class);
-
-            Comment[] firstPageComments = response.getBody();
-
-            if (firstPageComments == null) {
-                throw new HttpClientErrorException(HttpStatus.INTERNAL_SERVER_ERROR, "Failed to GET first page of comments from GoREST.");
-            }
+    public ResponseEntity<?> uploadAll() {
 
-            ArrayList<Comment> allComments = new ArrayList<>(Arrays.asList(firstPageComments));
+        // runs in the background and picks up from the last page an earlier import wrote, see /api/jobs
+        ImportJob job = importJobService.start("comments", ImportJob.Type.IMPORT);
 
-            HttpHeaders responseHeaders = response.getHeaders();
+        return JobController.accepted(job);
 
-            String totalPages = Objects.requireNonNull(responseHeaders.get("X-Pagination-Pages").get(0));
-            int totalPgNum = Integer.parseInt(totalPages);
-
-            for (int i = 2; i <= totalPgNum; i++) {
-
-                String pageUrl = url + "?page=" + i;
-                Comment[] pageComments = restTemplate.getForObject(pageUrl, Comment[].class);
-
-                if (firstPageComments == null) {
-                    throw new HttpClientErrorException(HttpStatus.INTERNAL_SERVER_ERROR, "Failed to GET page " + i + " of comments from GoREST");
-                }
-
-                allComments.addAll(Arrays.asList(firstPageComments));
-
-            }
+    }
 
-            commentRepository.saveAll(allComments);
+    @PostMapping("/sync")
+    public ResponseEntity<?> sync() {
 
-            return new ResponseEntity<>("Comments Created: " + allComments.size(), HttpStatus.OK);
+        // only new and changed rows are written, paging stops where the previous sync left off
+        SyncResult result = goRestSyncService.sync(GoRestSyncService.COMMENTS);
 
-        } catch (Exception e) {
-            return ApiErrorHandling.genericApiError(e);
-        }
+        return new ResponseEntity<>(result, HttpStatus.OK);
 
     }
 
     @PutMapping("/")
     public ResponseEntity<?> updateComment(@RequestBody Comment updateComment) {
 
-        try {
+        ValidationError errors = entityValidator.validate(updateComment, true);
+        if (errors.hasError()) {
+            return ApiErrorHandling.validationApiError(errors);
+        }
+
+        // one conditional UPDATE, no row affected means there is no comment with that id
+        if (commentRepository.updateRow(updateComment) == 0) {
+            return ApiErrorHandling.customApiError("No comment found with the ID: " + updateComment.getId(), HttpStatus.NOT_FOUND);
+        }
 
-            ValidationError errors = CommentValidation.validateComment(updateComment, commentRepository, true);
-            if (errors.hasError()) {
-                throw new HttpClientErrorException(HttpStatus.BAD_REQUEST, errors.toJSONString());
-            }
+        return new ResponseEntity<>(updateComment, HttpStatus.OK);
 
-            Comment savedComment = commentRepository.save(updateComment);
+    }
 
-            return new ResponseEntity<>(savedComment, HttpStatus.OK);
+    @PutMapping(value = "/bulk", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<?> updateComments(InputStream body) throws IOException {
 
-        } catch (HttpClientErrorException e) {
-            return ApiErrorHandling.customApiError(e.getMessage(), e.getStatusCode());
+        List<Comment> updateComments = bulkWriteService.read(body, Comment.class, false);
 
-        } catch (Exception e) {
-            return ApiErrorHandling.genericApiError(e);
-        }
+        BulkResult result = bulkWriteService.update("comments", updateComments, commentRepository, Comment::getId, "No comment found with the ID: ");
+
+        return new ResponseEntity<>(result, HttpStatus.OK);
 
     }
 
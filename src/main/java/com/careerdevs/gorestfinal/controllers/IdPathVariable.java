@@ -0,0 +1,22 @@
+package com.careerdevs.gorestfinal.controllers;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Binds an id from the path to a {@code long} parameter, see {@link IdPathVariableArgumentResolver}.
+ * Anything that is not an unsigned number within the range of a long is answered with a 400
+ * before the handler runs.
+ */
+@Target(ElementType.PARAMETER)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface IdPathVariable {
+
+    // name of the URI template variable
+    String value() default "id";
+
+}
@@ -0,0 +1,48 @@
+package com.careerdevs.gorestfinal.controllers;
+
+import com.careerdevs.gorestfinal.utils.ApiClientError;
+import com.careerdevs.gorestfinal.utils.ApiErrorHandling;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.support.WebDataBinderFactory;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.method.support.ModelAndViewContainer;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.Map;
+
+/**
+ * Resolves {@link IdPathVariable} parameters with {@link ApiErrorHandling#parseId}. Unlike a plain
+ * {@code @PathVariable long}, which goes through the conversion service, an invalid id never raises a
+ * NumberFormatException, only an {@link ApiClientError}, which has no stack trace.
+ */
+public class IdPathVariableArgumentResolver implements HandlerMethodArgumentResolver {
+
+    @Override
+    public boolean supportsParameter(MethodParameter parameter) {
+        return parameter.hasParameterAnnotation(IdPathVariable.class)
+                && (parameter.getParameterType() == long.class || parameter.getParameterType() == Long.class);
+    }
+
+    @Override
+    public Object resolveArgument(MethodParameter parameter, ModelAndViewContainer mavContainer,
+                                  NativeWebRequest webRequest, WebDataBinderFactory binderFactory) {
+
+        @SuppressWarnings("unchecked")
+        Map<String, String> uriVariables = (Map<String, String>) webRequest.getAttribute(
+                HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+
+        String value = uriVariables == null ? null : uriVariables.get(parameter.getParameterAnnotation(IdPathVariable.class).value());
+
+        long id = ApiErrorHandling.parseId(value);
+
+        if (id == ApiErrorHandling.INVALID_ID) {
+            throw new ApiClientError(HttpStatus.BAD_REQUEST, value + " is not a valid ID");
+        }
+
+        return id;
+    }
+
+}
@@ -0,0 +1,81 @@
+package com.careerdevs.gorestfinal.controllers;
+
+import com.careerdevs.gorestfinal.services.ImportJob;
+import com.careerdevs.gorestfinal.services.ImportJobService;
+import com.careerdevs.gorestfinal.utils.ApiErrorHandling;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.net.URI;
+import java.util.Optional;
+
+@RestController
+@Profile("!reactive")
+@RequestMapping("/api/jobs")
+public class JobController {
+
+    @Autowired
+    private ImportJobService importJobService;
+
+    // the background imports and syncs, newest first, with pages done, rows per second and the ETA
+    @GetMapping("/")
+    public ResponseEntity<?> getJobs() {
+
+        return new ResponseEntity<>(importJobService.list(), HttpStatus.OK);
+
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<?> getJobById(@IdPathVariable long id) {
+
+        Optional<ImportJob> foundJob = importJobService.get(id);
+
+        if (foundJob.isEmpty()) {
+            return ApiErrorHandling.customApiError("Job Not Found With ID: " + id, HttpStatus.NOT_FOUND);
+        }
+
+        return new ResponseEntity<>(foundJob.get(), HttpStatus.OK);
+
+    }
+
+    @PostMapping("/{resource}")
+    public ResponseEntity<?> startJob(@PathVariable String resource,
+                                      @RequestParam(value = "type", defaultValue = "import") String type) {
+
+        ImportJob.Type jobType;
+
+        try {
+            jobType = ImportJob.Type.valueOf(type.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return ApiErrorHandling.customApiError("Job type must be import, sync or dump, was: " + type, HttpStatus.BAD_REQUEST);
+        }
+
+        return accepted(importJobService.start(resource, jobType));
+
+    }
+
+    // a queued job is dropped, a running one stops after the page it is writing
+    @DeleteMapping("/{id}")
+    public ResponseEntity<?> cancelJob(@IdPathVariable long id) {
+
+        Optional<ImportJob> foundJob = importJobService.cancel(id);
+
+        if (foundJob.isEmpty()) {
+            return ApiErrorHandling.customApiError("Job Not Found With ID: " + id, HttpStatus.NOT_FOUND);
+        }
+
+        return new ResponseEntity<>(foundJob.get(), HttpStatus.OK);
+
+    }
+
+    // 202 with the job, which /api/jobs/{id} keeps reporting on
+    static ResponseEntity<ImportJob> accepted(ImportJob job) {
+
+        return ResponseEntity.accepted().location(URI.create("/api/jobs/" + job.getId())).body(job);
+
+    }
+
+}
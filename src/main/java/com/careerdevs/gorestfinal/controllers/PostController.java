@@ -1,251 +1,229 @@
 package com.careerdevs.gorestfinal.controllers;
 
 import com.careerdevs.gorestfinal.models.Post;
+import com.careerdevs.gorestfinal.repositories.CommentRepository;
+import com.careerdevs.gorestfinal.repositories.IdIndex;
 import com.careerdevs.gorestfinal.repositories.PostRepository;
+import com.careerdevs.gorestfinal.services.BulkResult;
+import com.careerdevs.gorestfinal.services.BulkWriteService;
+import com.careerdevs.gorestfinal.services.CascadeDeleteService;
+import com.careerdevs.gorestfinal.services.EntityStreamService;
+import com.careerdevs.gorestfinal.services.GoRestImportService;
+import com.careerdevs.gorestfinal.services.GoRestSyncService;
+import com.careerdevs.gorestfinal.services.ImportJob;
+import com.careerdevs.gorestfinal.services.ImportJobService;
+import com.careerdevs.gorestfinal.services.SyncResult;
 import com.careerdevs.gorestfinal.utils.ApiErrorHandling;
-import com.careerdevs.gorestfinal.validation.PostValidation;
+import com.careerdevs.gorestfinal.utils.Pagination;
+import com.careerdevs.gorestfinal.validation.EntityValidator;
 import com.careerdevs.gorestfinal.validation.ValidationError;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.http.HttpHeaders;
+import org.springframework.context.annotation.Profile;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
-import org.springframework.web.client.HttpClientErrorException;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.Objects;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
 import java.util.Optional;
 
 @RestController
+@Profile("!reactive")
 @RequestMapping("/api/posts")
 public class PostController {
 
     @Autowired
     PostRepository postRepository;
 
-    @GetMapping("/test")
-    public String testRoute() {
-        return "TESTING!";
-    }
-
-    @GetMapping("/{id}")
-    public ResponseEntity<?> getPostById (@PathVariable("id") String id) {
+    @Autowired
+    CommentRepository commentRepository;
 
-        try {
+    @Autowired
+    GoRestImportService goRestImportService;
 
-            if (ApiErrorHandling.isStrNaN(id)) {
-                System.out.println("NOT AN ID.");
-                throw new HttpClientErrorException(HttpStatus.BAD_REQUEST, id + " ID is not a valid ID.");
-            }
+    @Autowired
+    GoRestSyncService goRestSyncService;
 
-            long uID = Long.parseLong(id);
+    @Autowired
+    ImportJobService importJobService;
 
-            Optional<Post> foundPost = postRepository.findById(uID);
+    @Autowired
+    EntityStreamService entityStreamService;
 
-            if (foundPost.isEmpty()) {
-                throw new HttpClientErrorException(HttpStatus.NOT_FOUND, " Post Not Found With ID: " + id);
-            }
+    @Autowired
+    BulkWriteService bulkWriteService;
 
-            return new ResponseEntity<>(foundPost, HttpStatus.OK);
+    @Autowired
+    EntityValidator entityValidator;
 
-        } catch (HttpClientErrorException e) {
-            return ApiErrorHandling.customApiError(e.getMessage(), e.getStatusCode());
+    @Autowired
+    IdIndex idIndex;
 
-        } catch (Exception e) {
-            return ApiErrorHandling.genericApiError(e);
-        }
+    @Autowired
+    CascadeDeleteService cascadeDeleteService;
 
+    @GetMapping("/test")
+    public String testRoute() {
+        return "TESTING!";
     }
 
-    @GetMapping("/all")
-    public ResponseEntity<?> getAllPosts() {
+    @GetMapping("/{id}")
+    public ResponseEntity<?> getPostById (@IdPathVariable long id) {
 
-        try {
+        // an id the index does not know has no row, no need to ask the cache or the database
+        Optional<Post> foundPost = idIndex.exists(Post.class, id) ? postRepository.findById(id) : Optional.empty();
 
-            Iterable<Post> allPosts = postRepository.findAll();
+        if (foundPost.isEmpty()) {
+            return ApiErrorHandling.customApiError("Post Not Found With ID: " + id, HttpStatus.NOT_FOUND);
+        }
 
-            return new ResponseEntity<>(allPosts, HttpStatus.OK);
+        return new ResponseEntity<>(foundPost, HttpStatus.OK);
 
-        } catch (Exception e) {
-            return ApiErrorHandling.genericApiError(e);
+    }
+
+    @GetMapping("/{id}/comments")
+    public ResponseEntity<?> getPostComments(@IdPathVariable long id) {
+
+        if (!idIndex.exists(Post.class, id)) {
+            return ApiErrorHandling.customApiError("Post Not Found With ID: " + id, HttpStatus.NOT_FOUND);
         }
 
+        // one SELECT on the idx_comment_post_id index, the comments carry post_id rather than the post itself
+        return new ResponseEntity<>(commentRepository.findByPostId(id), HttpStatus.OK);
+
     }
 
-    @DeleteMapping("/{id}")
-    public ResponseEntity<?> deletePostById(@PathVariable("id") String id) {
+    @GetMapping("/all")
+    public ResponseEntity<StreamingResponseBody> getAllPosts() {
 
-        try {
-            if (ApiErrorHandling.isStrNaN(id)) {
-                throw new HttpClientErrorException(HttpStatus.BAD_REQUEST, id + " id not a valid ID");
-            }
+        // rows are written as they are read, so errors after the first row can no longer become a 500
+        StreamingResponseBody allPosts = entityStreamService.streamAll(postRepository::streamAll);
 
-            long uID = Long.parseLong(id);
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(allPosts);
 
-            Optional<Post> foundPost = postRepository.findById(uID);
+    }
 
-            if (foundPost.isEmpty()) {
-                throw new HttpClientErrorException(HttpStatus.NOT_FOUND, " Post not found with ID:" + id);
-            }
+    @GetMapping("/")
+    public ResponseEntity<?> getPostsPage(@RequestParam(value = "after", required = false) String after,
+                                          @RequestParam(value = "page", required = false) String page,
+                                          @RequestParam(value = "limit", required = false) String limit) {
 
-            postRepository.deleteById(uID);
+        return Pagination.list(after, page, limit, postRepository::findAll, postRepository::findByIdGreaterThan, Post::getId);
 
-            return new ResponseEntity<>(foundPost, HttpStatus.OK);
+    }
 
-        } catch (HttpClientErrorException e) {
-            return ApiErrorHandling.customApiError(e.getMessage(), e.getStatusCode());
+    @DeleteMapping("/{id}")
+    public ResponseEntity<?> deletePostById(@IdPathVariable long id) {
 
-        } catch (Exception e) {
-            return ApiErrorHandling.genericApiError(e);
+        // one statement per table for the post and everything referencing it,
+        // and none at all for an id the index does not know
+        if (!idIndex.exists(Post.class, id) || !cascadeDeleteService.deletePost(id)) {
+            return ApiErrorHandling.customApiError("Post not found with ID: " + id, HttpStatus.NOT_FOUND);
         }
 
+        return new ResponseEntity<>("Post Deleted With ID: " + id, HttpStatus.OK);
+
     }
 
     @DeleteMapping("/deleteall")
     public ResponseEntity<?> deleteAllPosts() {
 
-        try {
-
-            long totalPosts = postRepository.count();
-            postRepository.deleteAll();
-
-            return new ResponseEntity<>("Posts Deleted: " + totalPosts, HttpStatus.OK);
+        // chunked DELETE ... LIMIT statements for the rows referencing them first, then for the posts,
+        // the count is what the statements report
+        long deletedPosts = cascadeDeleteService.deleteAllPosts();
 
-        } catch (HttpClientErrorException e) {
-            return ApiErrorHandling.customApiError(e.getMessage(), e.getStatusCode());
-
-        } catch (Exception e) {
-            return ApiErrorHandling.genericApiError(e);
-        }
+        return new ResponseEntity<>("Posts Deleted: " + deletedPosts, HttpStatus.OK);
 
     }
 
     @PostMapping("/")
     public ResponseEntity<?> createPost(@RequestBody Post newPost) {
 
-        try {
-
-            ValidationError errors = PostValidation.validatePost(newPost, postRepository, false);
-            if (errors.hasError()) {
-                throw new HttpClientErrorException(HttpStatus.BAD_REQUEST, errors.toJSONString());
-            }
-
-            Post createdPost = postRepository.save(newPost);
-
-            return new ResponseEntity<>(createdPost, HttpStatus.CREATED);
-
-        } catch(HttpClientErrorException e) {
-            return ApiErrorHandling.customApiError(e.getMessage(), e.getStatusCode());
-
-        } catch (Exception e) {
-            return ApiErrorHandling.genericApiError(e);
+        ValidationError errors = entityValidator.validate(newPost, false);
+        if (errors.hasError()) {
+            return ApiErrorHandling.validationApiError(errors);
         }
 
-    }
+        Post createdPost = postRepository.save(newPost);
 
-    @PostMapping("/upload/{id}")
-    public ResponseEntity<?> uploadPostById(@PathVariable("id") String postId, RestTemplate restTemplate) {
+        return new ResponseEntity<>(createdPost, HttpStatus.CREATED);
 
-        try {
-
-            if (ApiErrorHandling.isStrNaN(postId)) {
-                throw new HttpClientErrorException(HttpStatus.BAD_REQUEST, postId + " is not a valid ID.");
-            }
+    }
 
-            long uID = Long.parseLong(postId);
+    @PostMapping(value = "/bulk", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<?> createPosts(InputStream body) throws IOException {
 
-            String url = "https://gorest.co.in/public/v2/posts/" + uID;
+        List<Post> newPosts = bulkWriteService.read(body, Post.class, true);
 
-            Post foundPost = restTemplate.getForObject(url, Post.class);
+        BulkResult result = bulkWriteService.create("posts", newPosts, postRepository, Post::getId);
 
-            System.out.println(foundPost);
+        return new ResponseEntity<>(result, HttpStatus.CREATED);
 
-            assert foundPost != null;
+    }
 
-            if (foundPost == null) {
-                throw new HttpClientErrorException(HttpStatus.NOT_FOUND, "Post with ID: " + uID + " not found.");
-            }
+    @PostMapping("/upload/{id}")
+    public ResponseEntity<?> uploadPostById(@IdPathVariable long id) {
 
-            Post savedPost = postRepository.save(foundPost);
+        Post foundPost = goRestImportService.fetchOne("posts", id, Post.class);
 
-            return new ResponseEntity<>(savedPost, HttpStatus.CREATED);
+        if (foundPost == null) {
+            return ApiErrorHandling.customApiError("Post with ID: " + id + " not found.", HttpStatus.NOT_FOUND);
+        }
 
-        } catch (HttpClientErrorException e) {
-            return ApiErrorHandling.customApiError(e.getMessage(), e.getStatusCode());
+        Post savedPost = postRepository.save(foundPost);
 
-        } catch (Exception e) {
-            return ApiErrorHandling.genericApiError(e);
-        }
+        return new ResponseEntity<>(savedPost, HttpStatus.CREATED);
 
     }
 
     @PostMapping("/uploadall")
-    public ResponseEntity<?> uploadAll(RestTemplate restTemplate) {
-
-        try {
-
-            String url = "https://gorest.co.in/public/v2/posts";
+    public ResponseEntity<?> uploadAll() {
 
-            ResponseEntity<Post[]> response = restTemplate.getForEntity(url, Post[].class);
+        // runs in the background and picks up from the last page an earlier import wrote, see /api/jobs
+        ImportJob job = importJobService.start("posts", ImportJob.Type.IMPORT);
 
-            Post[] firstPagePosts = response.getBody();
+        return JobController.accepted(job);
 
-            if (firstPagePosts == null) {
-                throw new HttpClientErrorException(HttpStatus.INTERNAL_SERVER_ERROR, "Failed to GET first page of posts from GoREST.");
-            }
-
-            ArrayList<Post> allPosts = new ArrayList<>(Arrays.asList(firstPagePosts));
-
-            HttpHeaders responseHeaders = response.getHeaders();
-
-            String totalPages = Objects.requireNonNull(responseHeaders.get("X-Pagination-Pages").get(0));
-            int totalPgNum = Integer.parseInt(totalPages);
-
-            for (int i = 2; i <= totalPgNum; i++) {
-
-                String pageUrl = url + "?page=" + i;
-                Post[] pagePosts = restTemplate.getForObject(pageUrl, Post[].class);
-
-                if (firstPagePosts == null) {
-                    throw new HttpClientErrorException(HttpStatus.INTERNAL_SERVER_ERROR, "Failed to GET page " + i + " of posts from GoREST");
-                }
-
-                allPosts.addAll(Arrays.asList(firstPagePosts));
-
-            }
+    }
 
-            postRepository.saveAll(allPosts);
+    @PostMapping("/sync")
+    public ResponseEntity<?> sync() {
 
-            return new ResponseEntity<>("Posts Created: " + allPosts.size(), HttpStatus.OK);
+        // only new and changed rows are written, paging stops where the previous sync left off
+        SyncResult result = goRestSyncService.sync(GoRestSyncService.POSTS);
 
-        } catch (Exception e) {
-            return ApiErrorHandling.genericApiError(e);
-        }
+        return new ResponseEntity<>(result, HttpStatus.OK);
 
     }
 
     @PutMapping("/")
     public ResponseEntity<?> updatePost(@RequestBody Post updatePost) {
 
-        try {
+        ValidationError errors = entityValidator.validate(updatePost, true);
+        if (errors.hasError()) {
+            return ApiErrorHandling.validationApiError(errors);
+        }
+
+        // one conditional UPDATE, no row affected means there is no post with that id
+        if (postRepository.updateRow(updatePost) == 0) {
+            return ApiErrorHandling.customApiError("No post found with the ID: " + updatePost.getId(), HttpStatus.NOT_FOUND);
+        }
+
+        return new ResponseEntity<>(updatePost, HttpStatus.OK);
 
-            ValidationError errors = PostValidation.validatePost(updatePost, postRepository, true);
-            if (errors.hasError()) {
-                throw new HttpClientErrorException(HttpStatus.BAD_REQUEST, errors.toJSONString());
-            }
+    }
 
-            Post savedPost = postRepository.save(updatePost);
+    @PutMapping(value = "/bulk", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<?> updatePosts(InputStream body) throws IOException {
 
-            return new ResponseEntity<>(savedPost, HttpStatus.OK);
+        List<Post> updatePosts = bulkWriteService.read(body, Post.class, false);
 
-        } catch (HttpClientErrorException e) {
-            return ApiErrorHandling.customApiError(e.getMessage(), e.getStatusCode());
+        BulkResult result = bulkWriteService.update("posts", updatePosts, postRepository, Post::getId, "No post found with the ID: ");
 
-        } catch (Exception e) {
-            return ApiErrorHandling.genericApiError(e);
-        }
+        return new ResponseEntity<>(result, HttpStatus.OK);
 
     }
 
@@ -2,247 +2,211 @@ package com.careerdevs.gorestfinal.controllers;
 
 import com.careerdevs.gorestfinal.models.ToDo;
 
+import com.careerdevs.gorestfinal.repositories.IdIndex;
 import com.careerdevs.gorestfinal.repositories.ToDoRepository;
+import com.careerdevs.gorestfinal.services.BulkResult;
+import com.careerdevs.gorestfinal.services.BulkWriteService;
+import com.careerdevs.gorestfinal.services.EntityStreamService;
+import com.careerdevs.gorestfinal.services.GoRestImportService;
+import com.careerdevs.gorestfinal.services.GoRestSyncService;
+import com.careerdevs.gorestfinal.services.ImportJob;
+import com.careerdevs.gorestfinal.services.ImportJobService;
+import com.careerdevs.gorestfinal.services.SyncResult;
 import com.careerdevs.gorestfinal.utils.ApiErrorHandling;
-import com.careerdevs.gorestfinal.validation.ToDoValidation;
+import com.careerdevs.gorestfinal.utils.Pagination;
+import com.careerdevs.gorestfinal.validation.EntityValidator;
 import com.careerdevs.gorestfinal.validation.ValidationError;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.http.HttpHeaders;
+import org.springframework.context.annotation.Profile;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
-import org.springframework.web.client.HttpClientErrorException;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.Objects;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
 import java.util.Optional;
 
 @RestController
+@Profile("!reactive")
 @RequestMapping("/api/todos")
 public class ToDoController {
 
     @Autowired
     ToDoRepository toDoRepository;
 
-    @GetMapping("/{id}")
-    public ResponseEntity<?> getToDoById (@PathVariable("id") String id) {
+    @Autowired
+    GoRestImportService goRestImportService;
 
-        try {
+    @Autowired
+    GoRestSyncService goRestSyncService;
 
-            if (ApiErrorHandling.isStrNaN(id)) {
-                System.out.println("NOT AN ID.");
-                throw new HttpClientErrorException(HttpStatus.BAD_REQUEST, id + " ID is not a valid ID.");
-            }
+    @Autowired
+    ImportJobService importJobService;
 
-            long uID = Long.parseLong(id);
+    @Autowired
+    EntityStreamService entityStreamService;
+
+    @Autowired
+    BulkWriteService bulkWriteService;
 
-            Optional<ToDo> foundToDo = toDoRepository.findById(uID);
+    @Autowired
+    EntityValidator entityValidator;
 
-            if (foundToDo.isEmpty()) {
-                throw new HttpClientErrorException(HttpStatus.NOT_FOUND, " ToDo Not Found With ID: " + id);
-            }
+    @Autowired
+    IdIndex idIndex;
 
-            return new ResponseEntity<>(foundToDo, HttpStatus.OK);
+    @GetMapping("/{id}")
+    public ResponseEntity<?> getToDoById (@IdPathVariable long id) {
 
-        } catch (HttpClientErrorException e) {
-            return ApiErrorHandling.customApiError(e.getMessage(), e.getStatusCode());
+        // an id the index does not know has no row, no need to ask the cache or the database
+        Optional<ToDo> foundToDo = idIndex.exists(ToDo.class, id) ? toDoRepository.findById(id) : Optional.empty();
 
-        } catch (Exception e) {
-            return ApiErrorHandling.genericApiError(e);
+        if (foundToDo.isEmpty()) {
+            return ApiErrorHandling.customApiError("ToDo Not Found With ID: " + id, HttpStatus.NOT_FOUND);
         }
 
+        return new ResponseEntity<>(foundToDo, HttpStatus.OK);
+
     }
 
     @GetMapping("/all")
-    public ResponseEntity<?> getAllToDos() {
+    public ResponseEntity<StreamingResponseBody> getAllToDos() {
 
-        try {
+        // rows are written as they are read, so errors after the first row can no longer become a 500
+        StreamingResponseBody allToDos = entityStreamService.streamAll(toDoRepository::streamAll);
 
-            Iterable<ToDo> allToDos = toDoRepository.findAll();
-
-            return new ResponseEntity<>(allToDos, HttpStatus.OK);
-
-        } catch (Exception e) {
-            return ApiErrorHandling.genericApiError(e);
-        }
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(allToDos);
 
     }
 
-    @DeleteMapping("/{id}")
-    public ResponseEntity<?> deleteToDoById(@PathVariable("id") String id) {
-
-        try {
-            if (ApiErrorHandling.isStrNaN(id)) {
-                throw new HttpClientErrorException(HttpStatus.BAD_REQUEST, id + " id not a valid ID");
-            }
+    @GetMapping("/")
+    public ResponseEntity<?> getToDosPage(@RequestParam(value = "after", required = false) String after,
+                                          @RequestParam(value = "page", required = false) String page,
+                                          @RequestParam(value = "limit", required = false) String limit) {
 
-            long uID = Long.parseLong(id);
+        return Pagination.list(after, page, limit, toDoRepository::findAll, toDoRepository::findByIdGreaterThan, ToDo::getId);
 
-            Optional<ToDo> foundToDo = toDoRepository.findById(uID);
-
-            if (foundToDo.isEmpty()) {
-                throw new HttpClientErrorException(HttpStatus.NOT_FOUND, " ToDo not found with ID:" + id);
-            }
+    }
 
-            toDoRepository.deleteById(uID);
+    @DeleteMapping("/{id}")
+    public ResponseEntity<?> deleteToDoById(@IdPathVariable long id) {
 
-            return new ResponseEntity<>(foundToDo, HttpStatus.OK);
+        // one conditional DELETE instead of findById + deleteById, which loaded the row twice,
+        // and none at all for an id the index does not know
+        if (!idIndex.exists(ToDo.class, id) || toDoRepository.deleteRowById(id) == 0) {
+            return ApiErrorHandling.customApiError("ToDo not found with ID: " + id, HttpStatus.NOT_FOUND);
+        }
 
-        } catch (HttpClientErrorException e) {
-            return ApiErrorHandling.customApiError(e.getMessage(), e.getStatusCode());
+        // the query bypasses Hibernate's delete events
+        idIndex.remove(ToDo.class, id);
 
-        } catch (Exception e) {
-            return ApiErrorHandling.genericApiError(e);
-        }
+        return new ResponseEntity<>("ToDo Deleted With ID: " + id, HttpStatus.OK);
 
     }
 
     @DeleteMapping("/deleteall")
     public ResponseEntity<?> deleteAllToDos() {
 
-        try {
+        // chunked DELETE ... LIMIT statements instead of loading and deleting every entity,
+        // the count is what the statements report
+        long deletedToDos = toDoRepository.deleteAllInChunks();
 
-            long totalToDos = toDoRepository.count();
-            toDoRepository.deleteAll();
+        // the statements bypass Hibernate's delete events
+        idIndex.reload(ToDo.class);
 
-            return new ResponseEntity<>("ToDos Deleted: " + totalToDos, HttpStatus.OK);
-
-        } catch (HttpClientErrorException e) {
-            return ApiErrorHandling.customApiError(e.getMessage(), e.getStatusCode());
-
-        } catch (Exception e) {
-            return ApiErrorHandling.genericApiError(e);
-        }
+        return new ResponseEntity<>("ToDos Deleted: " + deletedToDos, HttpStatus.OK);
 
     }
 
     @PostMapping("/")
     public ResponseEntity<?> createToDo(@RequestBody ToDo newToDo) {
 
-        try {
-
-            ValidationError errors = ToDoValidation.validateToDo(newToDo, toDoRepository, false);
-            if (errors.hasError()) {
-                throw new HttpClientErrorException(HttpStatus.BAD_REQUEST, errors.toJSONString());
-            }
-
-            ToDo createdToDo = toDoRepository.save(newToDo);
-
-            return new ResponseEntity<>(createdToDo, HttpStatus.CREATED);
-
-        } catch(HttpClientErrorException e) {
-            return ApiErrorHandling.customApiError(e.getMessage(), e.getStatusCode());
-
-        } catch (Exception e) {
-            return ApiErrorHandling.genericApiError(e);
+        ValidationError errors = entityValidator.validate(newToDo, false);
+        if (errors.hasError()) {
+            return ApiErrorHandling.validationApiError(errors);
         }
 
-    }
-
-    @PostMapping("/upload/{id}")
-    public ResponseEntity<?> uploadToDoById(@PathVariable("id") String toDoId, RestTemplate restTemplate) {
+        ToDo createdToDo = toDoRepository.save(newToDo);
 
-        try {
+        return new ResponseEntity<>(createdToDo, HttpStatus.CREATED);
 
-            if (ApiErrorHandling.isStrNaN(toDoId)) {
-                throw new HttpClientErrorException(HttpStatus.BAD_REQUEST, toDoId + " is not a valid ID.");
-            }
+    }
 
-            long uID = Long.parseLong(toDoId);
+    @PostMapping(value = "/bulk", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<?> createToDos(InputStream body) throws IOException {
 
-            String url = "https://gorest.co.in/public/v2/todos/" + uID;
+        List<ToDo> newToDos = bulkWriteService.read(body, ToDo.class, true);
 
-            ToDo foundToDo = restTemplate.getForObject(url, ToDo.class);
+        BulkResult result = bulkWriteService.create("todos", newToDos, toDoRepository, ToDo::getId);
 
-            System.out.println(foundToDo);
+        return new ResponseEntity<>(result, HttpStatus.CREATED);
 
-            assert foundToDo != null;
+    }
 
-            if (foundToDo == null) {
-                throw new HttpClientErrorException(HttpStatus.NOT_FOUND, "ToDo with ID: " + uID + " not found.");
-            }
+    @PostMapping("/upload/{id}")
+    public ResponseEntity<?> uploadToDoById(@IdPathVariable long id) {
 
-            ToDo savedToDo = toDoRepository.save(foundToDo);
+        ToDo foundToDo = goRestImportService.fetchOne("todos", id, ToDo.class);
 
-            return new ResponseEntity<>(savedToDo, HttpStatus.CREATED);
+        if (foundToDo == null) {
+            return ApiErrorHandling.customApiError("ToDo with ID: " + id + " not found.", HttpStatus.NOT_FOUND);
+        }
 
-        } catch (HttpClientErrorException e) {
-            return ApiErrorHandling.customApiError(e.getMessage(), e.getStatusCode());
+        ToDo savedToDo = toDoRepository.save(foundToDo);
 
-        } catch (Exception e) {
-            return ApiErrorHandling.genericApiError(e);
-        }
+        return new ResponseEntity<>(savedToDo, HttpStatus.CREATED);
 
     }
 
     @PostMapping("/uploadall")
-    public ResponseEntity<?> uploadAll(RestTemplate restTemplate) {
-
-        try {
-
-            String url = "https://gorest.co.in/public/v2/todos";
-
-            ResponseEntity<ToDo[]> response = restTemplate.getForEntity(url, ToDo[].class);
-
-            ToDo[] firstPageToDos = response.getBody();
-
-            if (firstPageToDos == null) {
-                throw new HttpClientErrorException(HttpStatus.INTERNAL_SERVER_ERROR, "Failed to GET first page of todos from GoREST.");
-            }
+    public ResponseEntity<?> uploadAll() {
 
-            ArrayList<ToDo> allToDos = new ArrayList<>(Arrays.asList(firstPageToDos));
+        // runs in the background and picks up from the last page an earlier import wrote, see /api/jobs
+        ImportJob job = importJobService.start("todos", ImportJob.Type.IMPORT);
 
-            HttpHeaders responseHeaders = response.getHeaders();
+        return JobController.accepted(job);
 
-            String totalPages = Objects.requireNonNull(responseHeaders.get("X-Pagination-Pages").get(0));
-            int totalPgNum = Integer.parseInt(totalPages);
-
-            for (int i = 2; i <= totalPgNum; i++) {
-
-                String pageUrl = url + "?page=" + i;
-                ToDo[] pageToDos = restTemplate.getForObject(pageUrl, ToDo[].class);
-
-                if (firstPageToDos == null) {
-                    throw new HttpClientErrorException(HttpStatus.INTERNAL_SERVER_ERROR, "Failed to GET page " + i + " of todos from GoREST");
-                }
-
-                allToDos.addAll(Arrays.asList(firstPageToDos));
-
-            }
+    }
 
-            toDoRepository.saveAll(allToDos);
+    @PostMapping("/sync")
+    public ResponseEntity<?> sync() {
 
-            return new ResponseEntity<>("ToDos Created: " + allToDos.size(), HttpStatus.OK);
+        // only new and changed rows are written, paging stops where the previous sync left off
+        SyncResult result = goRestSyncService.sync(GoRestSyncService.TODOS);
 
-        } catch (Exception e) {
-            return ApiErrorHandling.genericApiError(e);
-        }
+        return new ResponseEntity<>(result, HttpStatus.OK);
 
     }
 
     @PutMapping("/")
     public ResponseEntity<?> updateToDo(@RequestBody ToDo updateToDo) {
 
-        try {
+        ValidationError errors = entityValidator.validate(updateToDo, true);
+        if (errors.hasError()) {
+            return ApiErrorHandling.validationApiError(errors);
+        }
+
+        // one conditional UPDATE, no row affected means there is no todo with that id
+        if (toDoRepository.updateRow(updateToDo) == 0) {
+            return ApiErrorHandling.customApiError("No todo found with the ID: " + updateToDo.getId(), HttpStatus.NOT_FOUND);
+        }
 
-            ValidationError errors = ToDoValidation.validateToDo(updateToDo, toDoRepository, true);
-            if (errors.hasError()) {
-                throw new HttpClientErrorException(HttpStatus.BAD_REQUEST, errors.toJSONString());
-            }
+        return new ResponseEntity<>(updateToDo, HttpStatus.OK);
 
-            ToDo savedToDo = toDoRepository.save(updateToDo);
+    }
 
-            return new ResponseEntity<>(savedToDo, HttpStatus.OK);
+    @PutMapping(value = "/bulk", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<?> updateToDos(InputStream body) throws IOException {
 
-        } catch (HttpClientErrorException e) {
-            return ApiErrorHandling.customApiError(e.getMessage(), e.getStatusCode());
+        List<ToDo> updateToDos = bulkWriteService.read(body, ToDo.class, false);
 
-        } catch (Exception e) {
-            return ApiErrorHandling.genericApiError(e);
-        }
+        BulkResult result = bulkWriteService.update("todos", updateToDos, toDoRepository, ToDo::getId, "No todo found with the ID: ");
+
+        return new ResponseEntity<>(result, HttpStatus.OK);
 
     }
 
-}
\ No newline at end of file
+}
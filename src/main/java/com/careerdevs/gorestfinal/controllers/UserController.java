@@ -1,245 +1,224 @@
 package com.careerdevs.gorestfinal.controllers;
 
 import com.careerdevs.gorestfinal.models.User;
+import com.careerdevs.gorestfinal.repositories.IdIndex;
+import com.careerdevs.gorestfinal.repositories.PostRepository;
 import com.careerdevs.gorestfinal.repositories.UserRepository;
+import com.careerdevs.gorestfinal.services.BulkResult;
+import com.careerdevs.gorestfinal.services.BulkWriteService;
+import com.careerdevs.gorestfinal.services.CascadeDeleteService;
+import com.careerdevs.gorestfinal.services.EntityStreamService;
+import com.careerdevs.gorestfinal.services.GoRestImportService;
+import com.careerdevs.gorestfinal.services.GoRestSyncService;
+import com.careerdevs.gorestfinal.services.ImportJob;
+import com.careerdevs.gorestfinal.services.ImportJobService;
+import com.careerdevs.gorestfinal.services.SyncResult;
 import com.careerdevs.gorestfinal.utils.ApiErrorHandling;
-import com.careerdevs.gorestfinal.validation.UserValidation;
+import com.careerdevs.gorestfinal.utils.Pagination;
+import com.careerdevs.gorestfinal.validation.EntityValidator;
 import com.careerdevs.gorestfinal.validation.ValidationError;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.http.HttpHeaders;
+import org.springframework.context.annotation.Profile;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
-import org.springframework.web.client.HttpClientErrorException;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.Objects;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
 import java.util.Optional;
 
 @RestController
+@Profile("!reactive")
 @RequestMapping("/api/users")
 public class UserController {
 
     @Autowired
     private UserRepository userRepository;
 
-    @GetMapping("/{id}")
-    public ResponseEntity<?> getUserById (@PathVariable("id") String id) {
+    @Autowired
+    private PostRepository postRepository;
 
-        try {
+    @Autowired
+    private GoRestImportService goRestImportService;
 
-            if (ApiErrorHandling.isStrNaN(id)) {
-                System.out.println("NOT AN ID.");
-                throw new HttpClientErrorException(HttpStatus.BAD_REQUEST, id + " id is not a valid ID");
-            }
+    @Autowired
+    private GoRestSyncService goRestSyncService;
 
-            long uID = Integer.parseInt(id);
+    @Autowired
+    private ImportJobService importJobService;
 
-            Optional<User> foundUser = userRepository.findById(uID);
+    @Autowired
+    private EntityStreamService entityStreamService;
 
-            if (foundUser.isEmpty()) {
-                throw new HttpClientErrorException(HttpStatus.NOT_FOUND, " User Not Found With ID: " + id);
-            }
+    @Autowired
+    private BulkWriteService bulkWriteService;
 
-            return new ResponseEntity<>(foundUser, HttpStatus.OK);
+    @Autowired
+    private EntityValidator entityValidator;
 
-        } catch (HttpClientErrorException e) {
-            return ApiErrorHandling.customApiError(e.getMessage(), e.getStatusCode());
+    @Autowired
+    private IdIndex idIndex;
 
-        } catch (Exception e) {
-            return ApiErrorHandling.genericApiError(e);
-        }
+    @Autowired
+    private CascadeDeleteService cascadeDeleteService;
 
-    }
+    @GetMapping("/{id}")
+    public ResponseEntity<?> getUserById (@IdPathVariable long id) {
 
-    @GetMapping("/all")
-    public ResponseEntity<?> getAllUsers () {
+        // an id the index does not know has no row, no need to ask the cache or the database
+        Optional<User> foundUser = idIndex.exists(User.class, id) ? userRepository.findById(id) : Optional.empty();
+
+        if (foundUser.isEmpty()) {
+            return ApiErrorHandling.customApiError("User Not Found With ID: " + id, HttpStatus.NOT_FOUND);
+        }
+
+        return new ResponseEntity<>(foundUser, HttpStatus.OK);
 
-        try {
+    }
 
-            Iterable<User> allUsers = userRepository.findAll();
-            return new ResponseEntity<>(allUsers, HttpStatus.OK);
+    @GetMapping("/{id}/posts")
+    public ResponseEntity<?> getUserPosts(@IdPathVariable long id) {
 
-        } catch (Exception e) {
-            return ApiErrorHandling.genericApiError(e);
+        if (!idIndex.exists(User.class, id)) {
+            return ApiErrorHandling.customApiError("User Not Found With ID: " + id, HttpStatus.NOT_FOUND);
         }
 
+        // one SELECT on the idx_post_user_id index, the posts carry user_id rather than the user itself
+        return new ResponseEntity<>(postRepository.findByUserId(id), HttpStatus.OK);
+
     }
 
-    @DeleteMapping("/{id}")
-    public ResponseEntity<?> deleteUserById(@PathVariable("id") String id) {
+    @GetMapping("/all")
+    public ResponseEntity<StreamingResponseBody> getAllUsers() {
 
-        try {
+        // rows are written as they are read, so errors after the first row can no longer become a 500
+        StreamingResponseBody allUsers = entityStreamService.streamAll(userRepository::streamAll);
 
-            if (ApiErrorHandling.isStrNaN(id)) {
-                throw new HttpClientErrorException(HttpStatus.BAD_REQUEST, id + " is not a valid ID");
-            }
-            long uID = Integer.parseInt(id);
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(allUsers);
 
-            Optional<User> foundUser = userRepository.findById(uID);
+    }
 
-            if (foundUser.isEmpty()) {
-                throw new HttpClientErrorException(HttpStatus.NOT_FOUND, " User not found with ID:" + id);
-            }
+    @GetMapping("/")
+    public ResponseEntity<?> getUsersPage(@RequestParam(value = "after", required = false) String after,
+                                          @RequestParam(value = "page", required = false) String page,
+                                          @RequestParam(value = "limit", required = false) String limit) {
 
-            userRepository.deleteById(uID);
+        return Pagination.list(after, page, limit, userRepository::findAll, userRepository::findByIdGreaterThan, User::getId);
 
-            return new ResponseEntity<>(foundUser, HttpStatus.OK);
+    }
 
-        } catch (HttpClientErrorException e) {
-            return ApiErrorHandling.customApiError(e.getMessage(), e.getStatusCode());
+    @DeleteMapping("/{id}")
+    public ResponseEntity<?> deleteUserById(@IdPathVariable long id) {
 
-        } catch (Exception e) {
-            return ApiErrorHandling.genericApiError(e);
+        // one statement per table for the user and everything referencing it,
+        // and none at all for an id the index does not know
+        if (!idIndex.exists(User.class, id) || !cascadeDeleteService.deleteUser(id)) {
+            return ApiErrorHandling.customApiError("User not found with ID: " + id, HttpStatus.NOT_FOUND);
         }
 
+        return new ResponseEntity<>("User Deleted With ID: " + id, HttpStatus.OK);
+
     }
 
     @DeleteMapping("/deleteall")
     public ResponseEntity<?> deleteAllUsers() {
 
-        try {
-
-            long totalUsers = userRepository.count();
-            userRepository.deleteAll();
-
-            return new ResponseEntity<>("Users Deleted: " + totalUsers, HttpStatus.OK);
+        // chunked DELETE ... LIMIT statements for the rows referencing them first, then for the users,
+        // the count is what the statements report
+        long deletedUsers = cascadeDeleteService.deleteAllUsers();
 
-        } catch (HttpClientErrorException e) {
-            return ApiErrorHandling.customApiError(e.getMessage(), e.getStatusCode());
-
-        } catch (Exception e) {
-            return ApiErrorHandling.genericApiError(e);
-        }
+        return new ResponseEntity<>("Users Deleted: " + deletedUsers, HttpStatus.OK);
 
     }
 
     @PostMapping("/")
     public ResponseEntity<?> createNewUser(@RequestBody User newUser) {
 
-        try {
-
-            ValidationError errors = UserValidation.validateUser(newUser, userRepository, false);
-            if (errors.hasError()) {
-                throw new HttpClientErrorException(HttpStatus.BAD_REQUEST, errors.toJSONString());
-            }
-
-            User savedUser = userRepository.save(newUser);
-
-            return new ResponseEntity<>(savedUser, HttpStatus.CREATED);
-
-        } catch (HttpClientErrorException e) {
-            return ApiErrorHandling.customApiError(e.getMessage(), e.getStatusCode());
-
-        } catch (Exception e) {
-            return ApiErrorHandling.genericApiError(e);
+        ValidationError errors = entityValidator.validate(newUser, false);
+        if (errors.hasError()) {
+            return ApiErrorHandling.validationApiError(errors);
         }
 
-    }
+        User savedUser = userRepository.save(newUser);
 
-    @PostMapping("/upload/{id}")
-    public ResponseEntity<?> uploadUserById(@PathVariable ("id") String userId, RestTemplate restTemplate) {
+        return new ResponseEntity<>(savedUser, HttpStatus.CREATED);
 
-        try {
+    }
 
-            if (ApiErrorHandling.isStrNaN(userId)) {
-                throw new HttpClientErrorException(HttpStatus.BAD_REQUEST, userId + " is not a valid ID.");
-            }
+    @PostMapping(value = "/bulk", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<?> createUsers(InputStream body) throws IOException {
 
-            int uID = Integer.parseInt(userId);
+        List<User> newUsers = bulkWriteService.read(body, User.class, true);
 
-            String url = "https://gorest.co.in/public/v2/users/" + uID;
+        BulkResult result = bulkWriteService.create("users", newUsers, userRepository, User::getId);
 
-            User foundUser = restTemplate.getForObject(url, User.class);
+        return new ResponseEntity<>(result, HttpStatus.CREATED);
 
-            System.out.println(foundUser);
+    }
 
-            assert foundUser != null;
+    @PostMapping("/upload/{id}")
+    public ResponseEntity<?> uploadUserById(@IdPathVariable long id) {
 
-            if (foundUser == null) {
-                throw new HttpClientErrorException(HttpStatus.NOT_FOUND, "User with ID: " + uID + " not found.");
-            }
+        User foundUser = goRestImportService.fetchOne("users", id, User.class);
 
-            User savedUser = userRepository.save(foundUser);
+        if (foundUser == null) {
+            return ApiErrorHandling.customApiError("User with ID: " + id + " not found.", HttpStatus.NOT_FOUND);
+        }
 
-            return new ResponseEntity<>(savedUser, HttpStatus.CREATED);
+        User savedUser = userRepository.save(foundUser);
 
-        } catch (HttpClientErrorException e) {
-            return ApiErrorHandling.customApiError(e.getMessage(), e.getStatusCode());
+        return new ResponseEntity<>(savedUser, HttpStatus.CREATED);
 
-        } catch (Exception e) {
-            return ApiErrorHandling.genericApiError(e);
-        }
     }
 
     @PostMapping("/uploadall")
-    public ResponseEntity<?> uploadAll(RestTemplate restTemplate) {
-
-        try {
-
-            String url = "https://gorest.co.in/public/v2/users";
-
-            ResponseEntity<User[]> response = restTemplate.getForEntity(url, User[].class);
-
-            User[] firstPageUsers = response.getBody();
+    public ResponseEntity<?> uploadAll() {
 
-            if (firstPageUsers == null) {
-                throw new HttpClientErrorException(HttpStatus.INTERNAL_SERVER_ERROR, "Failed to GET first page of users from GoREST.");
-            }
+        // runs in the background and picks up from the last page an earlier import wrote, see /api/jobs
+        ImportJob job = importJobService.start("users", ImportJob.Type.IMPORT);
 
-            ArrayList<User> allUsers = new ArrayList<>(Arrays.asList(firstPageUsers));
+        return JobController.accepted(job);
 
-            HttpHeaders responseHeaders = response.getHeaders();
-
-            String totalPages = Objects.requireNonNull(responseHeaders.get("X-Pagination-Pages").get(0));
-            int totalPgNum = Integer.parseInt(totalPages);
-
-            for (int i = 2; i <= totalPgNum; i++) {
-
-                String pageUrl = url + "?page=" + i;
-                User[] pageUsers = restTemplate.getForObject(pageUrl, User[].class);
-
-                if (firstPageUsers == null) {
-                    throw new HttpClientErrorException(HttpStatus.INTERNAL_SERVER_ERROR, "Failed to GET page " + i + " of users from GoREST");
-                }
-
-                allUsers.addAll(Arrays.asList(firstPageUsers));
-
-            }
+    }
 
-            // uploads all users to SQL
-            userRepository.saveAll(allUsers);
+    @PostMapping("/sync")
+    public ResponseEntity<?> sync() {
 
-            return new ResponseEntity<>("Users Created: " + allUsers.size(), HttpStatus.OK);
+        // only new and changed rows are written, paging stops where the previous sync left off
+        SyncResult result = goRestSyncService.sync(GoRestSyncService.USERS);
 
-        } catch (Exception e) {
-            return ApiErrorHandling.genericApiError(e);
-        }
+        return new ResponseEntity<>(result, HttpStatus.OK);
 
     }
 
     @PutMapping("/")
     public ResponseEntity<?> updateUser(@RequestBody User updateUser) {
 
-        try {
+        ValidationError errors = entityValidator.validate(updateUser, true);
+        if (errors.hasError()) {
+            return ApiErrorHandling.validationApiError(errors);
+        }
 
-            ValidationError errors = UserValidation.validateUser(updateUser, userRepository, true);
-            if (errors.hasError()) {
-                throw new HttpClientErrorException(HttpStatus.BAD_REQUEST, errors.toJSONString());
-            }
+        // one conditional UPDATE, no row affected means there is no user with that id
+        if (userRepository.updateRow(updateUser) == 0) {
+            return ApiErrorHandling.customApiError("No user found with the ID: " + updateUser.getId(), HttpStatus.NOT_FOUND);
+        }
 
-            User savedUser = userRepository.save(updateUser);
+        return new ResponseEntity<>(updateUser, HttpStatus.OK);
 
-            return new ResponseEntity<>(savedUser, HttpStatus.OK);
+    }
 
-        } catch (HttpClientErrorException e) {
-            return ApiErrorHandling.customApiError(e.getMessage(), e.getStatusCode());
+    @PutMapping(value = "/bulk", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<?> updateUsers(InputStream body) throws IOException {
 
-        } catch (Exception e) {
-            return ApiErrorHandling.genericApiError(e);
-        }
+        List<User> updateUsers = bulkWriteService.read(body, User.class, false);
+
+        BulkResult result = bulkWriteService.update("users", updateUsers, userRepository, User::getId, "No user found with the ID: ");
+
+        return new ResponseEntity<>(result, HttpStatus.OK);
 
     }
 
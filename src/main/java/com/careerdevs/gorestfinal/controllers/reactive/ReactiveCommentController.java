@@ -0,0 +1,158 @@
+package com.careerdevs.gorestfinal.controllers.reactive;
+
+import com.careerdevs.gorestfinal.models.Comment;
+import com.careerdevs.gorestfinal.repositories.reactive.ReactiveCommentRepository;
+import com.careerdevs.gorestfinal.services.reactive.ReactiveInsertService;
+import com.careerdevs.gorestfinal.utils.ApiClientError;
+import com.careerdevs.gorestfinal.utils.ApiErrorHandling;
+import com.careerdevs.gorestfinal.utils.ReactivePagination;
+import com.careerdevs.gorestfinal.validation.EntityValidator;
+import com.careerdevs.gorestfinal.validation.ValidationError;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * The {@code /api/comments} endpoints on WebFlux and R2DBC, see {@link ReactiveUserController}.
+ */
+@RestController
+@Profile("reactive")
+@RequestMapping("/api/comments")
+public class ReactiveCommentController {
+
+    @Autowired
+    ReactiveCommentRepository commentRepository;
+
+    @Autowired
+    EntityValidator entityValidator;
+
+    @Autowired
+    ReactiveInsertService reactiveInsertService;
+
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<?>> getCommentById(@PathVariable("id") String id) {
+
+        try {
+
+            long uID = ApiErrorHandling.parseId(id);
+
+            if (uID == ApiErrorHandling.INVALID_ID) {
+                throw new ApiClientError(HttpStatus.BAD_REQUEST, id + " is not a valid ID");
+            }
+
+            return commentRepository.findById(uID)
+                    .<ResponseEntity<?>>map(foundComment -> new ResponseEntity<>(foundComment, HttpStatus.OK))
+                    .switchIfEmpty(Mono.error(new ApiClientError(HttpStatus.NOT_FOUND, "Comment Not Found With ID: " + id)))
+                    .onErrorResume(ApiErrorHandling::reactiveApiError);
+
+        } catch (Exception e) {
+            return ApiErrorHandling.reactiveApiError(e);
+        }
+
+    }
+
+    @GetMapping(value = "/all", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Flux<Comment> getAllComments() {
+        return commentRepository.findAll();
+    }
+
+    @GetMapping("/")
+    public Mono<ResponseEntity<?>> getCommentsPage(@RequestParam(value = "after", required = false) String after,
+                                                @RequestParam(value = "page", required = false) String page,
+                                                @RequestParam(value = "limit", required = false) String limit,
+                                                ServerHttpRequest request) {
+
+        try {
+
+            return ReactivePagination.list(after, page, limit, request, commentRepository::findAllBy, commentRepository::count,
+                            commentRepository::findByIdGreaterThan, Comment::getId)
+                    .onErrorResume(ApiErrorHandling::reactiveApiError);
+
+        } catch (Exception e) {
+            return ApiErrorHandling.reactiveApiError(e);
+        }
+
+    }
+
+    @DeleteMapping("/{id}")
+    public Mono<ResponseEntity<?>> deleteCommentById(@PathVariable("id") String id) {
+
+        try {
+
+            long uID = ApiErrorHandling.parseId(id);
+
+            if (uID == ApiErrorHandling.INVALID_ID) {
+                throw new ApiClientError(HttpStatus.BAD_REQUEST, id + " is not a valid ID");
+            }
+
+            return commentRepository.deleteRowById(uID)
+                    .<ResponseEntity<?>>flatMap(deleted -> deleted == 0
+                            ? Mono.error(new ApiClientError(HttpStatus.NOT_FOUND, "Comment not found with ID: " + id))
+                            : Mono.just(new ResponseEntity<>("Comment Deleted With ID: " + id, HttpStatus.OK)))
+                    .onErrorResume(ApiErrorHandling::reactiveApiError);
+
+        } catch (Exception e) {
+            return ApiErrorHandling.reactiveApiError(e);
+        }
+
+    }
+
+    @DeleteMapping("/deleteall")
+    public Mono<ResponseEntity<?>> deleteAllComments() {
+
+        // chunked DELETE ... LIMIT statements, the count is what they report
+        return commentRepository.deleteAllInChunks()
+                .<ResponseEntity<?>>map(deletedComments -> new ResponseEntity<>("Comments Deleted: " + deletedComments, HttpStatus.OK))
+                .onErrorResume(ApiErrorHandling::reactiveApiError);
+
+    }
+
+    @PostMapping("/")
+    public Mono<ResponseEntity<?>> createComment(@RequestBody Comment newComment) {
+
+        try {
+
+            ValidationError errors = entityValidator.validate(newComment, false);
+            if (errors.hasError()) {
+                return Mono.just(ApiErrorHandling.validationApiError(errors));
+            }
+
+            return reactiveInsertService.insert(newComment, "comment_seq")
+                    .<ResponseEntity<?>>map(savedComment -> new ResponseEntity<>(savedComment, HttpStatus.CREATED))
+                    .onErrorResume(ApiErrorHandling::reactiveApiError);
+
+        } catch (Exception e) {
+            return ApiErrorHandling.reactiveApiError(e);
+        }
+
+    }
+
+    @PutMapping("/")
+    public Mono<ResponseEntity<?>> updateComment(@RequestBody Comment updateComment) {
+
+        try {
+
+            ValidationError errors = entityValidator.validate(updateComment, true);
+            if (errors.hasError()) {
+                return Mono.just(ApiErrorHandling.validationApiError(errors));
+            }
+
+            return commentRepository.updateRow(updateComment)
+                    .<ResponseEntity<?>>flatMap(updated -> updated == 0
+                            ? Mono.error(new ApiClientError(HttpStatus.NOT_FOUND, "No comment found with the ID: " + updateComment.getId()))
+                            : Mono.just(new ResponseEntity<>(updateComment, HttpStatus.OK)))
+                    .onErrorResume(ApiErrorHandling::reactiveApiError);
+
+        } catch (Exception e) {
+            return ApiErrorHandling.reactiveApiError(e);
+        }
+
+    }
+
+}
@@ -0,0 +1,164 @@
+package com.careerdevs.gorestfinal.controllers.reactive;
+
+import com.careerdevs.gorestfinal.models.Post;
+import com.careerdevs.gorestfinal.repositories.reactive.ReactivePostRepository;
+import com.careerdevs.gorestfinal.services.reactive.ReactiveCascadeDeleteService;
+import com.careerdevs.gorestfinal.services.reactive.ReactiveInsertService;
+import com.careerdevs.gorestfinal.utils.ApiClientError;
+import com.careerdevs.gorestfinal.utils.ApiErrorHandling;
+import com.careerdevs.gorestfinal.utils.ReactivePagination;
+import com.careerdevs.gorestfinal.validation.EntityValidator;
+import com.careerdevs.gorestfinal.validation.ValidationError;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * The {@code /api/posts} endpoints on WebFlux and R2DBC, see {@link ReactiveUserController}.
+ */
+@RestController
+@Profile("reactive")
+@RequestMapping("/api/posts")
+public class ReactivePostController {
+
+    @Autowired
+    ReactivePostRepository postRepository;
+
+    @Autowired
+    EntityValidator entityValidator;
+
+    @Autowired
+    ReactiveInsertService reactiveInsertService;
+
+    @Autowired
+    ReactiveCascadeDeleteService cascadeDeleteService;
+
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<?>> getPostById(@PathVariable("id") String id) {
+
+        try {
+
+            long uID = ApiErrorHandling.parseId(id);
+
+            if (uID == ApiErrorHandling.INVALID_ID) {
+                throw new ApiClientError(HttpStatus.BAD_REQUEST, id + " is not a valid ID");
+            }
+
+            return postRepository.findById(uID)
+                    .<ResponseEntity<?>>map(foundPost -> new ResponseEntity<>(foundPost, HttpStatus.OK))
+                    .switchIfEmpty(Mono.error(new ApiClientError(HttpStatus.NOT_FOUND, "Post Not Found With ID: " + id)))
+                    .onErrorResume(ApiErrorHandling::reactiveApiError);
+
+        } catch (Exception e) {
+            return ApiErrorHandling.reactiveApiError(e);
+        }
+
+    }
+
+    @GetMapping(value = "/all", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Flux<Post> getAllPosts() {
+        return postRepository.findAll();
+    }
+
+    @GetMapping("/")
+    public Mono<ResponseEntity<?>> getPostsPage(@RequestParam(value = "after", required = false) String after,
+                                                @RequestParam(value = "page", required = false) String page,
+                                                @RequestParam(value = "limit", required = false) String limit,
+                                                ServerHttpRequest request) {
+
+        try {
+
+            return ReactivePagination.list(after, page, limit, request, postRepository::findAllBy, postRepository::count,
+                            postRepository::findByIdGreaterThan, Post::getId)
+                    .onErrorResume(ApiErrorHandling::reactiveApiError);
+
+        } catch (Exception e) {
+            return ApiErrorHandling.reactiveApiError(e);
+        }
+
+    }
+
+    @DeleteMapping("/{id}")
+    public Mono<ResponseEntity<?>> deletePostById(@PathVariable("id") String id) {
+
+        try {
+
+            long uID = ApiErrorHandling.parseId(id);
+
+            if (uID == ApiErrorHandling.INVALID_ID) {
+                throw new ApiClientError(HttpStatus.BAD_REQUEST, id + " is not a valid ID");
+            }
+
+            // the post and every row referencing it, in one transaction
+            return cascadeDeleteService.deletePost(uID)
+                    .<ResponseEntity<?>>flatMap(deleted -> !deleted
+                            ? Mono.error(new ApiClientError(HttpStatus.NOT_FOUND, "Post not found with ID: " + id))
+                            : Mono.just(new ResponseEntity<>("Post Deleted With ID: " + id, HttpStatus.OK)))
+                    .onErrorResume(ApiErrorHandling::reactiveApiError);
+
+        } catch (Exception e) {
+            return ApiErrorHandling.reactiveApiError(e);
+        }
+
+    }
+
+    @DeleteMapping("/deleteall")
+    public Mono<ResponseEntity<?>> deleteAllPosts() {
+
+        // chunked DELETE ... LIMIT statements for the rows referencing them first, then for the posts,
+        // the count is what they report
+        return cascadeDeleteService.deleteAllPosts()
+                .<ResponseEntity<?>>map(deletedPosts -> new ResponseEntity<>("Posts Deleted: " + deletedPosts, HttpStatus.OK))
+                .onErrorResume(ApiErrorHandling::reactiveApiError);
+
+    }
+
+    @PostMapping("/")
+    public Mono<ResponseEntity<?>> createPost(@RequestBody Post newPost) {
+
+        try {
+
+            ValidationError errors = entityValidator.validate(newPost, false);
+            if (errors.hasError()) {
+                return Mono.just(ApiErrorHandling.validationApiError(errors));
+            }
+
+            return reactiveInsertService.insert(newPost, "post_seq")
+                    .<ResponseEntity<?>>map(savedPost -> new ResponseEntity<>(savedPost, HttpStatus.CREATED))
+                    .onErrorResume(ApiErrorHandling::reactiveApiError);
+
+        } catch (Exception e) {
+            return ApiErrorHandling.reactiveApiError(e);
+        }
+
+    }
+
+    @PutMapping("/")
+    public Mono<ResponseEntity<?>> updatePost(@RequestBody Post updatePost) {
+
+        try {
+
+            ValidationError errors = entityValidator.validate(updatePost, true);
+            if (errors.hasError()) {
+                return Mono.just(ApiErrorHandling.validationApiError(errors));
+            }
+
+            return postRepository.updateRow(updatePost)
+                    .<ResponseEntity<?>>flatMap(updated -> updated == 0
+                            ? Mono.error(new ApiClientError(HttpStatus.NOT_FOUND, "No post found with the ID: " + updatePost.getId()))
+                            : Mono.just(new ResponseEntity<>(updatePost, HttpStatus.OK)))
+                    .onErrorResume(ApiErrorHandling::reactiveApiError);
+
+        } catch (Exception e) {
+            return ApiErrorHandling.reactiveApiError(e);
+        }
+
+    }
+
+}
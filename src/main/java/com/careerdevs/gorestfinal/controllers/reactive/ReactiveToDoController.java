@@ -0,0 +1,158 @@
+package com.careerdevs.gorestfinal.controllers.reactive;
+
+import com.careerdevs.gorestfinal.models.ToDo;
+import com.careerdevs.gorestfinal.repositories.reactive.ReactiveToDoRepository;
+import com.careerdevs.gorestfinal.services.reactive.ReactiveInsertService;
+import com.careerdevs.gorestfinal.utils.ApiClientError;
+import com.careerdevs.gorestfinal.utils.ApiErrorHandling;
+import com.careerdevs.gorestfinal.utils.ReactivePagination;
+import com.careerdevs.gorestfinal.validation.EntityValidator;
+import com.careerdevs.gorestfinal.validation.ValidationError;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * The {@code /api/todos} endpoints on WebFlux and R2DBC, see {@link ReactiveUserController}.
+ */
+@RestController
+@Profile("reactive")
+@RequestMapping("/api/todos")
+public class ReactiveToDoController {
+
+    @Autowired
+    ReactiveToDoRepository toDoRepository;
+
+    @Autowired
+    EntityValidator entityValidator;
+
+    @Autowired
+    ReactiveInsertService reactiveInsertService;
+
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<?>> getToDoById(@PathVariable("id") String id) {
+
+        try {
+
+            long uID = ApiErrorHandling.parseId(id);
+
+            if (uID == ApiErrorHandling.INVALID_ID) {
+                throw new ApiClientError(HttpStatus.BAD_REQUEST, id + " is not a valid ID");
+            }
+
+            return toDoRepository.findById(uID)
+                    .<ResponseEntity<?>>map(foundToDo -> new ResponseEntity<>(foundToDo, HttpStatus.OK))
+                    .switchIfEmpty(Mono.error(new ApiClientError(HttpStatus.NOT_FOUND, "ToDo Not Found With ID: " + id)))
+                    .onErrorResume(ApiErrorHandling::reactiveApiError);
+
+        } catch (Exception e) {
+            return ApiErrorHandling.reactiveApiError(e);
+        }
+
+    }
+
+    @GetMapping(value = "/all", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Flux<ToDo> getAllToDos() {
+        return toDoRepository.findAll();
+    }
+
+    @GetMapping("/")
+    public Mono<ResponseEntity<?>> getToDosPage(@RequestParam(value = "after", required = false) String after,
+                                                @RequestParam(value = "page", required = false) String page,
+                                                @RequestParam(value = "limit", required = false) String limit,
+                                                ServerHttpRequest request) {
+
+        try {
+
+            return ReactivePagination.list(after, page, limit, request, toDoRepository::findAllBy, toDoRepository::count,
+                            toDoRepository::findByIdGreaterThan, ToDo::getId)
+                    .onErrorResume(ApiErrorHandling::reactiveApiError);
+
+        } catch (Exception e) {
+            return ApiErrorHandling.reactiveApiError(e);
+        }
+
+    }
+
+    @DeleteMapping("/{id}")
+    public Mono<ResponseEntity<?>> deleteToDoById(@PathVariable("id") String id) {
+
+        try {
+
+            long uID = ApiErrorHandling.parseId(id);
+
+            if (uID == ApiErrorHandling.INVALID_ID) {
+                throw new ApiClientError(HttpStatus.BAD_REQUEST, id + " is not a valid ID");
+            }
+
+            return toDoRepository.deleteRowById(uID)
+                    .<ResponseEntity<?>>flatMap(deleted -> deleted == 0
+                            ? Mono.error(new ApiClientError(HttpStatus.NOT_FOUND, "ToDo not found with ID: " + id))
+                            : Mono.just(new ResponseEntity<>("ToDo Deleted With ID: " + id, HttpStatus.OK)))
+                    .onErrorResume(ApiErrorHandling::reactiveApiError);
+
+        } catch (Exception e) {
+            return ApiErrorHandling.reactiveApiError(e);
+        }
+
+    }
+
+    @DeleteMapping("/deleteall")
+    public Mono<ResponseEntity<?>> deleteAllToDos() {
+
+        // chunked DELETE ... LIMIT statements, the count is what they report
+        return toDoRepository.deleteAllInChunks()
+                .<ResponseEntity<?>>map(deletedToDos -> new ResponseEntity<>("ToDos Deleted: " + deletedToDos, HttpStatus.OK))
+                .onErrorResume(ApiErrorHandling::reactiveApiError);
+
+    }
+
+    @PostMapping("/")
+    public Mono<ResponseEntity<?>> createToDo(@RequestBody ToDo newToDo) {
+
+        try {
+
+            ValidationError errors = entityValidator.validate(newToDo, false);
+            if (errors.hasError()) {
+                return Mono.just(ApiErrorHandling.validationApiError(errors));
+            }
+
+            return reactiveInsertService.insert(newToDo, "todo_seq")
+                    .<ResponseEntity<?>>map(savedToDo -> new ResponseEntity<>(savedToDo, HttpStatus.CREATED))
+                    .onErrorResume(ApiErrorHandling::reactiveApiError);
+
+        } catch (Exception e) {
+            return ApiErrorHandling.reactiveApiError(e);
+        }
+
+    }
+
+    @PutMapping("/")
+    public Mono<ResponseEntity<?>> updateToDo(@RequestBody ToDo updateToDo) {
+
+        try {
+
+            ValidationError errors = entityValidator.validate(updateToDo, true);
+            if (errors.hasError()) {
+                return Mono.just(ApiErrorHandling.validationApiError(errors));
+            }
+
+            return toDoRepository.updateRow(updateToDo)
+                    .<ResponseEntity<?>>flatMap(updated -> updated == 0
+                            ? Mono.error(new ApiClientError(HttpStatus.NOT_FOUND, "No todo found with the ID: " + updateToDo.getId()))
+                            : Mono.just(new ResponseEntity<>(updateToDo, HttpStatus.OK)))
+                    .onErrorResume(ApiErrorHandling::reactiveApiError);
+
+        } catch (Exception e) {
+            return ApiErrorHandling.reactiveApiError(e);
+        }
+
+    }
+
+}
@@ -0,0 +1,167 @@
+package com.careerdevs.gorestfinal.controllers.reactive;
+
+import com.careerdevs.gorestfinal.models.User;
+import com.careerdevs.gorestfinal.repositories.reactive.ReactiveUserRepository;
+import com.careerdevs.gorestfinal.services.reactive.ReactiveCascadeDeleteService;
+import com.careerdevs.gorestfinal.services.reactive.ReactiveInsertService;
+import com.careerdevs.gorestfinal.utils.ApiClientError;
+import com.careerdevs.gorestfinal.utils.ApiErrorHandling;
+import com.careerdevs.gorestfinal.utils.ReactivePagination;
+import com.careerdevs.gorestfinal.validation.EntityValidator;
+import com.careerdevs.gorestfinal.validation.ValidationError;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * The {@code /api/users} endpoints of {@link com.careerdevs.gorestfinal.controllers.UserController} on
+ * WebFlux and R2DBC, active with the reactive profile. Same validation, same messages and status codes.
+ * The GoREST upload endpoints are only on the servlet stack.
+ */
+@RestController
+@Profile("reactive")
+@RequestMapping("/api/users")
+public class ReactiveUserController {
+
+    @Autowired
+    ReactiveUserRepository userRepository;
+
+    @Autowired
+    EntityValidator entityValidator;
+
+    @Autowired
+    ReactiveInsertService reactiveInsertService;
+
+    @Autowired
+    ReactiveCascadeDeleteService cascadeDeleteService;
+
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<?>> getUserById(@PathVariable("id") String id) {
+
+        try {
+
+            long uID = ApiErrorHandling.parseId(id);
+
+            if (uID == ApiErrorHandling.INVALID_ID) {
+                throw new ApiClientError(HttpStatus.BAD_REQUEST, id + " is not a valid ID");
+            }
+
+            return userRepository.findById(uID)
+                    .<ResponseEntity<?>>map(foundUser -> new ResponseEntity<>(foundUser, HttpStatus.OK))
+                    .switchIfEmpty(Mono.error(new ApiClientError(HttpStatus.NOT_FOUND, "User Not Found With ID: " + id)))
+                    .onErrorResume(ApiErrorHandling::reactiveApiError);
+
+        } catch (Exception e) {
+            return ApiErrorHandling.reactiveApiError(e);
+        }
+
+    }
+
+    // rows are sent as R2DBC reads them and the read slows down when the client does
+    @GetMapping(value = "/all", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Flux<User> getAllUsers() {
+        return userRepository.findAll();
+    }
+
+    @GetMapping("/")
+    public Mono<ResponseEntity<?>> getUsersPage(@RequestParam(value = "after", required = false) String after,
+                                                @RequestParam(value = "page", required = false) String page,
+                                                @RequestParam(value = "limit", required = false) String limit,
+                                                ServerHttpRequest request) {
+
+        try {
+
+            return ReactivePagination.list(after, page, limit, request, userRepository::findAllBy, userRepository::count,
+                            userRepository::findByIdGreaterThan, User::getId)
+                    .onErrorResume(ApiErrorHandling::reactiveApiError);
+
+        } catch (Exception e) {
+            return ApiErrorHandling.reactiveApiError(e);
+        }
+
+    }
+
+    @DeleteMapping("/{id}")
+    public Mono<ResponseEntity<?>> deleteUserById(@PathVariable("id") String id) {
+
+        try {
+
+            long uID = ApiErrorHandling.parseId(id);
+
+            if (uID == ApiErrorHandling.INVALID_ID) {
+                throw new ApiClientError(HttpStatus.BAD_REQUEST, id + " is not a valid ID");
+            }
+
+            // the user and every row referencing it, in one transaction
+            return cascadeDeleteService.deleteUser(uID)
+                    .<ResponseEntity<?>>flatMap(deleted -> !deleted
+                            ? Mono.error(new ApiClientError(HttpStatus.NOT_FOUND, "User not found with ID: " + id))
+                            : Mono.just(new ResponseEntity<>("User Deleted With ID: " + id, HttpStatus.OK)))
+                    .onErrorResume(ApiErrorHandling::reactiveApiError);
+
+        } catch (Exception e) {
+            return ApiErrorHandling.reactiveApiError(e);
+        }
+
+    }
+
+    @DeleteMapping("/deleteall")
+    public Mono<ResponseEntity<?>> deleteAllUsers() {
+
+        // chunked DELETE ... LIMIT statements for the rows referencing them first, then for the users,
+        // the count is what they report
+        return cascadeDeleteService.deleteAllUsers()
+                .<ResponseEntity<?>>map(deletedUsers -> new ResponseEntity<>("Users Deleted: " + deletedUsers, HttpStatus.OK))
+                .onErrorResume(ApiErrorHandling::reactiveApiError);
+
+    }
+
+    @PostMapping("/")
+    public Mono<ResponseEntity<?>> createUser(@RequestBody User newUser) {
+
+        try {
+
+            ValidationError errors = entityValidator.validate(newUser, false);
+            if (errors.hasError()) {
+                return Mono.just(ApiErrorHandling.validationApiError(errors));
+            }
+
+            return reactiveInsertService.insert(newUser, "user_seq")
+                    .<ResponseEntity<?>>map(savedUser -> new ResponseEntity<>(savedUser, HttpStatus.CREATED))
+                    .onErrorResume(ApiErrorHandling::reactiveApiError);
+
+        } catch (Exception e) {
+            return ApiErrorHandling.reactiveApiError(e);
+        }
+
+    }
+
+    @PutMapping("/")
+    public Mono<ResponseEntity<?>> updateUser(@RequestBody User updateUser) {
+
+        try {
+
+            ValidationError errors = entityValidator.validate(updateUser, true);
+            if (errors.hasError()) {
+                return Mono.just(ApiErrorHandling.validationApiError(errors));
+            }
+
+            return userRepository.updateRow(updateUser)
+                    .<ResponseEntity<?>>flatMap(updated -> updated == 0
+                            ? Mono.error(new ApiClientError(HttpStatus.NOT_FOUND, "No user found with the ID: " + updateUser.getId()))
+                            : Mono.just(new ResponseEntity<>(updateUser, HttpStatus.OK)))
+                    .onErrorResume(ApiErrorHandling::reactiveApiError);
+
+        } catch (Exception e) {
+            return ApiErrorHandling.reactiveApiError(e);
+        }
+
+    }
+
+}
@@ -0,0 +1,113 @@
+package com.careerdevs.gorestfinal.metrics;
+
+import io.micrometer.common.KeyValue;
+import io.micrometer.common.KeyValues;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Tags;
+import org.springframework.boot.actuate.metrics.data.DefaultRepositoryTagsProvider;
+import org.springframework.boot.actuate.metrics.data.RepositoryTagsProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.repository.core.support.RepositoryMethodInvocationListener.RepositoryMethodInvocation;
+import org.springframework.http.client.observation.ClientRequestObservationContext;
+import org.springframework.http.client.observation.ClientRequestObservationConvention;
+import org.springframework.http.client.observation.DefaultClientRequestObservationConvention;
+import org.springframework.http.server.observation.ServerRequestObservationContext;
+import org.springframework.http.server.observation.ServerRequestObservationConvention;
+
+/**
+ * Adds a {@code resource} tag (users, posts, comments, todos) to the timers Spring Boot already records:
+ * {@code http.server.requests} for every controller method, {@code spring.data.repository.invocations}
+ * for every repository method and {@code http.client.requests} for every RestTemplate call to GoREST.
+ * Their outcome is in the existing {@code outcome} / {@code state} and {@code exception} tags.
+ */
+@Configuration
+public class MetricsConfig {
+
+    static final String RESOURCE = "resource";
+
+    static final String NONE = "none";
+
+    @Bean
+    public ServerRequestObservationConvention resourceServerRequestObservationConvention() {
+
+        return new org.springframework.http.server.observation.DefaultServerRequestObservationConvention() {
+            @Override
+            public KeyValues getLowCardinalityKeyValues(ServerRequestObservationContext context) {
+                return super.getLowCardinalityKeyValues(context).and(KeyValue.of(RESOURCE, apiResource(context.getPathPattern())));
+            }
+        };
+    }
+
+    @Bean
+    public org.springframework.http.server.reactive.observation.ServerRequestObservationConvention resourceReactiveServerRequestObservationConvention() {
+
+        return new org.springframework.http.server.reactive.observation.DefaultServerRequestObservationConvention() {
+            @Override
+            public KeyValues getLowCardinalityKeyValues(org.springframework.http.server.reactive.observation.ServerRequestObservationContext context) {
+                return super.getLowCardinalityKeyValues(context).and(KeyValue.of(RESOURCE, apiResource(context.getPathPattern())));
+            }
+        };
+    }
+
+    @Bean
+    public ClientRequestObservationConvention resourceClientRequestObservationConvention() {
+
+        return new DefaultClientRequestObservationConvention() {
+            @Override
+            public KeyValues getLowCardinalityKeyValues(ClientRequestObservationContext context) {
+                String path = context.getCarrier() == null ? null : context.getCarrier().getURI().getPath();
+                return super.getLowCardinalityKeyValues(context).and(KeyValue.of(RESOURCE, upstreamResource(path)));
+            }
+        };
+    }
+
+    @Bean
+    public RepositoryTagsProvider resourceRepositoryTagsProvider() {
+
+        return new DefaultRepositoryTagsProvider() {
+            @Override
+            public Iterable<Tag> repositoryTags(RepositoryMethodInvocation invocation) {
+                return Tags.of(super.repositoryTags(invocation))
+                        .and(RESOURCE, repositoryResource(invocation.getRepositoryInterface().getSimpleName()));
+            }
+        };
+    }
+
+    // "/api/users/{id}" -> "users", anything outside /api (actuator, unmatched requests) -> "none"
+    static String apiResource(String pathPattern) {
+
+        if (pathPattern == null || !pathPattern.startsWith("/api/")) {
+            return NONE;
+        }
+
+        int end = pathPattern.indexOf('/', "/api/".length());
+        return pathPattern.substring("/api/".length(), end == -1 ? pathPattern.length() : end);
+    }
+
+    // "/public/v2/users/42" and "/public/v2/users" -> "users", the last path segment that is not an id
+    static String upstreamResource(String path) {
+
+        if (path == null) {
+            return NONE;
+        }
+
+        String[] segments = path.split("/");
+
+        for (int i = segments.length - 1; i >= 0; i--) {
+            if (!segments[i].isEmpty() && !Character.isDigit(segments[i].charAt(0))) {
+                return segments[i];
+            }
+        }
+
+        return NONE;
+    }
+
+    // "UserRepository" and "ReactiveUserRepository" -> "users", "ToDoRepository" -> "todos"
+    static String repositoryResource(String repositoryName) {
+
+        String entity = repositoryName.replaceFirst("^Reactive", "").replaceFirst("Repository$", "");
+        return entity.isEmpty() ? NONE : entity.toLowerCase() + "s";
+    }
+
+}
@@ -1,19 +1,40 @@
 package com.careerdevs.gorestfinal.models;
 
-import javax.persistence.*;
+import com.careerdevs.gorestfinal.validation.NotBlank;
+import com.careerdevs.gorestfinal.validation.References;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
+import jakarta.persistence.*;
 
 @Entity
+@Table(indexes = @Index(name = "idx_post_user_id", columnList = "user_id"))
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 public class Post {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @org.springframework.data.annotation.Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "post_seq")
+    @SequenceGenerator(name = "post_seq", sequenceName = "post_seq", allocationSize = 50)
     private long id;
 
+    @References(User.class)
     private long user_id;
 
+    // read-only view of user_id, which stays the written and serialized column
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", insertable = false, updatable = false, foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
+    @JsonIgnore
+    @org.springframework.data.annotation.Transient
+    private User user;
+
+    @NotBlank
     private String title;
 
-    @Column(length = 512)
+    @NotBlank
+    @Column(columnDefinition = "text")
     private String body;
 
     public long getId() {
@@ -24,6 +45,10 @@ public class Post {
         return user_id;
     }
 
+    public User getUser() {
+        return user;
+    }
+
     public String getTitle() {
         return title;
     }
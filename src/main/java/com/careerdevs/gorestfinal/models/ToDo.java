@@ -1,23 +1,60 @@
 package com.careerdevs.gorestfinal.models;
 
-import javax.persistence.Entity;
-import javax.persistence.GeneratedValue;
-import javax.persistence.GenerationType;
-import javax.persistence.Id;
+import com.careerdevs.gorestfinal.validation.NotBlank;
+import com.careerdevs.gorestfinal.validation.OneOf;
+import com.careerdevs.gorestfinal.validation.References;
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
+import jakarta.persistence.Cacheable;
+import jakarta.persistence.ConstraintMode;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.ForeignKey;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import java.time.OffsetDateTime;
 
 @Entity // needed to create a bean and run the server.
+@Table(indexes = @Index(name = "idx_to_do_user_id", columnList = "user_id"))
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 public class ToDo {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @org.springframework.data.annotation.Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "todo_seq")
+    @SequenceGenerator(name = "todo_seq", sequenceName = "todo_seq", allocationSize = 50)
     private long id;
 
+    @References(User.class)
     private long user_id;
 
+    // read-only view of user_id, which stays the written and serialized column
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", insertable = false, updatable = false, foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
+    @JsonIgnore
+    @org.springframework.data.annotation.Transient
+    private User user;
+
+    @NotBlank
     private String title;
 
-    private String due_on;
+    // GoREST's format, 2024-07-05T00:00:00.000+05:30; stored as a UTC TIMESTAMP, so it reads back in UTC
+    @NotBlank
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd'T'HH:mm:ss[.SSS]XXX")
+    private OffsetDateTime due_on;
 
+    @NotBlank
+    @OneOf({"pending", "completed"})
     private String status;
 
     public long getId() {
@@ -28,11 +65,15 @@ public class ToDo {
         return user_id;
     }
 
+    public User getUser() {
+        return user;
+    }
+
     public String getTitle() {
         return title;
     }
 
-    public String getDue_on() {
+    public OffsetDateTime getDue_on() {
         return due_on;
     }
 
@@ -46,7 +87,7 @@ public class ToDo {
                 "id=" + id +
                 ", user_id=" + user_id +
                 ", title='" + title + '\'' +
-                ", due_on='" + due_on + '\'' +
+                ", due_on=" + due_on +
                 ", status='" + status + '\'' +
                 '}';
     }
@@ -1,23 +1,48 @@
 package com.careerdevs.gorestfinal.models;
 
-import javax.persistence.Entity;
-import javax.persistence.GeneratedValue;
-import javax.persistence.GenerationType;
-import javax.persistence.Id;
+import com.careerdevs.gorestfinal.validation.Email;
+import com.careerdevs.gorestfinal.validation.NotBlank;
+import com.careerdevs.gorestfinal.validation.OneOf;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
+import jakarta.persistence.Cacheable;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
 
 @Entity
+@Table(uniqueConstraints = @UniqueConstraint(name = User.UNIQUE_EMAIL, columnNames = "email"))
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 public class User {
 
+    // the unique index on email, see db/migration/*/V2__constraints_and_column_types.sql
+    public static final String UNIQUE_EMAIL = "uk_user_email";
+
     @Id
-    @GeneratedValue(strategy= GenerationType.AUTO)
+    @org.springframework.data.annotation.Id // Spring Data R2DBC only recognises its own @Id, see application-reactive.properties
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "user_seq")
+    @SequenceGenerator(name = "user_seq", sequenceName = "user_seq", allocationSize = 50)
     private Long id;
 
+    @NotBlank
     private String name;
 
+    @NotBlank
+    @Email
     private String email;
 
+    @NotBlank
+    @OneOf({"male", "female"})
     private String gender;
 
+    @NotBlank
+    @OneOf({"active", "inactive"})
     private String status;
 
     public Long getId() {
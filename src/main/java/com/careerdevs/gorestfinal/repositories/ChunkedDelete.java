@@ -0,0 +1,29 @@
+package com.careerdevs.gorestfinal.repositories;
+
+/**
+ * Empties a table with {@code DELETE ... LIMIT} statements of {@value #DELETE_CHUNK_SIZE} rows, each in
+ * its own transaction. No row is loaded into the persistence context, and no single transaction holds
+ * the whole table, so locks and replication lag stay bounded however big the table is.
+ */
+public interface ChunkedDelete {
+
+    int DELETE_CHUNK_SIZE = 10_000;
+
+    // implemented by a native @Modifying query on each repository
+    int deleteChunk(int limit);
+
+    // the rows deleted, summed from the statements' own counts
+    default long deleteAllInChunks() {
+
+        long deleted = 0;
+        int chunk;
+
+        do {
+            chunk = deleteChunk(DELETE_CHUNK_SIZE);
+            deleted += chunk;
+        } while (chunk == DELETE_CHUNK_SIZE);
+
+        return deleted;
+    }
+
+}
@@ -1,7 +1,119 @@
 package com.careerdevs.gorestfinal.repositories;
 
 import com.careerdevs.gorestfinal.models.Comment;
+import org.springframework.cache.annotation.CacheConfig;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.PagingAndSortingRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import jakarta.persistence.QueryHint;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_CACHEABLE;
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
+
+@CacheConfig(cacheNames = "comments")
+public interface CommentRepository extends CrudRepository<Comment, Long>, PagingAndSortingRepository<Comment, Long>, ChunkedDelete {
+
+    // every write below keeps the "comments" cache in step with the table
+    @Override
+    @Cacheable(key = "#p0")
+    Optional<Comment> findById(Long id);
+
+    @Override
+    @CachePut(key = "#result.id")
+    <S extends Comment> S save(S entity);
+
+    @Override
+    @CacheEvict(allEntries = true)
+    <S extends Comment> Iterable<S> saveAll(Iterable<S> entities);
+
+    @Override
+    @CacheEvict(key = "#p0")
+    void deleteById(Long id);
+
+    @Override
+    @CacheEvict(key = "#p0.id")
+    void delete(Comment entity);
+
+    @Override
+    @CacheEvict(allEntries = true)
+    void deleteAllById(Iterable<? extends Long> ids);
+
+    @Override
+    @CacheEvict(allEntries = true)
+    void deleteAll(Iterable<? extends Comment> entities);
+
+    @Override
+    @CacheEvict(allEntries = true)
+    void deleteAll();
+
+    // single statement update/delete, the affected row count tells the caller whether the id existed
+    @Modifying
+    @Transactional
+    @CacheEvict(key = "#p0.id")
+    @Query("update Comment c set c.post_id = :#{#comment.post_id}, c.name = :#{#comment.name}, c.email = :#{#comment.email}, c.body = :#{#comment.body} where c.id = :#{#comment.id}")
+    int updateRow(@Param("comment") Comment comment);
+
+    @Modifying
+    @Transactional
+    @CacheEvict(key = "#p0")
+    @Query("delete from Comment c where c.id = :id")
+    int deleteRowById(@Param("id") long id);
+
+    // one chunk of /deleteall, see ChunkedDelete
+    @Override
+    @Modifying
+    @Transactional
+    @CacheEvict(allEntries = true)
+    @Query(value = "delete from comment limit :limit", nativeQuery = true)
+    int deleteChunk(@Param("limit") int limit);
+
+    // the comments of one post, walks idx_comment_post_id
+    @Query("select c from Comment c where c.post_id = :postId order by c.id")
+    List<Comment> findByPostId(@Param("postId") long postId);
+
+    // set-based cascade of a post or user delete, see CascadeDeleteService; the ids are read first for the IdIndex
+    @Query("select c.id from Comment c where c.post_id = :postId")
+    List<Long> findIdsByPostId(@Param("postId") long postId);
+
+    @Modifying
+    @Transactional
+    @CacheEvict(allEntries = true)
+    @Query("delete from Comment c where c.post_id = :postId")
+    int deleteByPostId(@Param("postId") long postId);
+
+    @Query("select c.id from Comment c where c.post_id in (select p.id from Post p where p.user_id = :userId)")
+    List<Long> findIdsByPostUserId(@Param("userId") long userId);
+
+    @Modifying
+    @Transactional
+    @CacheEvict(allEntries = true)
+    @Query("delete from Comment c where c.post_id in (select p.id from Post p where p.user_id = :userId)")
+    int deleteByPostUserId(@Param("userId") long userId);
+
+    // forward-only cursor for /all, must be consumed inside a transaction
+    @Query("select c from Comment c")
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HINT_CACHEABLE, value = "false")
+    })
+    Stream<Comment> streamAll();
+
+    // keyset page: rows after the cursor id, walks the primary key index instead of skipping an offset
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
+    List<Comment> findByIdGreaterThan(long after, Pageable pageable);
 
-public interface CommentRepository extends CrudRepository<Comment, Long> {
 }
@@ -0,0 +1,276 @@
+package com.careerdevs.gorestfinal.repositories;
+
+import com.careerdevs.gorestfinal.models.Comment;
+import com.careerdevs.gorestfinal.models.Post;
+import com.careerdevs.gorestfinal.models.ToDo;
+import com.careerdevs.gorestfinal.models.User;
+import com.careerdevs.gorestfinal.validation.ExistenceCheck;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.persister.entity.EntityPersister;
+import org.roaringbitmap.longlong.Roaring64Bitmap;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+
+/**
+ * The ids of every row of every resource, one compressed bitmap per entity, so the
+ * {@link com.careerdevs.gorestfinal.validation.References} checks never go to the database, a GET or
+ * DELETE of an id that does not exist is answered without a query, and /deleteall knows its count.
+ *
+ * Ids are stored in a {@link Roaring64Bitmap}: dense runs of sequence ids take a few bits each, a
+ * million users fit in well under a megabyte. The index only sees the writes of this instance, so it
+ * assumes it is the only one writing to the schema.
+ *
+ * The bitmaps are filled with one id scan per table at startup. Hibernate reports every insert and
+ * entity delete after its transaction commits, so rows only show up once other transactions can see
+ * them. Statements that bypass the persistence context have to report their rows themselves, with
+ * {@link #remove} for the {@code deleteRowById} queries, {@link #add} for the sync's upserts and
+ * {@link #reload} after a /deleteall.
+ */
+@Component
+@Profile("!reactive")
+public class IdIndex implements ExistenceCheck, PostCommitInsertEventListener, PostCommitDeleteEventListener {
+
+    private static final List<Class<?>> INDEXED = List.of(User.class, Post.class, Comment.class, ToDo.class);
+
+    private static final int SCAN_FETCH_SIZE = 10_000;
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    private final Map<Class<?>, Ids> ids = INDEXED.stream().collect(Collectors.toUnmodifiableMap(Function.identity(), type -> new Ids()));
+
+    public IdIndex(EntityManagerFactory entityManagerFactory) {
+
+        this.entityManagerFactory = entityManagerFactory;
+
+        // listen first, so nothing committed during the scan is missed; adding an id twice is harmless
+        EventListenerRegistry listeners = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry().getService(EventListenerRegistry.class);
+        listeners.appendListeners(EventType.POST_COMMIT_INSERT, this);
+        listeners.appendListeners(EventType.POST_COMMIT_DELETE, this);
+
+        load();
+    }
+
+    // no false negatives: an id that is not here has no committed row
+    @Override
+    public boolean exists(Class<?> entity, long id) {
+        return idsOf(entity).contains(id);
+    }
+
+    @Override
+    public Set<Long> existing(Class<?> entity, Collection<Long> candidates) {
+
+        Set<Long> existing = new HashSet<>();
+        idsOf(entity).retain(candidates, existing);
+        return existing;
+    }
+
+    public long count(Class<?> entity) {
+        return idsOf(entity).size();
+    }
+
+    public void remove(Class<?> entity, long id) {
+        idsOf(entity).remove(id);
+    }
+
+    public void add(Class<?> entity, Collection<Long> added) {
+        Ids entityIds = idsOf(entity);
+        added.forEach(entityIds::add);
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        Ids entityIds = ids.get(event.getPersister().getMappedClass());
+        if (entityIds != null) {
+            entityIds.add(((Number) event.getId()).longValue());
+        }
+    }
+
+    @Override
+    public void onPostInsertCommitFailed(PostInsertEvent event) {
+        // never added, nothing to undo
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        Ids entityIds = ids.get(event.getPersister().getMappedClass());
+        if (entityIds != null) {
+            entityIds.remove(((Number) event.getId()).longValue());
+        }
+    }
+
+    @Override
+    public void onPostDeleteCommitFailed(PostDeleteEvent event) {
+        // never removed, nothing to undo
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return ids.containsKey(persister.getMappedClass());
+    }
+
+    /**
+     * Forgets every id of the entity and scans the ones its table still holds. A row committed between
+     * the two can be missing for that moment, its own insert event adds it back.
+     */
+    public void reload(Class<?> entity) {
+        idsOf(entity).clear();
+        scan(List.of(entity));
+    }
+
+    // adds every id the tables hold now
+    void load() {
+        scan(INDEXED);
+    }
+
+    private void scan(List<Class<?>> entities) {
+
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+
+        try {
+            entityManager.getTransaction().begin();
+
+            for (Class<?> entity : entities) {
+
+                Roaring64Bitmap scanned = new Roaring64Bitmap();
+                String entityName = entityManagerFactory.getMetamodel().entity(entity).getName();
+
+                try (Stream<Long> rows = entityManager.createQuery("select e.id from " + entityName + " e", Long.class)
+                        .setHint(HINT_FETCH_SIZE, SCAN_FETCH_SIZE)
+                        .getResultStream()) {
+                    rows.forEach(scanned::addLong);
+                }
+
+                scanned.runOptimize();
+                ids.get(entity).addAll(scanned);
+            }
+
+            entityManager.getTransaction().commit();
+
+        } finally {
+            entityManager.close();
+        }
+    }
+
+    private Ids idsOf(Class<?> entity) {
+
+        Ids entityIds = ids.get(entity);
+
+        if (entityIds == null) {
+            throw new IllegalArgumentException(entity.getSimpleName() + " ids are not indexed");
+        }
+
+        return entityIds;
+    }
+
+    /**
+     * A bitmap is not thread safe, lookups share the read lock and changes take the write lock.
+     */
+    private static final class Ids {
+
+        private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+        private final Roaring64Bitmap bitmap = new Roaring64Bitmap();
+
+        // kept alongside, the bitmap's own cardinality walks every container
+        private long size;
+
+        boolean contains(long id) {
+            lock.readLock().lock();
+            try {
+                return bitmap.contains(id);
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        void retain(Collection<Long> candidates, Set<Long> existing) {
+            lock.readLock().lock();
+            try {
+                for (Long id : candidates) {
+                    if (bitmap.contains(id)) {
+                        existing.add(id);
+                    }
+                }
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        long size() {
+            lock.readLock().lock();
+            try {
+                return size;
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        void add(long id) {
+            lock.writeLock().lock();
+            try {
+                if (!bitmap.contains(id)) {
+                    bitmap.addLong(id);
+                    size++;
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        void remove(long id) {
+            lock.writeLock().lock();
+            try {
+                if (bitmap.contains(id)) {
+                    bitmap.removeLong(id);
+                    size--;
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        void clear() {
+            lock.writeLock().lock();
+            try {
+                bitmap.clear();
+                size = 0;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        void addAll(Roaring64Bitmap scanned) {
+            lock.writeLock().lock();
+            try {
+                bitmap.or(scanned);
+                size = bitmap.getLongCardinality();
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,19 @@
+package com.careerdevs.gorestfinal.repositories;
+
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.FilterType;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+
+/**
+ * JPA repositories for the servlet stack. The R2DBC repositories in {@code repositories.reactive}
+ * share the models but are left to the reactive profile.
+ */
+@Configuration
+@Profile("!reactive")
+@EnableJpaRepositories(basePackageClasses = UserRepository.class,
+        excludeFilters = @ComponentScan.Filter(type = FilterType.ASSIGNABLE_TYPE, classes = ReactiveCrudRepository.class))
+public class JpaRepositoriesConfig {
+}
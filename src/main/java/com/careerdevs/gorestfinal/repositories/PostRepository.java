@@ -1,7 +1,110 @@
 package com.careerdevs.gorestfinal.repositories;
 
 import com.careerdevs.gorestfinal.models.Post;
+import org.springframework.cache.annotation.CacheConfig;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.PagingAndSortingRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import jakarta.persistence.QueryHint;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_CACHEABLE;
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
+
+@CacheConfig(cacheNames = "posts")
+public interface PostRepository extends CrudRepository<Post, Long>, PagingAndSortingRepository<Post, Long>, ChunkedDelete {
+
+    // every write below keeps the "posts" cache in step with the table
+    @Override
+    @Cacheable(key = "#p0")
+    Optional<Post> findById(Long id);
+
+    @Override
+    @CachePut(key = "#result.id")
+    <S extends Post> S save(S entity);
+
+    @Override
+    @CacheEvict(allEntries = true)
+    <S extends Post> Iterable<S> saveAll(Iterable<S> entities);
+
+    @Override
+    @CacheEvict(key = "#p0")
+    void deleteById(Long id);
+
+    @Override
+    @CacheEvict(key = "#p0.id")
+    void delete(Post entity);
+
+    @Override
+    @CacheEvict(allEntries = true)
+    void deleteAllById(Iterable<? extends Long> ids);
+
+    @Override
+    @CacheEvict(allEntries = true)
+    void deleteAll(Iterable<? extends Post> entities);
+
+    @Override
+    @CacheEvict(allEntries = true)
+    void deleteAll();
+
+    // single statement update/delete, the affected row count tells the caller whether the id existed
+    @Modifying
+    @Transactional
+    @CacheEvict(key = "#p0.id")
+    @Query("update Post p set p.user_id = :#{#post.user_id}, p.title = :#{#post.title}, p.body = :#{#post.body} where p.id = :#{#post.id}")
+    int updateRow(@Param("post") Post post);
+
+    @Modifying
+    @Transactional
+    @CacheEvict(key = "#p0")
+    @Query("delete from Post p where p.id = :id")
+    int deleteRowById(@Param("id") long id);
+
+    // one chunk of /deleteall, see ChunkedDelete
+    @Override
+    @Modifying
+    @Transactional
+    @CacheEvict(allEntries = true)
+    @Query(value = "delete from post limit :limit", nativeQuery = true)
+    int deleteChunk(@Param("limit") int limit);
+
+    // the posts of one user, walks idx_post_user_id
+    @Query("select p from Post p where p.user_id = :userId order by p.id")
+    List<Post> findByUserId(@Param("userId") long userId);
+
+    // set-based cascade of a user delete, see CascadeDeleteService; the ids are read first for the IdIndex
+    @Query("select p.id from Post p where p.user_id = :userId")
+    List<Long> findIdsByUserId(@Param("userId") long userId);
+
+    @Modifying
+    @Transactional
+    @CacheEvict(allEntries = true)
+    @Query("delete from Post p where p.user_id = :userId")
+    int deleteByUserId(@Param("userId") long userId);
+
+    // forward-only cursor for /all, must be consumed inside a transaction
+    @Query("select p from Post p")
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HINT_CACHEABLE, value = "false")
+    })
+    Stream<Post> streamAll();
+
+    // keyset page: rows after the cursor id, walks the primary key index instead of skipping an offset
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
+    List<Post> findByIdGreaterThan(long after, Pageable pageable);
 
-public interface PostRepository extends CrudRepository<Post, Long> {
 }
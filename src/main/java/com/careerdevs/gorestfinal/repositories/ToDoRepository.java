@@ -1,8 +1,106 @@
 package com.careerdevs.gorestfinal.repositories;
 
 import com.careerdevs.gorestfinal.models.ToDo;
+import org.springframework.cache.annotation.CacheConfig;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.PagingAndSortingRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
-public interface ToDoRepository extends CrudRepository<ToDo, Long> {
+import jakarta.persistence.QueryHint;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_CACHEABLE;
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
+
+@CacheConfig(cacheNames = "todos")
+public interface ToDoRepository extends CrudRepository<ToDo, Long>, PagingAndSortingRepository<ToDo, Long>, ChunkedDelete {
+
+    // every write below keeps the "todos" cache in step with the table
+    @Override
+    @Cacheable(key = "#p0")
+    Optional<ToDo> findById(Long id);
+
+    @Override
+    @CachePut(key = "#result.id")
+    <S extends ToDo> S save(S entity);
+
+    @Override
+    @CacheEvict(allEntries = true)
+    <S extends ToDo> Iterable<S> saveAll(Iterable<S> entities);
+
+    @Override
+    @CacheEvict(key = "#p0")
+    void deleteById(Long id);
+
+    @Override
+    @CacheEvict(key = "#p0.id")
+    void delete(ToDo entity);
+
+    @Override
+    @CacheEvict(allEntries = true)
+    void deleteAllById(Iterable<? extends Long> ids);
+
+    @Override
+    @CacheEvict(allEntries = true)
+    void deleteAll(Iterable<? extends ToDo> entities);
+
+    @Override
+    @CacheEvict(allEntries = true)
+    void deleteAll();
+
+    // single statement update/delete, the affected row count tells the caller whether the id existed
+    @Modifying
+    @Transactional
+    @CacheEvict(key = "#p0.id")
+    @Query("update ToDo t set t.user_id = :#{#toDo.user_id}, t.title = :#{#toDo.title}, t.due_on = :#{#toDo.due_on}, t.status = :#{#toDo.status} where t.id = :#{#toDo.id}")
+    int updateRow(@Param("toDo") ToDo toDo);
+
+    @Modifying
+    @Transactional
+    @CacheEvict(key = "#p0")
+    @Query("delete from ToDo t where t.id = :id")
+    int deleteRowById(@Param("id") long id);
+
+    // one chunk of /deleteall, see ChunkedDelete
+    @Override
+    @Modifying
+    @Transactional
+    @CacheEvict(allEntries = true)
+    @Query(value = "delete from to_do limit :limit", nativeQuery = true)
+    int deleteChunk(@Param("limit") int limit);
+
+    // set-based cascade of a user delete, see CascadeDeleteService; the ids are read first for the IdIndex
+    @Query("select t.id from ToDo t where t.user_id = :userId")
+    List<Long> findIdsByUserId(@Param("userId") long userId);
+
+    @Modifying
+    @Transactional
+    @CacheEvict(allEntries = true)
+    @Query("delete from ToDo t where t.user_id = :userId")
+    int deleteByUserId(@Param("userId") long userId);
+
+    // forward-only cursor for /all, must be consumed inside a transaction
+    @Query("select t from ToDo t")
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HINT_CACHEABLE, value = "false")
+    })
+    Stream<ToDo> streamAll();
+
+    // keyset page: rows after the cursor id, walks the primary key index instead of skipping an offset
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
+    List<ToDo> findByIdGreaterThan(long after, Pageable pageable);
 
 }
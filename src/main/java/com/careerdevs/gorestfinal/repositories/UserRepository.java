@@ -1,7 +1,96 @@
 package com.careerdevs.gorestfinal.repositories;
 
 import com.careerdevs.gorestfinal.models.User;
+import org.springframework.cache.annotation.CacheConfig;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.PagingAndSortingRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import jakarta.persistence.QueryHint;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_CACHEABLE;
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
+
+@CacheConfig(cacheNames = "users")
+public interface UserRepository extends CrudRepository<User, Long>, PagingAndSortingRepository<User, Long>, ChunkedDelete {
+
+    // every write below keeps the "users" cache in step with the table
+    @Override
+    @Cacheable(key = "#p0")
+    Optional<User> findById(Long id);
+
+    @Override
+    @CachePut(key = "#result.id")
+    <S extends User> S save(S entity);
+
+    @Override
+    @CacheEvict(allEntries = true)
+    <S extends User> Iterable<S> saveAll(Iterable<S> entities);
+
+    @Override
+    @CacheEvict(key = "#p0")
+    void deleteById(Long id);
+
+    @Override
+    @CacheEvict(key = "#p0.id")
+    void delete(User entity);
+
+    @Override
+    @CacheEvict(allEntries = true)
+    void deleteAllById(Iterable<? extends Long> ids);
+
+    @Override
+    @CacheEvict(allEntries = true)
+    void deleteAll(Iterable<? extends User> entities);
+
+    @Override
+    @CacheEvict(allEntries = true)
+    void deleteAll();
+
+    // single statement update/delete, the affected row count tells the caller whether the id existed
+    @Modifying
+    @Transactional
+    @CacheEvict(key = "#p0.id")
+    @Query("update User u set u.name = :#{#user.name}, u.email = :#{#user.email}, u.gender = :#{#user.gender}, u.status = :#{#user.status} where u.id = :#{#user.id}")
+    int updateRow(@Param("user") User user);
+
+    @Modifying
+    @Transactional
+    @CacheEvict(key = "#p0")
+    @Query("delete from User u where u.id = :id")
+    int deleteRowById(@Param("id") long id);
+
+    // one chunk of /deleteall, see ChunkedDelete
+    @Override
+    @Modifying
+    @Transactional
+    @CacheEvict(allEntries = true)
+    @Query(value = "delete from user limit :limit", nativeQuery = true)
+    int deleteChunk(@Param("limit") int limit);
+
+    // forward-only cursor for /all, must be consumed inside a transaction
+    @Query("select u from User u")
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HINT_CACHEABLE, value = "false")
+    })
+    Stream<User> streamAll();
+
+    // keyset page: rows after the cursor id, walks the primary key index instead of skipping an offset
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
+    List<User> findByIdGreaterThan(long after, Pageable pageable);
 
-public interface UserRepository extends CrudRepository<User, Long> {
 }
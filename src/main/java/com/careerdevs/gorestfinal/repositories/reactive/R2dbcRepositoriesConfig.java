@@ -0,0 +1,70 @@
+package com.careerdevs.gorestfinal.repositories.reactive;
+
+import io.r2dbc.spi.ConnectionFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.data.convert.ReadingConverter;
+import org.springframework.data.convert.WritingConverter;
+import org.springframework.data.r2dbc.convert.R2dbcCustomConversions;
+import org.springframework.data.r2dbc.dialect.DialectResolver;
+import org.springframework.data.r2dbc.mapping.R2dbcMappingContext;
+import org.springframework.data.relational.core.mapping.DefaultNamingStrategy;
+import org.springframework.data.relational.core.mapping.NamingStrategy;
+
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Mapping for the reactive profile. Identifiers are quoted in the generated SQL because the users
+ * table is called {@code user}, which H2 (and the SQL standard) reserve. Timestamps are written and read
+ * as UTC, the way Hibernate stores them (hibernate.timezone.default_storage=NORMALIZE_UTC).
+ */
+@Configuration
+@Profile("reactive")
+public class R2dbcRepositoriesConfig {
+
+    @Bean
+    public R2dbcCustomConversions r2dbcCustomConversions(ConnectionFactory connectionFactory) {
+        return R2dbcCustomConversions.of(DialectResolver.getDialect(connectionFactory),
+                OffsetDateTimeToUtc.INSTANCE, UtcToOffsetDateTime.INSTANCE);
+    }
+
+    @Bean
+    public R2dbcMappingContext r2dbcMappingContext(ObjectProvider<NamingStrategy> namingStrategy,
+                                                   R2dbcCustomConversions r2dbcCustomConversions) {
+
+        R2dbcMappingContext mappingContext = new R2dbcMappingContext(namingStrategy.getIfAvailable(() -> DefaultNamingStrategy.INSTANCE));
+        mappingContext.setSimpleTypeHolder(r2dbcCustomConversions.getSimpleTypeHolder());
+        mappingContext.setForceQuote(true);
+        return mappingContext;
+    }
+
+    @WritingConverter
+    private enum OffsetDateTimeToUtc implements Converter<OffsetDateTime, LocalDateTime> {
+
+        INSTANCE;
+
+        @Override
+        public LocalDateTime convert(OffsetDateTime source) {
+            return source.withOffsetSameInstant(ZoneOffset.UTC).toLocalDateTime();
+        }
+
+    }
+
+    @ReadingConverter
+    private enum UtcToOffsetDateTime implements Converter<LocalDateTime, OffsetDateTime> {
+
+        INSTANCE;
+
+        @Override
+        public OffsetDateTime convert(LocalDateTime source) {
+            return source.atOffset(ZoneOffset.UTC);
+        }
+
+    }
+
+}
@@ -0,0 +1,21 @@
+package com.careerdevs.gorestfinal.repositories.reactive;
+
+import reactor.core.publisher.Mono;
+
+import static com.careerdevs.gorestfinal.repositories.ChunkedDelete.DELETE_CHUNK_SIZE;
+
+/**
+ * The reactive form of {@link com.careerdevs.gorestfinal.repositories.ChunkedDelete}: the next chunk is
+ * only deleted once the previous one has reported its count.
+ */
+public interface ReactiveChunkedDelete {
+
+    Mono<Integer> deleteChunk(int limit);
+
+    default Mono<Long> deleteAllInChunks() {
+        return deleteChunk(DELETE_CHUNK_SIZE)
+                .expand(chunk -> chunk == DELETE_CHUNK_SIZE ? deleteChunk(DELETE_CHUNK_SIZE) : Mono.empty())
+                .reduce(0L, (deleted, chunk) -> deleted + chunk);
+    }
+
+}
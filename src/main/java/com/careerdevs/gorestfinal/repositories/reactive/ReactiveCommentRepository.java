@@ -0,0 +1,39 @@
+package com.careerdevs.gorestfinal.repositories.reactive;
+
+import com.careerdevs.gorestfinal.models.Comment;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+public interface ReactiveCommentRepository extends R2dbcRepository<Comment, Long>, ReactiveChunkedDelete {
+
+    @Modifying
+    @Query("update comment set post_id = :#{[0].post_id}, name = :#{[0].name}, email = :#{[0].email}, body = :#{[0].body} where id = :#{[0].id}")
+    Mono<Integer> updateRow(Comment comment);
+
+    @Modifying
+    @Query("delete from comment where id = :id")
+    Mono<Integer> deleteRowById(long id);
+
+    @Override
+    @Modifying
+    @Query("delete from comment limit :limit")
+    Mono<Integer> deleteChunk(int limit);
+
+    // set-based cascade of a post or user delete, see ReactiveCascadeDeleteService
+    @Modifying
+    @Query("delete from comment where post_id = :postId")
+    Mono<Integer> deleteByPostId(long postId);
+
+    @Modifying
+    @Query("delete from comment where post_id in (select id from post where user_id = :userId)")
+    Mono<Integer> deleteByPostUserId(long userId);
+
+    Flux<Comment> findAllBy(Pageable pageable);
+
+    Flux<Comment> findByIdGreaterThan(long after, Pageable pageable);
+
+}
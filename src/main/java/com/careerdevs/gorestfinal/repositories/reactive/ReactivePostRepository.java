@@ -0,0 +1,35 @@
+package com.careerdevs.gorestfinal.repositories.reactive;
+
+import com.careerdevs.gorestfinal.models.Post;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+public interface ReactivePostRepository extends R2dbcRepository<Post, Long>, ReactiveChunkedDelete {
+
+    @Modifying
+    @Query("update post set user_id = :#{[0].user_id}, title = :#{[0].title}, body = :#{[0].body} where id = :#{[0].id}")
+    Mono<Integer> updateRow(Post post);
+
+    @Modifying
+    @Query("delete from post where id = :id")
+    Mono<Integer> deleteRowById(long id);
+
+    @Override
+    @Modifying
+    @Query("delete from post limit :limit")
+    Mono<Integer> deleteChunk(int limit);
+
+    // set-based cascade of a user delete, see ReactiveCascadeDeleteService
+    @Modifying
+    @Query("delete from post where user_id = :userId")
+    Mono<Integer> deleteByUserId(long userId);
+
+    Flux<Post> findAllBy(Pageable pageable);
+
+    Flux<Post> findByIdGreaterThan(long after, Pageable pageable);
+
+}
@@ -0,0 +1,35 @@
+package com.careerdevs.gorestfinal.repositories.reactive;
+
+import com.careerdevs.gorestfinal.models.ToDo;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+public interface ReactiveToDoRepository extends R2dbcRepository<ToDo, Long>, ReactiveChunkedDelete {
+
+    @Modifying
+    @Query("update to_do set user_id = :#{[0].user_id}, title = :#{[0].title}, due_on = :#{[0].due_on}, status = :#{[0].status} where id = :#{[0].id}")
+    Mono<Integer> updateRow(ToDo toDo);
+
+    @Modifying
+    @Query("delete from to_do where id = :id")
+    Mono<Integer> deleteRowById(long id);
+
+    @Override
+    @Modifying
+    @Query("delete from to_do limit :limit")
+    Mono<Integer> deleteChunk(int limit);
+
+    // set-based cascade of a user delete, see ReactiveCascadeDeleteService
+    @Modifying
+    @Query("delete from to_do where user_id = :userId")
+    Mono<Integer> deleteByUserId(long userId);
+
+    Flux<ToDo> findAllBy(Pageable pageable);
+
+    Flux<ToDo> findByIdGreaterThan(long after, Pageable pageable);
+
+}
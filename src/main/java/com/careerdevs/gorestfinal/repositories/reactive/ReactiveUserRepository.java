@@ -0,0 +1,31 @@
+package com.careerdevs.gorestfinal.repositories.reactive;
+
+import com.careerdevs.gorestfinal.models.User;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+public interface ReactiveUserRepository extends R2dbcRepository<User, Long>, ReactiveChunkedDelete {
+
+    // same single statement writes as UserRepository, the row count says whether the id existed
+    @Modifying
+    @Query("update user set name = :#{[0].name}, email = :#{[0].email}, gender = :#{[0].gender}, status = :#{[0].status} where id = :#{[0].id}")
+    Mono<Integer> updateRow(User user);
+
+    @Modifying
+    @Query("delete from user where id = :id")
+    Mono<Integer> deleteRowById(long id);
+
+    @Override
+    @Modifying
+    @Query("delete from user limit :limit")
+    Mono<Integer> deleteChunk(int limit);
+
+    Flux<User> findAllBy(Pageable pageable);
+
+    Flux<User> findByIdGreaterThan(long after, Pageable pageable);
+
+}
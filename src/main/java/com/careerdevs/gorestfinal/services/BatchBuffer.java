@@ -0,0 +1,48 @@
+package com.careerdevs.gorestfinal.services;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Collects rows and hands them to a writer {@code batchSize} at a time. The writer gets the buffer's own
+ * list, which is cleared and filled again once the writer returns, so one buffer serves any number of
+ * batches and a writer must not hold on to the list.
+ */
+final class BatchBuffer<T> {
+
+    private final List<T> rows;
+
+    private final int batchSize;
+
+    private final Consumer<List<T>> writer;
+
+    BatchBuffer(int batchSize, Consumer<List<T>> writer) {
+        this.rows = new ArrayList<>(batchSize);
+        this.batchSize = batchSize;
+        this.writer = writer;
+    }
+
+    void add(T row) {
+
+        rows.add(row);
+
+        if (rows.size() >= batchSize) {
+            flush();
+        }
+    }
+
+    // writes what is left, at the end of a page
+    void flush() {
+
+        if (!rows.isEmpty()) {
+            writer.accept(rows);
+            rows.clear();
+        }
+    }
+
+    void clear() {
+        rows.clear();
+    }
+
+}
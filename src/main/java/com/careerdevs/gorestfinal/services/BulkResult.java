@@ -0,0 +1,48 @@
+package com.careerdevs.gorestfinal.services;
+
+import java.util.List;
+
+public class BulkResult {
+
+    private final String resource;
+
+    private final int rows;
+
+    private final List<Long> ids;
+
+    private final long elapsedMillis;
+
+    public BulkResult(String resource, int rows, List<Long> ids, long elapsedMillis) {
+        this.resource = resource;
+        this.rows = rows;
+        this.ids = ids;
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    public String getResource() {
+        return resource;
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    // in request order, so ids.get(i) belongs to the i-th entry that was sent
+    public List<Long> getIds() {
+        return ids;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    @Override
+    public String toString() {
+        return "BulkResult{" +
+                "resource='" + resource + '\'' +
+                ", rows=" + rows +
+                ", elapsedMillis=" + elapsedMillis +
+                '}';
+    }
+
+}
@@ -0,0 +1,217 @@
+package com.careerdevs.gorestfinal.services;
+
+import com.careerdevs.gorestfinal.utils.ApiClientError;
+import com.careerdevs.gorestfinal.validation.BulkValidationError;
+import com.careerdevs.gorestfinal.validation.EntityValidator;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import jakarta.persistence.EntityManager;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.ToLongFunction;
+
+/**
+ * Backs the {@code /bulk} endpoints: reads a JSON array or NDJSON body, validates every entry before
+ * anything is written, then writes all of them in one transaction. Validation is
+ * {@link EntityValidator#validateAll}, which checks the references of all entries as one set.
+ *
+ * Rows are written {@value #CHUNK_SIZE} at a time through {@code saveAll}, so inserts and updates go out
+ * as JDBC batches, and the persistence context is flushed and cleared after every chunk. Updates check
+ * that the ids exist with one {@code findAllById} per chunk, which also loads the rows the merge needs.
+ * Either every entry is written or none is, and the 400 lists the errors by entry index.
+ *
+ * The repositories' {@code @CacheEvict} runs inside the transaction, before the commit, so a GET in
+ * between could put the old row back for the cache's whole TTL. The resource's cache is cleared again
+ * once the transaction has committed.
+ */
+@Service
+@Profile("!reactive")
+public class BulkWriteService {
+
+    // a multiple of hibernate.jdbc.batch_size
+    private static final int CHUNK_SIZE = 1000;
+
+    private final ObjectMapper objectMapper;
+
+    private final EntityManager entityManager;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final EntityValidator entityValidator;
+
+    private final CacheManager cacheManager;
+
+    private final int maxRows;
+
+    private final Map<Class<?>, ObjectReader> createReaders = new ConcurrentHashMap<>();
+
+    public BulkWriteService(ObjectMapper objectMapper, EntityManager entityManager,
+                            PlatformTransactionManager transactionManager, EntityValidator entityValidator,
+                            CacheManager cacheManager, @Value("${gorest.bulk.max-rows:50000}") int maxRows) {
+
+        this.objectMapper = objectMapper;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.entityValidator = entityValidator;
+        this.cacheManager = cacheManager;
+        this.maxRows = maxRows;
+    }
+
+    /**
+     * Reads either a JSON array or newline delimited objects. For creates the "id" of every entry is
+     * ignored, like the single POST ignores it, so each row is persisted rather than merged.
+     */
+    public <T> List<T> read(InputStream body, Class<T> type, boolean forCreate) throws IOException {
+
+        ObjectReader reader = forCreate
+                ? createReaders.computeIfAbsent(type, t -> objectMapper.copy().addMixIn(t, IgnoreId.class).readerFor(t))
+                : objectMapper.readerFor(type);
+
+        List<T> rows = new ArrayList<>();
+
+        try (MappingIterator<T> entries = reader.readValues(body)) {
+
+            while (entries.hasNextValue()) {
+
+                if (rows.size() == maxRows) {
+                    throw new ApiClientError(HttpStatus.BAD_REQUEST, "A bulk request can hold at most " + maxRows + " entries.");
+                }
+
+                rows.add(entries.nextValue());
+            }
+
+        } catch (JsonProcessingException e) {
+            throw new ApiClientError(HttpStatus.BAD_REQUEST, "Entry " + rows.size() + " is not valid JSON: " + e.getOriginalMessage());
+        }
+
+        if (rows.isEmpty()) {
+            throw new ApiClientError(HttpStatus.BAD_REQUEST, "A bulk request needs at least one entry.");
+        }
+
+        return rows;
+    }
+
+    public <T> BulkResult create(String resource, List<T> rows, CrudRepository<T, Long> repository, ToLongFunction<T> idOf) {
+
+        long start = System.nanoTime();
+
+        throwIfInvalid(entityValidator.validateAll(rows, false));
+
+        List<Long> ids = new ArrayList<>(rows.size());
+
+        transactionTemplate.executeWithoutResult(status -> {
+            clearCacheAfterCommit(resource);
+            for (int from = 0; from < rows.size(); from += CHUNK_SIZE) {
+                repository.saveAll(chunk(rows, from)).forEach(saved -> ids.add(idOf.applyAsLong(saved)));
+                flushAndClear();
+            }
+        });
+
+        return new BulkResult(resource, rows.size(), ids, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    public <T> BulkResult update(String resource, List<T> rows, CrudRepository<T, Long> repository,
+                                 ToLongFunction<T> idOf, String notFoundMessage) {
+
+        long start = System.nanoTime();
+
+        BulkValidationError errors = entityValidator.validateAll(rows, true);
+        throwIfInvalid(errors);
+
+        transactionTemplate.executeWithoutResult(status -> {
+
+            clearCacheAfterCommit(resource);
+
+            for (int from = 0; from < rows.size(); from += CHUNK_SIZE) {
+
+                List<T> chunk = chunk(rows, from);
+
+                Set<Long> ids = new HashSet<>();
+                chunk.forEach(row -> ids.add(idOf.applyAsLong(row)));
+
+                Set<Long> existing = new HashSet<>();
+                repository.findAllById(ids).forEach(found -> existing.add(idOf.applyAsLong(found)));
+
+                for (int i = 0; i < chunk.size(); i++) {
+                    long id = idOf.applyAsLong(chunk.get(i));
+                    if (!existing.contains(id)) {
+                        errors.addError(from + i, "id", notFoundMessage + id);
+                    }
+                }
+
+                // keep checking the remaining chunks so the 400 lists every missing id, but stop writing
+                if (!errors.hasError()) {
+                    repository.saveAll(chunk);
+                }
+
+                flushAndClear();
+            }
+
+            if (errors.hasError()) {
+                status.setRollbackOnly();
+            }
+        });
+
+        throwIfInvalid(errors);
+
+        List<Long> ids = new ArrayList<>(rows.size());
+        rows.forEach(row -> ids.add(idOf.applyAsLong(row)));
+
+        return new BulkResult(resource, rows.size(), ids, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private void clearCacheAfterCommit(String resource) {
+
+        Cache cache = cacheManager.getCache(resource);
+
+        if (cache != null) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cache.clear();
+                }
+            });
+        }
+    }
+
+    private static void throwIfInvalid(BulkValidationError errors) {
+        if (errors.hasError()) {
+            throw new ApiClientError(HttpStatus.BAD_REQUEST, "Validation failed.", errors);
+        }
+    }
+
+    private static <T> List<T> chunk(List<T> rows, int from) {
+        return rows.subList(from, Math.min(from + CHUNK_SIZE, rows.size()));
+    }
+
+    private void flushAndClear() {
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @JsonIgnoreProperties("id")
+    private abstract static class IgnoreId {
+    }
+
+}
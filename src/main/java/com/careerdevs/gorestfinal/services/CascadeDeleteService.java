@@ -0,0 +1,139 @@
+package com.careerdevs.gorestfinal.services;
+
+import com.careerdevs.gorestfinal.models.Comment;
+import com.careerdevs.gorestfinal.models.Post;
+import com.careerdevs.gorestfinal.models.ToDo;
+import com.careerdevs.gorestfinal.models.User;
+import com.careerdevs.gorestfinal.repositories.CommentRepository;
+import com.careerdevs.gorestfinal.repositories.IdIndex;
+import com.careerdevs.gorestfinal.repositories.PostRepository;
+import com.careerdevs.gorestfinal.repositories.ToDoRepository;
+import com.careerdevs.gorestfinal.repositories.UserRepository;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+
+/**
+ * Deletes users or posts together with the rows that reference them, so no post, comment or todo is
+ * left pointing at a row that is gone. The mappings declare no database foreign keys, this is the only
+ * place the cascade happens.
+ *
+ * A single user or post is deleted with one statement per table in one transaction, the children
+ * selected by their indexed foreign key columns (comments through a subquery on their posts) instead
+ * of being loaded and removed one by one. /deleteall empties the child tables before the parent one,
+ * each with chunked {@code DELETE ... LIMIT} statements, so stopping part way never leaves orphans.
+ *
+ * None of the statements raise Hibernate delete events, so the {@link IdIndex} is told itself: the
+ * ids of every cascaded row are read before the deletes and removed after the commit, and /deleteall
+ * rescans the tables it emptied.
+ */
+@Service
+@Profile("!reactive")
+public class CascadeDeleteService {
+
+    private final UserRepository userRepository;
+
+    private final PostRepository postRepository;
+
+    private final CommentRepository commentRepository;
+
+    private final ToDoRepository toDoRepository;
+
+    private final IdIndex idIndex;
+
+    public CascadeDeleteService(UserRepository userRepository, PostRepository postRepository,
+                                CommentRepository commentRepository, ToDoRepository toDoRepository, IdIndex idIndex) {
+
+        this.userRepository = userRepository;
+        this.postRepository = postRepository;
+        this.commentRepository = commentRepository;
+        this.toDoRepository = toDoRepository;
+        this.idIndex = idIndex;
+    }
+
+    // false when there is no user with that id, then nothing else is touched
+    @Transactional
+    public boolean deleteUser(long id) {
+
+        if (userRepository.deleteRowById(id) == 0) {
+            return false;
+        }
+
+        List<Long> commentIds = commentRepository.findIdsByPostUserId(id);
+        commentRepository.deleteByPostUserId(id);
+
+        List<Long> postIds = postRepository.findIdsByUserId(id);
+        postRepository.deleteByUserId(id);
+
+        List<Long> toDoIds = toDoRepository.findIdsByUserId(id);
+        toDoRepository.deleteByUserId(id);
+
+        afterCommit(() -> {
+            idIndex.remove(User.class, id);
+            postIds.forEach(postId -> idIndex.remove(Post.class, postId));
+            commentIds.forEach(commentId -> idIndex.remove(Comment.class, commentId));
+            toDoIds.forEach(toDoId -> idIndex.remove(ToDo.class, toDoId));
+        });
+
+        return true;
+    }
+
+    @Transactional
+    public boolean deletePost(long id) {
+
+        if (postRepository.deleteRowById(id) == 0) {
+            return false;
+        }
+
+        List<Long> commentIds = commentRepository.findIdsByPostId(id);
+        commentRepository.deleteByPostId(id);
+
+        afterCommit(() -> {
+            idIndex.remove(Post.class, id);
+            commentIds.forEach(commentId -> idIndex.remove(Comment.class, commentId));
+        });
+
+        return true;
+    }
+
+    // every post, comment and todo belongs to some user, so none of them outlive all the users
+    public long deleteAllUsers() {
+
+        commentRepository.deleteAllInChunks();
+        postRepository.deleteAllInChunks();
+        toDoRepository.deleteAllInChunks();
+        long deletedUsers = userRepository.deleteAllInChunks();
+
+        idIndex.reload(Comment.class);
+        idIndex.reload(Post.class);
+        idIndex.reload(ToDo.class);
+        idIndex.reload(User.class);
+
+        return deletedUsers;
+    }
+
+    public long deleteAllPosts() {
+
+        commentRepository.deleteAllInChunks();
+        long deletedPosts = postRepository.deleteAllInChunks();
+
+        idIndex.reload(Comment.class);
+        idIndex.reload(Post.class);
+
+        return deletedPosts;
+    }
+
+    private static void afterCommit(Runnable action) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+}
@@ -0,0 +1,62 @@
+package com.careerdevs.gorestfinal.services;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * The command line mode of the dump import: {@code java -jar gorestfinal.jar --import-dump=<directory>}
+ * loads every resource that has a dump file in the directory, users first so that the rows referencing
+ * them find them, logs what it loaded and exits without serving the API (see GorestfinalApplication).
+ * Without a directory, {@code gorest.dump.directory} is used.
+ */
+@Component
+@Profile("!reactive")
+public class DumpImportRunner implements ApplicationRunner {
+
+    public static final String OPTION = "import-dump";
+
+    private static final Logger log = LoggerFactory.getLogger(DumpImportRunner.class);
+
+    private final DumpImportService dumpImportService;
+
+    public DumpImportRunner(DumpImportService dumpImportService) {
+        this.dumpImportService = dumpImportService;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+
+        if (!args.containsOption(OPTION)) {
+            return;
+        }
+
+        List<String> values = args.getOptionValues(OPTION);
+        Path directory = values.isEmpty() || values.get(0).isBlank() ? dumpImportService.getDirectory() : Path.of(values.get(0));
+
+        if (!Files.isDirectory(directory)) {
+            throw new IllegalArgumentException("--" + OPTION + " needs a directory of dump files, " +
+                    directory.toAbsolutePath() + " is not one");
+        }
+
+        for (GoRestSyncService.Target<?> target : GoRestSyncService.TARGETS) {
+
+            if (Files.isRegularFile(directory.resolve(target.resource() + ".ndjson")) ||
+                    Files.isRegularFile(directory.resolve(target.resource() + ".json"))) {
+
+                ImportResult result = dumpImportService.importDump(target, directory);
+
+                log.info("{}: {} rows in {}ms, {} skipped for a duplicate email", result.getResource(), result.getRows(),
+                        result.getElapsedMillis(), result.getCollisions());
+            }
+        }
+    }
+
+}
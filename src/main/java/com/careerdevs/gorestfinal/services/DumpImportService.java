@@ -0,0 +1,310 @@
+package com.careerdevs.gorestfinal.services;
+
+import com.careerdevs.gorestfinal.utils.ApiClientError;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Loads a resource from a local dump file instead of from GoREST, for seeding an environment that cannot
+ * reach gorest.co.in. The file is {@code <resource>.ndjson} (one GoREST row per line) or
+ * {@code <resource>.json} (one array of rows) in the dump directory.
+ *
+ * An NDJSON file is cut into chunks of about {@code gorest.dump.chunk-size}, each ending at a newline, and
+ * the chunks are read by {@code gorest.dump.concurrency} threads at once. A thread maps its chunk with
+ * {@link FileChannel#map}, parses it line by line and writes the rows through the {@link GoRestUpsertWriter}
+ * in JDBC batches of {@code gorest.dump.batch-size}, the same way a GoREST import writes them. The file is
+ * never read onto the heap, only one batch per thread is. A JSON array cannot be split on newlines and is
+ * streamed by a single thread.
+ */
+@Service
+@Profile("!reactive")
+public class DumpImportService {
+
+    // how far past a chunk's nominal end the next newline is looked for at a time
+    private static final int NEWLINE_SCAN = 64 * 1024;
+
+    private final GoRestUpsertWriter upsertWriter;
+
+    private final ObjectMapper objectMapper;
+
+    private final Path directory;
+
+    private final int concurrency;
+
+    private final long chunkSize;
+
+    private final int batchSize;
+
+    public DumpImportService(GoRestUpsertWriter upsertWriter, ObjectMapper objectMapper,
+                             @Value("${gorest.dump.directory:dump}") String directory,
+                             @Value("${gorest.dump.concurrency:0}") int concurrency,
+                             @Value("${gorest.dump.chunk-size:64MB}") DataSize chunkSize,
+                             @Value("${gorest.dump.batch-size:1000}") int batchSize) {
+
+        // a mapped buffer is indexed by int
+        if (chunkSize.toBytes() < 1 || chunkSize.toBytes() > Integer.MAX_VALUE / 2) {
+            throw new IllegalArgumentException("gorest.dump.chunk-size must be between 1B and 1GB, was " + chunkSize);
+        }
+
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("gorest.dump.batch-size must be at least 1, was " + batchSize);
+        }
+
+        this.upsertWriter = upsertWriter;
+        this.objectMapper = objectMapper;
+        this.directory = Path.of(directory);
+        // 0 means one thread per core
+        this.concurrency = concurrency > 0 ? concurrency : Runtime.getRuntime().availableProcessors();
+        this.chunkSize = chunkSize.toBytes();
+        this.batchSize = batchSize;
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    /**
+     * The dump file of the resource in the directory, preferring NDJSON. A 404 when there is none.
+     */
+    public Path dumpFile(String resource, Path directory) {
+
+        for (String extension : List.of(".ndjson", ".json")) {
+            Path file = directory.resolve(resource + extension);
+            if (Files.isRegularFile(file)) {
+                return file;
+            }
+        }
+
+        throw new ApiClientError(HttpStatus.NOT_FOUND, "No " + resource + ".ndjson or " + resource + ".json in " +
+                directory.toAbsolutePath() + ".");
+    }
+
+    public <T> ImportResult importDump(GoRestSyncService.Target<T> target, Path directory) throws InterruptedException {
+        return importDump(target, directory, ImportProgress.NONE);
+    }
+
+    /**
+     * Imports the resource's dump file. Progress hears about every chunk once all of its rows have been
+     * written, on the calling thread; the result's pages are the chunks.
+     */
+    public <T> ImportResult importDump(GoRestSyncService.Target<T> target, Path directory, ImportProgress progress)
+            throws InterruptedException {
+
+        long start = System.nanoTime();
+        Path file = dumpFile(target.resource(), directory);
+        LongAdder collisions = new LongAdder();
+
+        int chunks;
+        long rows;
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+
+            if (file.getFileName().toString().endsWith(".json")) {
+                chunks = 1;
+                rows = importArray(target, file, channel, collisions);
+                progress.pageWritten(1, 1, (int) rows);
+            } else {
+                List<long[]> boundaries = chunkBoundaries(channel);
+                chunks = boundaries.size();
+                rows = importChunks(target, file, channel, boundaries, collisions, progress);
+            }
+
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read " + file, e);
+        }
+
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        return new ImportResult(target.resource(), chunks, rows, collisions.sum(), elapsedMillis);
+    }
+
+    private <T> long importChunks(GoRestSyncService.Target<T> target, Path file, FileChannel channel, List<long[]> boundaries,
+                                  LongAdder collisions, ImportProgress progress) throws InterruptedException {
+
+        int threads = Math.max(1, Math.min(concurrency, boundaries.size()));
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CompletionService<Integer> reads = new ExecutorCompletionService<>(executor);
+
+        try {
+
+            for (long[] chunk : boundaries) {
+                reads.submit(() -> importChunk(target, file, channel, chunk[0], chunk[1], collisions));
+            }
+
+            long rows = 0;
+
+            for (int done = 1; done <= boundaries.size(); done++) {
+                int chunkRows = getRows(reads.take());
+                progress.pageWritten(done, boundaries.size(), chunkRows);
+                rows += chunkRows;
+            }
+
+            return rows;
+
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private <T> int importChunk(GoRestSyncService.Target<T> target, Path file, FileChannel channel, long start, long end,
+                                  LongAdder collisions) throws IOException {
+
+        MappedByteBuffer chunk = channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+        ObjectReader rowReader = objectMapper.readerFor(target.entity());
+        BatchBuffer<T> batch = new BatchBuffer<>(batchSize,
+                rows -> collisions.add(upsertWriter.upsert(target, rows).size()));
+
+        // lines are copied out of the mapping into one reusable array, Jackson parses from there
+        byte[] line = new byte[8 * 1024];
+        int lineStart = 0;
+        int rows = 0;
+        int limit = chunk.limit();
+
+        for (int i = 0; i <= limit; i++) {
+
+            if (i < limit && chunk.get(i) != '\n') {
+                continue;
+            }
+
+            int lineEnd = i;
+            while (lineEnd > lineStart && isWhitespace(chunk.get(lineEnd - 1))) {
+                lineEnd--;
+            }
+
+            int length = lineEnd - lineStart;
+
+            if (length > 0) {
+
+                if (length > line.length) {
+                    line = new byte[Math.max(length, line.length * 2)];
+                }
+                chunk.get(lineStart, line, 0, length);
+
+                try {
+                    batch.add(rowReader.readValue(line, 0, length));
+                } catch (JsonProcessingException e) {
+                    throw new IllegalArgumentException("The line at byte " + (start + lineStart) + " of " + file +
+                            " is not a " + target.resource() + " row: " + e.getOriginalMessage());
+                }
+                rows++;
+            }
+
+            lineStart = i + 1;
+        }
+
+        batch.flush();
+
+        return rows;
+    }
+
+    private <T> long importArray(GoRestSyncService.Target<T> target, Path file, FileChannel channel, LongAdder collisions)
+            throws IOException {
+
+        ObjectReader rowReader = objectMapper.readerFor(target.entity());
+        BatchBuffer<T> batch = new BatchBuffer<>(batchSize,
+                rows -> collisions.add(upsertWriter.upsert(target, rows).size()));
+        long rows = 0;
+
+        try (InputStream in = Channels.newInputStream(channel);
+             JsonParser parser = objectMapper.getFactory().createParser(in)) {
+
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new IllegalArgumentException(file + " does not hold a JSON array of " + target.resource());
+            }
+
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                batch.add(rowReader.readValue(parser));
+                rows++;
+            }
+        }
+
+        batch.flush();
+
+        return rows;
+    }
+
+    // [start, end) of every chunk, each one ending just after a newline or at the end of the file
+    private List<long[]> chunkBoundaries(FileChannel channel) throws IOException {
+
+        long size = channel.size();
+        List<long[]> boundaries = new ArrayList<>();
+        long start = 0;
+
+        while (start < size) {
+
+            long end = start + chunkSize >= size ? size : nextLineStart(channel, start + chunkSize, size);
+            boundaries.add(new long[]{start, end});
+            start = end;
+        }
+
+        return boundaries;
+    }
+
+    private static long nextLineStart(FileChannel channel, long position, long size) throws IOException {
+
+        while (position < size) {
+
+            int length = (int) Math.min(NEWLINE_SCAN, size - position);
+            MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+
+            for (int i = 0; i < length; i++) {
+                if (window.get(i) == '\n') {
+                    return position + i + 1;
+                }
+            }
+
+            position += length;
+        }
+
+        return size;
+    }
+
+    private static boolean isWhitespace(byte b) {
+        return b == '\r' || b == ' ' || b == '\t';
+    }
+
+    private static int getRows(Future<Integer> done) throws InterruptedException {
+
+        try {
+            return done.get();
+
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            if (e.getCause() instanceof IOException) {
+                throw new UncheckedIOException((IOException) e.getCause());
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+}
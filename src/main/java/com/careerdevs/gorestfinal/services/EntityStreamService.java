@@ -0,0 +1,84 @@
+package com.careerdevs.gorestfinal.services;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import jakarta.persistence.EntityManager;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Writes a repository cursor to the response as a JSON array, one element at a time.
+ *
+ * Every row is detached from the persistence context once it has been written, so the heap holds
+ * at most one fetch of rows no matter how large the table is. The rows are not put into the
+ * second-level cache either, where a full scan would push out the entries lookups by id keep hot.
+ */
+@Service
+@Profile("!reactive")
+public class EntityStreamService {
+
+    private static final int FLUSH_EVERY = 500;
+
+    private final ObjectMapper objectMapper;
+
+    private final EntityManager entityManager;
+
+    private final TransactionTemplate readOnlyTransaction;
+
+    public EntityStreamService(ObjectMapper objectMapper, EntityManager entityManager,
+                               PlatformTransactionManager transactionManager) {
+
+        this.objectMapper = objectMapper;
+        this.entityManager = entityManager;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    public <T> StreamingResponseBody streamAll(Supplier<Stream<T>> rows) {
+
+        // runs later on an MVC async thread, so the cursor needs its own transaction
+        return out -> readOnlyTransaction.executeWithoutResult(status -> {
+
+            // set on the session, a query hint only lasts until the cursor is opened
+            entityManager.unwrap(Session.class).setCacheMode(CacheMode.IGNORE);
+
+            try (Stream<T> stream = rows.get();
+                 JsonGenerator json = objectMapper.getFactory().createGenerator(out)) {
+
+                json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                json.writeStartArray();
+
+                Iterator<T> it = stream.iterator();
+                int written = 0;
+
+                while (it.hasNext()) {
+
+                    T row = it.next();
+                    json.writeObject(row);
+                    entityManager.detach(row);
+
+                    if (++written % FLUSH_EVERY == 0) {
+                        json.flush();
+                    }
+                }
+
+                json.writeEndArray();
+
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+}
@@ -0,0 +1,326 @@
+package com.careerdevs.gorestfinal.services;
+
+import com.careerdevs.gorestfinal.utils.Pagination;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.ResponseExtractor;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Pulls every page of a GoREST resource and hands its rows to a writer as they are parsed.
+ *
+ * Pages are read with a streaming Jackson parser straight off the response. Each row goes into a
+ * {@link BatchBuffer} of {@code gorest.import.batch-size} rows, which is written whenever it fills up and
+ * at the end of the page, so no page is ever built as a whole array. The first page is read by the
+ * calling thread, the pages after it by a fixed pool of {@code gorest.import.concurrency} threads, each
+ * with a buffer of its own that it reuses from page to page: an import holds at most one batch per
+ * download thread. With {@code spring.threads.virtual.enabled} on a Java 21 runtime the downloads run on
+ * virtual threads instead, still limited to {@code gorest.import.concurrency} requests at a time. When a
+ * page fails, the downloads still running are cancelled on either kind of thread, and a cancelled one
+ * writes no further batch.
+ *
+ * Requests go through the {@code goRestRestTemplate} of {@link com.careerdevs.gorestfinal.client.GoRestClientConfig},
+ * which times out, retries and rate-limits them.
+ */
+@Service
+@Profile("!reactive")
+public class GoRestImportService {
+
+    private final RestTemplate restTemplate;
+
+    private final ObjectMapper objectMapper;
+
+    private final String baseUrl;
+
+    private final int concurrency;
+
+    private final int batchSize;
+
+    private final boolean virtualThreads;
+
+    public GoRestImportService(RestTemplate goRestRestTemplate, ObjectMapper objectMapper,
+                               @Value("${gorest.base-url:https://gorest.co.in/public/v2}") String baseUrl,
+                               @Value("${gorest.import.concurrency:4}") int concurrency,
+                               @Value("${gorest.import.batch-size:100}") int batchSize,
+                               Environment environment) {
+
+        if (concurrency < 1) {
+            throw new IllegalArgumentException("gorest.import.concurrency must be at least 1, was " + concurrency);
+        }
+
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("gorest.import.batch-size must be at least 1, was " + batchSize);
+        }
+
+        this.restTemplate = goRestRestTemplate;
+        this.objectMapper = objectMapper;
+        this.baseUrl = baseUrl;
+        this.concurrency = concurrency;
+        this.batchSize = batchSize;
+        this.virtualThreads = Threading.VIRTUAL.isActive(environment);
+    }
+
+    public String getBaseUrl() {
+        return baseUrl;
+    }
+
+    // URI templates rather than concatenated URLs keep the uri tag of http.client.requests to one value per resource
+    public <T> T fetchOne(String resource, long id, Class<T> type) {
+        return restTemplate.getForObject(baseUrl + "/" + resource + "/{id}", type, id);
+    }
+
+    public <T> ImportResult importAll(String resource, Class<T> rowType, Consumer<List<T>> batchWriter)
+            throws InterruptedException {
+        return importAll(resource, rowType, 1, batchWriter, ImportProgress.NONE);
+    }
+
+    /**
+     * Imports the pages from {@code firstPage} on, which resumes an import that stopped part way through.
+     *
+     * The writer is called with batches of up to {@code gorest.import.batch-size} rows, from several
+     * threads at once. The list it gets is reused for the next batch once it returns, so it must not keep
+     * it. Progress hears about every page once all of its rows have been written, on the calling thread.
+     */
+    public <T> ImportResult importAll(String resource, Class<T> rowType, int firstPage, Consumer<List<T>> batchWriter,
+                                      ImportProgress progress) throws InterruptedException {
+
+        long start = System.nanoTime();
+        String url = baseUrl + "/" + resource;
+
+        BatchBuffer<T> buffer = new BatchBuffer<>(batchSize, batchWriter);
+        PageRead first = readPage(url, resource, rowType, firstPage, buffer::add);
+        buffer.flush();
+
+        int totalPgNum = Math.max(firstPage, first.totalPages());
+
+        progress.pageWritten(firstPage, totalPgNum, first.rows());
+        long rows = first.rows();
+
+        if (totalPgNum > firstPage) {
+            rows += importRemainingPages(url, resource, rowType, firstPage + 1, totalPgNum, batchWriter, progress);
+        }
+
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        return new ImportResult(resource, totalPgNum - firstPage + 1, rows, elapsedMillis);
+    }
+
+    /**
+     * Reads a resource one page at a time, in GoREST's own order (newest first), until the writer
+     * returns false for a page or the last page has been written. Used by the incremental sync, which
+     * knows from a page's content whether the next one is worth downloading, so nothing is fetched
+     * ahead of the writer.
+     */
+    public <T> ImportResult importUntil(String resource, Class<T> rowType, Predicate<List<T>> pageWriter,
+                                        ImportProgress progress) {
+
+        long start = System.nanoTime();
+        String url = baseUrl + "/" + resource;
+
+        int pageNum = 0;
+        int totalPgNum = 1;
+        long rows = 0;
+        boolean more = true;
+
+        while (more && pageNum < totalPgNum) {
+
+            pageNum++;
+
+            List<T> page = new ArrayList<>();
+            PageRead read = readPage(url, resource, rowType, pageNum, page::add);
+
+            totalPgNum = Math.max(pageNum, read.totalPages());
+
+            rows += page.size();
+            more = pageWriter.test(page);
+            progress.pageWritten(pageNum, totalPgNum, page.size());
+        }
+
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        return new ImportResult(resource, pageNum, rows, elapsedMillis);
+    }
+
+    private <T> long importRemainingPages(String url, String resource, Class<T> rowType, int firstRemaining, int totalPgNum,
+                                          Consumer<List<T>> batchWriter, ImportProgress progress) throws InterruptedException {
+
+        int threads = Math.min(concurrency, totalPgNum - firstRemaining + 1);
+        int window = threads * 2;
+
+        Executor executor = virtualThreads
+                ? new VirtualThreadTaskExecutor("gorest-import-")
+                : Executors.newFixedThreadPool(threads);
+        CompletionService<PageRead> downloads = new ExecutorCompletionService<>(executor);
+        Semaphore permits = new Semaphore(threads);
+
+        // one buffer per running download, handed from page to page
+        BlockingQueue<BatchBuffer<T>> buffers = new ArrayBlockingQueue<>(threads);
+        for (int i = 0; i < threads; i++) {
+            buffers.add(new BatchBuffer<>(batchSize, batchWriter));
+        }
+
+        long rows = 0;
+
+        // the downloads not yet taken, cancelled when the import fails so none of them goes on writing batches
+        Set<Future<PageRead>> inFlight = new HashSet<>();
+
+        try {
+
+            int nextPage = firstRemaining;
+
+            while (nextPage <= totalPgNum && inFlight.size() < window) {
+                inFlight.add(submitPage(downloads, permits, buffers, url, resource, rowType, nextPage++));
+            }
+
+            while (!inFlight.isEmpty()) {
+
+                Future<PageRead> done = downloads.take();
+                inFlight.remove(done);
+
+                PageRead page = getPage(done);
+
+                if (nextPage <= totalPgNum) {
+                    inFlight.add(submitPage(downloads, permits, buffers, url, resource, rowType, nextPage++));
+                }
+
+                progress.pageWritten(page.number(), totalPgNum, page.rows());
+                rows += page.rows();
+            }
+
+        } finally {
+            inFlight.forEach(download -> download.cancel(true));
+            if (executor instanceof ExecutorService) {
+                ((ExecutorService) executor).shutdownNow();
+            }
+        }
+
+        return rows;
+    }
+
+    private <T> Future<PageRead> submitPage(CompletionService<PageRead> downloads, Semaphore permits, BlockingQueue<BatchBuffer<T>> buffers,
+                                String url, String resource, Class<T> rowType, int pageNum) {
+
+        return downloads.submit(() -> {
+
+            // virtual threads are not pooled, so the limit has to be enforced per request
+            permits.acquire();
+            BatchBuffer<T> buffer = buffers.take();
+
+            try {
+                PageRead page = readPage(url, resource, rowType, pageNum, row -> {
+                    stopIfCancelled(resource, pageNum);
+                    buffer.add(row);
+                });
+                stopIfCancelled(resource, pageNum);
+                buffer.flush();
+                return page;
+
+            } finally {
+                // rows of a failed page are dropped, the import fails with it
+                buffer.clear();
+                buffers.add(buffer);
+                permits.release();
+            }
+        });
+    }
+
+    /**
+     * Streams one page into {@code sink} row by row while the response is being read, the page is never
+     * held as a whole.
+     */
+    private <T> PageRead readPage(String url, String resource, Class<T> rowType, int pageNum, Consumer<T> sink) {
+
+        ObjectReader rowReader = objectMapper.readerFor(rowType);
+
+        ResponseExtractor<PageRead> pageExtractor = response -> {
+
+            int rows = 0;
+
+            try (JsonParser parser = objectMapper.getFactory().createParser(response.getBody())) {
+
+                if (parser.nextToken() != JsonToken.START_ARRAY) {
+                    throw new HttpClientErrorException(HttpStatus.INTERNAL_SERVER_ERROR, "Failed to GET page " + pageNum + " of " + resource + " from GoREST");
+                }
+
+                while (parser.nextToken() == JsonToken.START_OBJECT) {
+                    sink.accept(rowReader.readValue(parser));
+                    rows++;
+                }
+            }
+
+            String totalPages = response.getHeaders().getFirst(Pagination.PAGES_HEADER);
+
+            return new PageRead(pageNum, totalPages == null ? pageNum : Integer.parseInt(totalPages), rows);
+        };
+
+        // page 1 is the plain resource URL, as GoREST links it
+        PageRead page = pageNum == 1
+                ? restTemplate.execute(url, HttpMethod.GET, this::acceptJson, pageExtractor)
+                : restTemplate.execute(url + "?page={page}", HttpMethod.GET, this::acceptJson, pageExtractor, pageNum);
+
+        if (page == null) {
+            throw new HttpClientErrorException(HttpStatus.INTERNAL_SERVER_ERROR, "Failed to GET page " + pageNum + " of " + resource + " from GoREST");
+        }
+
+        return page;
+    }
+
+    private void acceptJson(ClientHttpRequest request) {
+        request.getHeaders().setAccept(List.of(MediaType.APPLICATION_JSON));
+    }
+
+    // a cancelled download is interrupted, it must not write another batch after that
+    private static void stopIfCancelled(String resource, int pageNum) {
+        if (Thread.currentThread().isInterrupted()) {
+            throw new CancellationException("Download of page " + pageNum + " of " + resource + " cancelled");
+        }
+    }
+
+    private static PageRead getPage(Future<PageRead> done) throws InterruptedException {
+
+        try {
+            return done.get();
+
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private record PageRead(int number, int totalPages, int rows) {
+    }
+
+}
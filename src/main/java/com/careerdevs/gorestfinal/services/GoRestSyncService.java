@@ -0,0 +1,250 @@
+package com.careerdevs.gorestfinal.services;
+
+import com.careerdevs.gorestfinal.models.Comment;
+import com.careerdevs.gorestfinal.models.Post;
+import com.careerdevs.gorestfinal.models.ToDo;
+import com.careerdevs.gorestfinal.models.User;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+import java.util.stream.Collectors;
+
+/**
+ * Incremental sync from GoREST: only rows that are new or changed upstream are written, and paging stops
+ * once it reaches rows the previous sync already wrote.
+ *
+ * Every row a sync writes carries a 64-bit hash of its GoREST JSON in {@code sync_hash}. A page costs one
+ * SELECT of the stored hashes for its ids, and the rows whose hash differs or is missing are written with
+ * one batched {@code INSERT ... ON DUPLICATE KEY UPDATE} by the {@link GoRestUpsertWriter}. A row edited
+ * here keeps its edit until GoREST changes it, and a row deleted here comes back with the next sync that
+ * reads its page.
+ *
+ * GoREST lists newest first. {@code sync_state} keeps the highest id each completed sync saw. A page
+ * without a single change that reaches down to that id is where the last sync left off, and the pages
+ * after it are not downloaded. Edits to older rows are picked up by /uploadall, which still reads everything.
+ */
+@Service
+@Profile("!reactive")
+public class GoRestSyncService {
+
+    public static final Target<User> USERS = new Target<>("users", User.class, "user",
+            List.of("name", "email", "gender", "status"),
+            user -> new Object[]{user.getName(), user.getEmail(), user.getGender(), user.getStatus()},
+            User::getId, "email");
+
+    public static final Target<Post> POSTS = new Target<>("posts", Post.class, "post",
+            List.of("user_id", "title", "body"),
+            post -> new Object[]{post.getUser_id(), post.getTitle(), post.getBody()},
+            Post::getId, null);
+
+    public static final Target<Comment> COMMENTS = new Target<>("comments", Comment.class, "comment",
+            List.of("post_id", "name", "email", "body"),
+            comment -> new Object[]{comment.getPost_id(), comment.getName(), comment.getEmail(), comment.getBody()},
+            Comment::getId, null);
+
+    public static final Target<ToDo> TODOS = new Target<>("todos", ToDo.class, "to_do",
+            List.of("user_id", "title", "due_on", "status"),
+            toDo -> new Object[]{toDo.getUser_id(), toDo.getTitle(), utc(toDo.getDue_on()), toDo.getStatus()},
+            ToDo::getId, null);
+
+    // in foreign key order, the order a full load has to write them in
+    public static final List<Target<?>> TARGETS = List.of(USERS, POSTS, COMMENTS, TODOS);
+
+    private final GoRestImportService importService;
+
+    private final GoRestUpsertWriter upsertWriter;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    public GoRestSyncService(GoRestImportService importService, GoRestUpsertWriter upsertWriter, JdbcTemplate jdbcTemplate,
+                             NamedParameterJdbcTemplate namedParameterJdbcTemplate) {
+
+        this.importService = importService;
+        this.upsertWriter = upsertWriter;
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedParameterJdbcTemplate = namedParameterJdbcTemplate;
+    }
+
+    public <T> SyncResult sync(Target<T> target) {
+        return sync(target, ImportProgress.NONE);
+    }
+
+    public <T> SyncResult sync(Target<T> target, ImportProgress progress) {
+
+        long start = System.nanoTime();
+        long highWaterId = highWaterId(target.resource());
+        Counts counts = new Counts();
+
+        ImportResult read = importService.importUntil(target.resource(), target.entity(),
+                page -> writePage(target, page, highWaterId, counts), progress);
+
+        // only a sync that got this far moves the mark, a failed one is simply repeated
+        saveHighWaterId(target.resource(), Math.max(highWaterId, counts.maxId));
+
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        return new SyncResult(target.resource(), read.getPages(), counts.inserted, counts.updated, counts.unchanged,
+                counts.collisions, counts.stoppedEarly, elapsedMillis);
+    }
+
+    // false once the page shows the rest was written by an earlier sync
+    private <T> boolean writePage(Target<T> target, List<T> page, long highWaterId, Counts counts) {
+
+        if (page.isEmpty()) {
+            return false;
+        }
+
+        List<Long> ids = new ArrayList<>(page.size());
+        for (T row : page) {
+            ids.add(target.id().applyAsLong(row));
+        }
+
+        Map<Long, Long> stored = storedHashes(target, ids);
+
+        List<Object[]> upserts = new ArrayList<>();
+        List<Long> written = new ArrayList<>();
+        Set<Long> inserted = new HashSet<>();
+        long lowestId = Long.MAX_VALUE;
+
+        for (int i = 0; i < page.size(); i++) {
+
+            T row = page.get(i);
+            long id = ids.get(i);
+            long hash = upsertWriter.hash(row);
+
+            lowestId = Math.min(lowestId, id);
+            counts.maxId = Math.max(counts.maxId, id);
+
+            Long storedHash = stored.get(id);
+
+            if (!stored.containsKey(id)) {
+                counts.inserted++;
+                inserted.add(id);
+            } else if (storedHash == null || storedHash != hash) {
+                counts.updated++;
+            } else {
+                counts.unchanged++;
+                continue;
+            }
+
+            upserts.add(target.upsertArguments(row, hash));
+            written.add(id);
+        }
+
+        if (!upserts.isEmpty()) {
+            for (Long id : upsertWriter.write(target, upserts, written)) {
+                if (inserted.contains(id)) {
+                    counts.inserted--;
+                } else {
+                    counts.updated--;
+                }
+                counts.collisions++;
+            }
+        }
+
+        if (upserts.isEmpty() && highWaterId > 0 && lowestId <= highWaterId) {
+            counts.stoppedEarly = true;
+            return false;
+        }
+
+        return true;
+    }
+
+    private Map<Long, Long> storedHashes(Target<?> target, List<Long> ids) {
+
+        Map<Long, Long> stored = new HashMap<>();
+
+        namedParameterJdbcTemplate.query("select id, sync_hash from " + target.table() + " where id in (:ids)",
+                Map.of("ids", ids),
+                rs -> {
+                    stored.put(rs.getLong(1), rs.getObject(2, Long.class));
+                });
+
+        return stored;
+    }
+
+    private long highWaterId(String resource) {
+
+        List<Long> mark = jdbcTemplate.queryForList("select high_water_id from sync_state where resource = ?", Long.class, resource);
+
+        return mark.isEmpty() ? 0 : mark.get(0);
+    }
+
+    private void saveHighWaterId(String resource, long highWaterId) {
+
+        jdbcTemplate.update("insert into sync_state (resource, high_water_id, synced_at) values (?, ?, ?) " +
+                        "on duplicate key update high_water_id = values(high_water_id), synced_at = values(synced_at)",
+                resource, highWaterId, LocalDateTime.now(ZoneOffset.UTC));
+    }
+
+    // stored the way Hibernate stores it, see hibernate.timezone.default_storage
+    private static LocalDateTime utc(OffsetDateTime timestamp) {
+        return timestamp == null ? null : timestamp.withOffsetSameInstant(ZoneOffset.UTC).toLocalDateTime();
+    }
+
+    /**
+     * How one resource is synced: where GoREST serves it, the table and columns it is written to and the
+     * values of those columns for an upstream row. {@code uniqueColumn} is the one column besides the id
+     * with a unique key, null when there is none, see {@link GoRestUpsertWriter}.
+     */
+    public record Target<T>(String resource, Class<T> entity, String table, List<String> columns,
+                            Function<T, Object[]> values, ToLongFunction<T> id, String uniqueColumn) {
+
+        String upsertSql() {
+            return "insert into " + table + " (id, " + String.join(", ", columns) + ", sync_hash) values (?" +
+                    ", ?".repeat(columns.size() + 1) + ") on duplicate key update " +
+                    columns.stream().map(column -> column + " = values(" + column + ")").collect(Collectors.joining(", ")) +
+                    ", sync_hash = values(sync_hash)";
+        }
+
+        // where upsertArguments has the unique column's value
+        int uniqueArgument() {
+            return 1 + columns.indexOf(uniqueColumn);
+        }
+
+        Object[] upsertArguments(T row, long hash) {
+
+            Object[] columnValues = values.apply(row);
+            Object[] arguments = new Object[columnValues.length + 2];
+
+            arguments[0] = id.applyAsLong(row);
+            System.arraycopy(columnValues, 0, arguments, 1, columnValues.length);
+            arguments[arguments.length - 1] = hash;
+
+            return arguments;
+        }
+
+    }
+
+    private static final class Counts {
+
+        private long inserted;
+
+        private long updated;
+
+        private long unchanged;
+
+        private long collisions;
+
+        private long maxId;
+
+        private boolean stoppedEarly;
+
+    }
+
+}
@@ -0,0 +1,243 @@
+package com.careerdevs.gorestfinal.services;
+
+import com.careerdevs.gorestfinal.repositories.IdIndex;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.hibernate.SessionFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import jakarta.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Writes GoREST rows under their GoREST ids with one batched {@code INSERT ... ON DUPLICATE KEY UPDATE}
+ * per batch, in a transaction of its own. Used by the full import, which writes every row it reads, and
+ * by {@link GoRestSyncService}, which writes only the rows whose hash changed.
+ *
+ * Every row carries a 64-bit hash of its GoREST JSON in {@code sync_hash}, so a sync after an import
+ * finds the imported rows unchanged.
+ *
+ * {@code ON DUPLICATE KEY UPDATE} fires on any unique key, not just the id, so a row whose email is
+ * already stored under another id would update that other row instead. Before the batch, in the same
+ * transaction, the rows whose value of the target's unique column belongs to another id, stored or
+ * earlier in the batch, are left out. They are logged and returned as collisions, and only the ids
+ * that were written go into the {@link IdIndex}.
+ *
+ * The check is a plain SELECT, so it only holds while no other batch of the target is being written:
+ * the batches of a target with a unique column are written one at a time, from the check to the
+ * commit, which covers the parallel import downloads and dump chunks of this application. Another
+ * process writing the same table at the same time is not covered.
+ */
+@Service
+@Profile("!reactive")
+public class GoRestUpsertWriter {
+
+    private static final Logger log = LoggerFactory.getLogger(GoRestUpsertWriter.class);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final ObjectMapper objectMapper;
+
+    private final IdIndex idIndex;
+
+    private final CacheManager cacheManager;
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    // one per table with a unique column, held from the collision check to the commit
+    private final Map<String, Lock> uniqueKeyLocks = new ConcurrentHashMap<>();
+
+    public GoRestUpsertWriter(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                              ObjectMapper objectMapper, IdIndex idIndex, CacheManager cacheManager,
+                              EntityManagerFactory entityManagerFactory) {
+
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedParameterJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.objectMapper = objectMapper;
+        this.idIndex = idIndex;
+        this.cacheManager = cacheManager;
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    // the ids of the rows left out for a unique key collision
+    public <T> List<Long> upsert(GoRestSyncService.Target<T> target, List<T> rows) {
+
+        if (rows.isEmpty()) {
+            return List.of();
+        }
+
+        List<Object[]> upserts = new ArrayList<>(rows.size());
+        List<Long> ids = new ArrayList<>(rows.size());
+
+        for (T row : rows) {
+            upserts.add(target.upsertArguments(row, hash(row)));
+            ids.add(target.id().applyAsLong(row));
+        }
+
+        return write(target, upserts, ids);
+    }
+
+    // upsertArguments of the rows and their ids, in the same order
+    List<Long> write(GoRestSyncService.Target<?> target, List<Object[]> upserts, List<Long> ids) {
+
+        List<Object[]> kept = new ArrayList<>(upserts.size());
+        List<Long> written = new ArrayList<>(ids.size());
+        List<Long> collided = new ArrayList<>();
+
+        Lock lock = target.uniqueColumn() == null
+                ? null
+                : uniqueKeyLocks.computeIfAbsent(target.table(), table -> new ReentrantLock());
+
+        if (lock != null) {
+            lock.lock();
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+
+                if (target.uniqueColumn() == null) {
+                    kept.addAll(upserts);
+                    written.addAll(ids);
+                } else {
+                    Map<String, Long> owners = owners(target, upserts);
+                    int argument = target.uniqueArgument();
+
+                    for (int i = 0; i < upserts.size(); i++) {
+
+                        Object value = upserts.get(i)[argument];
+                        Long id = ids.get(i);
+
+                        if (value != null) {
+                            Long owner = owners.putIfAbsent(key(value), id);
+
+                            if (owner != null && !owner.equals(id)) {
+                                collided.add(id);
+                                continue;
+                            }
+                        }
+
+                        kept.add(upserts.get(i));
+                        written.add(id);
+                    }
+                }
+
+                if (!kept.isEmpty()) {
+                    jdbcTemplate.batchUpdate(target.upsertSql(), kept);
+                }
+            });
+        } finally {
+            if (lock != null) {
+                lock.unlock();
+            }
+        }
+
+        if (!collided.isEmpty()) {
+            log.warn("Skipped {} {} whose {} belongs to another id: {}", collided.size(), target.resource(),
+                    target.uniqueColumn(), collided);
+        }
+
+        afterUpsert(target, written);
+
+        return collided;
+    }
+
+    /**
+     * The ids that already hold the batch's values of the unique column. The database compares them
+     * with its collation, case-insensitively on MySQL, so the keys are lowercased and two rows of the
+     * batch that differ only in case count as a collision too.
+     */
+    private Map<String, Long> owners(GoRestSyncService.Target<?> target, List<Object[]> upserts) {
+
+        int argument = target.uniqueArgument();
+        Set<Object> values = new LinkedHashSet<>();
+
+        for (Object[] upsert : upserts) {
+            if (upsert[argument] != null) {
+                values.add(upsert[argument]);
+            }
+        }
+
+        Map<String, Long> owners = new HashMap<>();
+
+        if (!values.isEmpty()) {
+            namedParameterJdbcTemplate.query("select id, " + target.uniqueColumn() + " from " + target.table() +
+                            " where " + target.uniqueColumn() + " in (:values)", Map.of("values", values),
+                    rs -> {
+                        owners.put(key(rs.getObject(2)), rs.getLong(1));
+                    });
+        }
+
+        return owners;
+    }
+
+    private static String key(Object value) {
+        return value.toString().toLowerCase(Locale.ROOT);
+    }
+
+    // FNV-1a over the row as GoREST would serve it, so any field that changes upstream changes the hash
+    long hash(Object row) {
+
+        byte[] json;
+
+        try {
+            json = objectMapper.writeValueAsBytes(row);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize " + row, e);
+        }
+
+        long hash = 0xcbf29ce484222325L;
+
+        for (byte b : json) {
+            hash ^= b & 0xff;
+            hash *= 0x100000001b3L;
+        }
+
+        return hash;
+    }
+
+    /**
+     * The upserts bypass Hibernate, so nothing it caches knows about them: the ids go into the
+     * {@link IdIndex}, the written rows leave the resource's cache and the second-level cache, and the
+     * cached pages are dropped.
+     */
+    private void afterUpsert(GoRestSyncService.Target<?> target, List<Long> ids) {
+
+        idIndex.add(target.entity(), ids);
+
+        Cache cache = cacheManager.getCache(target.resource());
+        jakarta.persistence.Cache secondLevelCache = entityManagerFactory.getCache();
+
+        for (Long id : ids) {
+            if (cache != null) {
+                cache.evict(id);
+            }
+            secondLevelCache.evict(target.entity(), id);
+        }
+
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictQueryRegions();
+    }
+
+}
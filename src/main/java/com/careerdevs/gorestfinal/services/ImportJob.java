@@ -0,0 +1,193 @@
+package com.careerdevs.gorestfinal.services;
+
+import java.time.Instant;
+import java.util.concurrent.Future;
+
+/**
+ * One background import or sync of a resource, as /api/jobs reports it. The job's thread writes the
+ * progress, request threads read it, every access goes through the job's monitor.
+ */
+public class ImportJob {
+
+    public enum Type {
+        // every page, like /uploadall used to do in the request, resumable from its checkpoint
+        IMPORT,
+        // only new and changed rows, see GoRestSyncService
+        SYNC,
+        // every row of the resource's file in the dump directory, see DumpImportService
+        DUMP
+    }
+
+    public enum State {
+        QUEUED, RUNNING, SUCCEEDED, FAILED, CANCELLED
+    }
+
+    private final long id;
+
+    private final String resource;
+
+    private final Type type;
+
+    private State state = State.QUEUED;
+
+    private int firstPage = 1;
+
+    private int pagesDone;
+
+    private int totalPages;
+
+    private long rows;
+
+    private long collisions;
+
+    private Instant startedAt;
+
+    private long startNanos;
+
+    private Instant finishedAt;
+
+    private long elapsedNanos;
+
+    private String error;
+
+    private Future<?> future;
+
+    public ImportJob(long id, String resource, Type type) {
+        this.id = id;
+        this.resource = resource;
+        this.type = type;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public String getResource() {
+        return resource;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    // above 1 when an import picked up from the checkpoint an earlier one left
+    public synchronized int getFirstPage() {
+        return firstPage;
+    }
+
+    public synchronized int getPagesDone() {
+        return pagesDone;
+    }
+
+    public synchronized int getTotalPages() {
+        return totalPages;
+    }
+
+    public synchronized long getRows() {
+        return rows;
+    }
+
+    // rows not written because their email is already stored under another id, see GoRestUpsertWriter
+    public synchronized long getCollisions() {
+        return collisions;
+    }
+
+    public synchronized Instant getStartedAt() {
+        return startedAt;
+    }
+
+    public synchronized Instant getFinishedAt() {
+        return finishedAt;
+    }
+
+    public synchronized String getError() {
+        return error;
+    }
+
+    public synchronized double getRowsPerSecond() {
+        long nanos = elapsedNanos();
+        return nanos == 0 ? 0 : rows * 1e9 / nanos;
+    }
+
+    /**
+     * Seconds until the last page at the pace so far, null before the first page and once the job has
+     * finished. A sync usually stops long before the last page, for it this is an upper bound.
+     */
+    public synchronized Long getEtaSeconds() {
+
+        int pagesLeft = totalPages - (firstPage - 1) - pagesDone;
+
+        if (state != State.RUNNING || pagesDone == 0 || pagesLeft <= 0) {
+            return null;
+        }
+
+        return Math.round(elapsedNanos() / 1e9 / pagesDone * pagesLeft);
+    }
+
+    // false when the job was cancelled before its thread got to it
+    synchronized boolean started(int firstPage) {
+
+        if (state != State.QUEUED) {
+            return false;
+        }
+
+        this.state = State.RUNNING;
+        this.firstPage = firstPage;
+        this.startedAt = Instant.now();
+        this.startNanos = System.nanoTime();
+        return true;
+    }
+
+    synchronized void pageWritten(int totalPages, int rows) {
+        this.pagesDone++;
+        this.totalPages = totalPages;
+        this.rows += rows;
+    }
+
+    synchronized void collided(long rows) {
+        this.collisions += rows;
+    }
+
+    synchronized void finished(State state, String error) {
+        this.state = state;
+        this.error = error;
+        this.finishedAt = Instant.now();
+        this.elapsedNanos = startNanos == 0 ? 0 : System.nanoTime() - startNanos;
+    }
+
+    synchronized boolean isDone() {
+        return state != State.QUEUED && state != State.RUNNING;
+    }
+
+    synchronized void setFuture(Future<?> future) {
+        this.future = future;
+    }
+
+    // a queued job never starts, a running one is interrupted between pages and keeps its checkpoint
+    synchronized boolean cancel() {
+
+        if (isDone() || future == null) {
+            return false;
+        }
+
+        future.cancel(true);
+
+        if (state == State.QUEUED) {
+            finished(State.CANCELLED, null);
+        }
+
+        return true;
+    }
+
+    private long elapsedNanos() {
+        if (startNanos == 0) {
+            return 0;
+        }
+        return finishedAt == null ? System.nanoTime() - startNanos : elapsedNanos;
+    }
+
+}
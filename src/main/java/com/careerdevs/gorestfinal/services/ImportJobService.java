@@ -0,0 +1,285 @@
+package com.careerdevs.gorestfinal.services;
+
+import com.careerdevs.gorestfinal.utils.ApiClientError;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.scheduling.support.CronTrigger;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Runs /uploadall imports and incremental syncs in the background and keeps their progress for /api/jobs.
+ *
+ * Jobs run on a pool of {@code gorest.jobs.concurrency} threads and a resource has at most one job at a
+ * time, a second one is refused with a 409 while the first is queued or running. An import records the
+ * page it has written up to in {@code import_checkpoint}, so an import that failed, was cancelled or died
+ * with the application carries on from that page instead of page 1. A {@code gorest.jobs.cron.<resource>}
+ * expression schedules a sync of the resource, one that comes due while a job is running is skipped.
+ * A dump job loads the resource from the dump directory instead of GoREST, its pages are file chunks.
+ */
+@Service
+@Profile("!reactive")
+public class ImportJobService implements DisposableBean {
+
+    // finished jobs kept for /api/jobs, the oldest are dropped first
+    private static final int RETAINED_JOBS = 50;
+
+    private final Map<String, GoRestSyncService.Target<?>> resources;
+
+    private final GoRestImportService importService;
+
+    private final GoRestSyncService syncService;
+
+    private final GoRestUpsertWriter upsertWriter;
+
+    private final DumpImportService dumpImportService;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final ThreadPoolTaskExecutor executor;
+
+    private final ThreadPoolTaskScheduler scheduler;
+
+    private final Map<String, ImportJob> active = new ConcurrentHashMap<>();
+
+    private final NavigableMap<Long, ImportJob> jobs = new ConcurrentSkipListMap<>();
+
+    private final AtomicLong ids = new AtomicLong();
+
+    public ImportJobService(GoRestImportService importService, GoRestSyncService syncService,
+                            GoRestUpsertWriter upsertWriter, DumpImportService dumpImportService, JdbcTemplate jdbcTemplate,
+                            @Value("${gorest.jobs.concurrency:2}") int concurrency,
+                            Environment environment) {
+
+        if (concurrency < 1) {
+            throw new IllegalArgumentException("gorest.jobs.concurrency must be at least 1, was " + concurrency);
+        }
+
+        this.importService = importService;
+        this.syncService = syncService;
+        this.upsertWriter = upsertWriter;
+        this.dumpImportService = dumpImportService;
+        this.jdbcTemplate = jdbcTemplate;
+
+        this.resources = GoRestSyncService.TARGETS.stream()
+                .collect(Collectors.toUnmodifiableMap(GoRestSyncService.Target::resource, target -> target));
+
+        // one job per resource, so the queue never holds more than there are resources
+        this.executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(concurrency);
+        executor.setMaxPoolSize(concurrency);
+        executor.setQueueCapacity(resources.size());
+        executor.setThreadNamePrefix("gorest-job-");
+        executor.initialize();
+
+        this.scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setThreadNamePrefix("gorest-job-cron-");
+        scheduler.initialize();
+
+        for (String resource : resources.keySet()) {
+
+            String cron = environment.getProperty("gorest.jobs.cron." + resource, "-");
+
+            if (!"-".equals(cron)) {
+                scheduler.schedule(() -> startScheduled(resource), new CronTrigger(cron));
+            }
+        }
+    }
+
+    /**
+     * Queues a job for the resource and returns it straight away, its progress is read from the job.
+     */
+    public ImportJob start(String resource, ImportJob.Type type) {
+
+        GoRestSyncService.Target<?> target = resources.get(resource);
+
+        if (target == null) {
+            throw new ApiClientError(HttpStatus.NOT_FOUND, "No resource named " + resource + ".");
+        }
+
+        if (type == ImportJob.Type.DUMP) {
+            // a 404 now rather than a failed job later
+            dumpImportService.dumpFile(resource, dumpImportService.getDirectory());
+        }
+
+        ImportJob job = new ImportJob(ids.incrementAndGet(), resource, type);
+        ImportJob running = active.putIfAbsent(resource, job);
+
+        if (running != null) {
+            throw new ApiClientError(HttpStatus.CONFLICT, "Job " + running.getId() + " is already " +
+                    running.getState().name().toLowerCase() + " for " + resource + ".");
+        }
+
+        try {
+            job.setFuture(executor.submit(() -> run(job, target)));
+        } catch (TaskRejectedException e) {
+            // never queued, so nothing would ever let go of the resource
+            active.remove(resource, job);
+            throw e;
+        }
+
+        jobs.put(job.getId(), job);
+        retainRecentJobs();
+
+        return job;
+    }
+
+    public Optional<ImportJob> get(long id) {
+        return Optional.ofNullable(jobs.get(id));
+    }
+
+    // newest first
+    public List<ImportJob> list() {
+        return List.copyOf(jobs.descendingMap().values());
+    }
+
+    /**
+     * Cancels a queued or running job. An import stops after the page it is writing and its checkpoint
+     * stays, so the next import of the resource resumes from there.
+     */
+    public Optional<ImportJob> cancel(long id) {
+
+        Optional<ImportJob> job = get(id);
+
+        job.ifPresent(found -> {
+            found.cancel();
+            // a job cancelled while queued never runs, so it cannot let go of its resource or its queue slot itself
+            if (found.isDone()) {
+                active.remove(found.getResource(), found);
+                executor.getThreadPoolExecutor().purge();
+            }
+        });
+
+        return job;
+    }
+
+    @Override
+    public void destroy() {
+        scheduler.shutdown();
+        executor.shutdown();
+    }
+
+    private void startScheduled(String resource) {
+
+        try {
+            start(resource, ImportJob.Type.SYNC);
+        } catch (ApiClientError e) {
+            // the resource is busy, the next run catches up
+        }
+    }
+
+    private <T> void run(ImportJob job, GoRestSyncService.Target<T> target) {
+
+        try {
+
+            boolean isImport = job.getType() == ImportJob.Type.IMPORT;
+            int firstPage = isImport ? checkpoint(job.getResource()) : 1;
+
+            if (!job.started(firstPage)) {
+                return;
+            }
+
+            switch (job.getType()) {
+                case IMPORT -> runImport(job, target, firstPage);
+                case SYNC -> job.collided(syncService.sync(target,
+                        (page, totalPages, rows) -> pageWritten(job, totalPages, rows)).getCollisions());
+                case DUMP -> job.collided(dumpImportService.importDump(target, dumpImportService.getDirectory(),
+                        (chunk, chunks, rows) -> pageWritten(job, chunks, rows)).getCollisions());
+            }
+
+            job.finished(ImportJob.State.SUCCEEDED, null);
+
+        } catch (InterruptedException | CancellationException e) {
+            job.finished(ImportJob.State.CANCELLED, null);
+
+        } catch (RuntimeException e) {
+            job.finished(ImportJob.State.FAILED, e.getMessage());
+
+        } finally {
+            active.remove(job.getResource(), job);
+        }
+    }
+
+    private <T> void runImport(ImportJob job, GoRestSyncService.Target<T> target, int firstPage) throws InterruptedException {
+
+        String name = job.getResource();
+
+        // pages are written out of order, the checkpoint only moves past pages with none missing before them
+        BitSet written = new BitSet();
+
+        // every batch is one JDBC batch of upserts, see GoRestUpsertWriter
+        importService.importAll(name, target.entity(), firstPage, rows -> job.collided(upsertWriter.upsert(target, rows).size()),
+                (page, totalPages, rows) -> {
+
+                    int nextPage = firstPage + written.nextClearBit(0);
+                    written.set(page - firstPage);
+                    int reached = firstPage + written.nextClearBit(0);
+
+                    if (reached > nextPage) {
+                        saveCheckpoint(name, reached, totalPages);
+                    }
+
+                    pageWritten(job, totalPages, rows);
+                });
+
+        jdbcTemplate.update("delete from import_checkpoint where resource = ?", name);
+    }
+
+    private void pageWritten(ImportJob job, int totalPages, int rows) {
+
+        job.pageWritten(totalPages, rows);
+
+        // the writes themselves do not look at the interrupt, so cancelling takes effect between pages
+        if (Thread.currentThread().isInterrupted()) {
+            throw new CancellationException();
+        }
+    }
+
+    private int checkpoint(String resource) {
+
+        List<Integer> nextPage = jdbcTemplate.queryForList("select next_page from import_checkpoint where resource = ?",
+                Integer.class, resource);
+
+        return nextPage.isEmpty() ? 1 : nextPage.get(0);
+    }
+
+    private void saveCheckpoint(String resource, int nextPage, int totalPages) {
+
+        jdbcTemplate.update("insert into import_checkpoint (resource, next_page, total_pages, updated_at) values (?, ?, ?, ?) " +
+                        "on duplicate key update next_page = values(next_page), total_pages = values(total_pages), " +
+                        "updated_at = values(updated_at)",
+                resource, nextPage, totalPages, LocalDateTime.now(ZoneOffset.UTC));
+    }
+
+    private void retainRecentJobs() {
+
+        for (ImportJob job : jobs.values()) {
+            if (jobs.size() <= RETAINED_JOBS) {
+                return;
+            }
+            if (job.isDone()) {
+                jobs.remove(job.getId());
+            }
+        }
+    }
+
+}
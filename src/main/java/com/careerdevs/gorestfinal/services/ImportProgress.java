@@ -0,0 +1,14 @@
+package com.careerdevs.gorestfinal.services;
+
+/**
+ * Told about every page an import or sync has written, on the thread that called it, once all of the
+ * page's rows have gone through the batch writer.
+ */
+@FunctionalInterface
+public interface ImportProgress {
+
+    ImportProgress NONE = (page, totalPages, rows) -> { };
+
+    void pageWritten(int page, int totalPages, int rows);
+
+}
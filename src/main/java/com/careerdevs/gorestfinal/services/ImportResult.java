@@ -0,0 +1,64 @@
+package com.careerdevs.gorestfinal.services;
+
+public class ImportResult {
+
+    private final String resource;
+
+    private final int pages;
+
+    private final long rows;
+
+    private final long collisions;
+
+    private final long elapsedMillis;
+
+    public ImportResult(String resource, int pages, long rows, long elapsedMillis) {
+        this(resource, pages, rows, 0, elapsedMillis);
+    }
+
+    public ImportResult(String resource, int pages, long rows, long collisions, long elapsedMillis) {
+        this.resource = resource;
+        this.pages = pages;
+        this.rows = rows;
+        this.collisions = collisions;
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    public String getResource() {
+        return resource;
+    }
+
+    public int getPages() {
+        return pages;
+    }
+
+    public long getRows() {
+        return rows;
+    }
+
+    // rows not written because their email is already stored under another id, see GoRestUpsertWriter
+    public long getCollisions() {
+        return collisions;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    public double getPagesPerSecond() {
+        return elapsedMillis == 0 ? pages : pages * 1000.0 / elapsedMillis;
+    }
+
+    @Override
+    public String toString() {
+        return "ImportResult{" +
+                "resource='" + resource + '\'' +
+                ", pages=" + pages +
+                ", rows=" + rows +
+                ", collisions=" + collisions +
+                ", elapsedMillis=" + elapsedMillis +
+                ", pagesPerSecond=" + getPagesPerSecond() +
+                '}';
+    }
+
+}
@@ -0,0 +1,81 @@
+package com.careerdevs.gorestfinal.services;
+
+public class SyncResult {
+
+    private final String resource;
+
+    private final int pages;
+
+    private final long inserted;
+
+    private final long updated;
+
+    private final long unchanged;
+
+    private final long collisions;
+
+    private final boolean stoppedEarly;
+
+    private final long elapsedMillis;
+
+    public SyncResult(String resource, int pages, long inserted, long updated, long unchanged, long collisions,
+                      boolean stoppedEarly, long elapsedMillis) {
+        this.resource = resource;
+        this.pages = pages;
+        this.inserted = inserted;
+        this.updated = updated;
+        this.unchanged = unchanged;
+        this.collisions = collisions;
+        this.stoppedEarly = stoppedEarly;
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    public String getResource() {
+        return resource;
+    }
+
+    public int getPages() {
+        return pages;
+    }
+
+    public long getInserted() {
+        return inserted;
+    }
+
+    public long getUpdated() {
+        return updated;
+    }
+
+    public long getUnchanged() {
+        return unchanged;
+    }
+
+    // rows not written because their email is already stored under another id
+    public long getCollisions() {
+        return collisions;
+    }
+
+    // true when the sync reached rows the previous one had already written and skipped the remaining pages
+    public boolean isStoppedEarly() {
+        return stoppedEarly;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    @Override
+    public String toString() {
+        return "SyncResult{" +
+                "resource='" + resource + '\'' +
+                ", pages=" + pages +
+                ", inserted=" + inserted +
+                ", updated=" + updated +
+                ", unchanged=" + unchanged +
+                ", collisions=" + collisions +
+                ", stoppedEarly=" + stoppedEarly +
+                ", elapsedMillis=" + elapsedMillis +
+                '}';
+    }
+
+}
@@ -0,0 +1,80 @@
+package com.careerdevs.gorestfinal.services.reactive;
+
+import com.careerdevs.gorestfinal.repositories.reactive.ReactiveCommentRepository;
+import com.careerdevs.gorestfinal.repositories.reactive.ReactivePostRepository;
+import com.careerdevs.gorestfinal.repositories.reactive.ReactiveToDoRepository;
+import com.careerdevs.gorestfinal.repositories.reactive.ReactiveUserRepository;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.ReactiveTransactionManager;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Mono;
+
+/**
+ * The reactive form of {@link com.careerdevs.gorestfinal.services.CascadeDeleteService}: a user or post
+ * goes together with the rows that reference it, one statement per table in one R2DBC transaction, and
+ * /deleteall empties the child tables before the parent one.
+ */
+@Service
+@Profile("reactive")
+public class ReactiveCascadeDeleteService {
+
+    private final ReactiveUserRepository userRepository;
+
+    private final ReactivePostRepository postRepository;
+
+    private final ReactiveCommentRepository commentRepository;
+
+    private final ReactiveToDoRepository toDoRepository;
+
+    private final TransactionalOperator transactionalOperator;
+
+    public ReactiveCascadeDeleteService(ReactiveUserRepository userRepository, ReactivePostRepository postRepository,
+                                        ReactiveCommentRepository commentRepository, ReactiveToDoRepository toDoRepository,
+                                        ReactiveTransactionManager transactionManager) {
+
+        this.userRepository = userRepository;
+        this.postRepository = postRepository;
+        this.commentRepository = commentRepository;
+        this.toDoRepository = toDoRepository;
+        this.transactionalOperator = TransactionalOperator.create(transactionManager);
+    }
+
+    // false when there is no user with that id, then nothing else is touched
+    public Mono<Boolean> deleteUser(long id) {
+
+        return userRepository.deleteRowById(id)
+                .flatMap(deleted -> deleted == 0
+                        ? Mono.just(false)
+                        : commentRepository.deleteByPostUserId(id)
+                                .then(postRepository.deleteByUserId(id))
+                                .then(toDoRepository.deleteByUserId(id))
+                                .thenReturn(true))
+                .as(transactionalOperator::transactional);
+    }
+
+    public Mono<Boolean> deletePost(long id) {
+
+        return postRepository.deleteRowById(id)
+                .flatMap(deleted -> deleted == 0
+                        ? Mono.just(false)
+                        : commentRepository.deleteByPostId(id).thenReturn(true))
+                .as(transactionalOperator::transactional);
+    }
+
+    // every post, comment and todo belongs to some user, so none of them outlive all the users
+    public Mono<Long> deleteAllUsers() {
+
+        return commentRepository.deleteAllInChunks()
+                .then(postRepository.deleteAllInChunks())
+                .then(toDoRepository.deleteAllInChunks())
+                .then(userRepository.deleteAllInChunks());
+    }
+
+    public Mono<Long> deleteAllPosts() {
+
+        return commentRepository.deleteAllInChunks()
+                .then(postRepository.deleteAllInChunks());
+    }
+
+}
@@ -0,0 +1,68 @@
+package com.careerdevs.gorestfinal.services.reactive;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.mapping.PersistentPropertyAccessor;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.data.relational.core.mapping.RelationalPersistentEntity;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+/**
+ * Inserts new rows for the reactive controllers with ids taken from the sequences Hibernate created
+ * for the models (user_seq, post_seq, ...), so both stacks can write to the same tables.
+ *
+ * Hibernate's pooled optimizer treats every value it fetches as the top of a block of 50 ids and
+ * only ever hands out ids from the blocks it fetched itself. A value fetched here belongs to no such
+ * block, so it is used as the id directly. That costs one sequence call per insert, which is fine
+ * for single row POSTs.
+ */
+@Service
+@Profile("reactive")
+public class ReactiveInsertService {
+
+    private final R2dbcEntityTemplate template;
+
+    private final DatabaseClient databaseClient;
+
+    public ReactiveInsertService(R2dbcEntityTemplate template) {
+        this.template = template;
+        this.databaseClient = template.getDatabaseClient();
+    }
+
+    public <T> Mono<T> insert(T entity, String sequence) {
+
+        return nextId(sequence).flatMap(id -> {
+
+            @SuppressWarnings("unchecked")
+            RelationalPersistentEntity<T> mapping = (RelationalPersistentEntity<T>)
+                    template.getConverter().getMappingContext().getRequiredPersistentEntity(entity.getClass());
+
+            // any id sent by the client is replaced, like the JPA POST does
+            PersistentPropertyAccessor<T> accessor = mapping.getPropertyAccessor(entity);
+            accessor.setProperty(mapping.getRequiredIdProperty(), id);
+
+            return template.insert(accessor.getBean());
+        });
+    }
+
+    private Mono<Long> nextId(String sequence) {
+
+        String database = databaseClient.getConnectionFactory().getMetadata().getName();
+
+        // MySQL has no sequences, Hibernate emulates each one with a one row table (next_val)
+        if (database.contains("MySQL") || database.contains("MariaDB")) {
+            return databaseClient.inConnection(connection -> Mono.from(connection
+                            .createStatement("update " + sequence + " set next_val = last_insert_id(next_val + 50)")
+                            .execute())
+                    .flatMap(result -> Mono.from(result.getRowsUpdated()))
+                    .then(Mono.from(connection.createStatement("select last_insert_id() - 50").execute()))
+                    .flatMap(result -> Mono.from(result.map((row, metadata) -> row.get(0, Long.class)))));
+        }
+
+        return databaseClient.sql("select next value for " + sequence)
+                .map((row, metadata) -> row.get(0, Long.class))
+                .one();
+    }
+
+}
@@ -0,0 +1,35 @@
+package com.careerdevs.gorestfinal.utils;
+
+import com.fasterxml.jackson.databind.JsonSerializable;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.web.client.HttpClientErrorException;
+
+/**
+ * A 4xx the API answers on purpose (a bad id, a failed validation, an oversized bulk body). It carries no
+ * stack trace, so junk requests cost no more than the response they get. Handled like any other
+ * {@link HttpClientErrorException}, see {@link ApiErrorHandling#customApiError(HttpClientErrorException)};
+ * {@code errors}, when present, becomes the {@code errors} member of the {@link ApiProblem}.
+ */
+public class ApiClientError extends HttpClientErrorException {
+
+    private final transient JsonSerializable errors;
+
+    public ApiClientError(HttpStatusCode status, String message) {
+        this(status, message, null);
+    }
+
+    public ApiClientError(HttpStatusCode status, String message, JsonSerializable errors) {
+        super(status, message);
+        this.errors = errors;
+    }
+
+    public JsonSerializable getErrors() {
+        return errors;
+    }
+
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return this;
+    }
+
+}
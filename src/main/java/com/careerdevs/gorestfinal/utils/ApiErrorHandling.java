@@ -1,31 +1,120 @@
 package com.careerdevs.gorestfinal.utils;
 
+import com.careerdevs.gorestfinal.models.User;
+import com.careerdevs.gorestfinal.validation.ValidationError;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.JsonSerializable;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Metrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.client.HttpClientErrorException;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class ApiErrorHandling {
 
+    public static final long INVALID_ID = -1;
+
+    // every 500 counted per exception type, e.g. gorest_errors_total{exception="IllegalStateException"}
+    public static final String ERRORS_METRIC = "gorest.errors";
+
+    private static final Logger log = LoggerFactory.getLogger(ApiErrorHandling.class);
+
+    private static final Map<Class<?>, Counter> ERRORS = new ConcurrentHashMap<>();
+
+    private static final SerializedString VALIDATION_FAILED = new SerializedString("Validation failed.");
+
+    private static final SerializedString EMAIL = new SerializedString("email");
+    private static final SerializedString EMAIL_TAKEN = new SerializedString("Email has already been taken.");
+
     public static ResponseEntity<?> genericApiError (Exception e) {
 
-        System.out.println(e.getMessage());
-        System.out.println(e.getClass());
-        return new ResponseEntity<>(e.getMessage(), HttpStatus.INTERNAL_SERVER_ERROR);
+        log.error("Request failed: {}", e.getMessage(), e);
+        ERRORS.computeIfAbsent(e.getClass(), type -> Metrics.counter(ERRORS_METRIC, "exception", type.getSimpleName()))
+                .increment();
+
+        return new ApiProblem(HttpStatus.INTERNAL_SERVER_ERROR, e.getMessage()).toResponseEntity();
     }
 
-    public static ResponseEntity<?> customApiError (String message, HttpStatus status) {
-        return new ResponseEntity<>(message, status);
+    public static ResponseEntity<?> customApiError (String message, HttpStatusCode status) {
+        return new ApiProblem(status, message).toResponseEntity();
+    }
+
+    // our own ApiClientErrors carry the message as their status text, errors from GoREST are passed on whole
+    public static ResponseEntity<?> customApiError (HttpClientErrorException e) {
+
+        if (e instanceof ApiClientError apiError) {
+            return new ApiProblem(e.getStatusCode(), new SerializedString(e.getStatusText()), apiError.getErrors()).toResponseEntity();
+        }
+
+        return customApiError(e.getMessage(), e.getStatusCode());
+    }
+
+    public static ResponseEntity<?> validationApiError (JsonSerializable errors) {
+        return new ApiProblem(HttpStatus.BAD_REQUEST, VALIDATION_FAILED, errors).toResponseEntity();
+    }
+
+    // a valid request can only break the unique email index, any other constraint is still a 500
+    public static ResponseEntity<?> conflictApiError (DataIntegrityViolationException e) {
+
+        String cause = String.valueOf(e.getMostSpecificCause().getMessage());
+
+        if (!cause.toLowerCase().contains(User.UNIQUE_EMAIL)) {
+            return genericApiError(e);
+        }
+
+        ValidationError errors = new ValidationError();
+        errors.addError(EMAIL, EMAIL_TAKEN);
+        return new ApiProblem(HttpStatus.CONFLICT, EMAIL_TAKEN, errors).toResponseEntity();
+    }
+
+    // the two catch blocks every servlet handler ends with, as an onErrorResume for the reactive controllers
+    public static Mono<ResponseEntity<?>> reactiveApiError (Throwable e) {
+
+        if (e instanceof HttpClientErrorException clientError) {
+            return Mono.just(customApiError(clientError));
+        }
+
+        if (e instanceof DataIntegrityViolationException conflict) {
+            return Mono.just(conflictApiError(conflict));
+        }
+
+        return Mono.just(genericApiError(e instanceof Exception exception ? exception : new RuntimeException(e)));
     }
 
     public static boolean isStrNaN (String strNum) {
-        if (strNum == null) {
-            return true;
+        return parseId(strNum) == INVALID_ID;
+    }
+
+    // unsigned decimal that fits in a long, anything else is INVALID_ID rather than a NumberFormatException
+    public static long parseId (String strNum) {
+
+        if (strNum == null || strNum.isEmpty() || strNum.length() > 19) {
+            return INVALID_ID;
         }
-        try {
-            Integer.parseInt(strNum);
-        } catch (NumberFormatException e) {
-            return true;
+
+        long id = 0;
+
+        for (int i = 0; i < strNum.length(); i++) {
+
+            int digit = strNum.charAt(i) - '0';
+
+            if (digit < 0 || digit > 9) {
+                return INVALID_ID;
+            }
+
+            id = id * 10 + digit;
         }
-        return false;
+
+        // 19 digits stay below 2^64, so a value past Long.MAX_VALUE can only have wrapped to a negative one
+        return id < 0 ? INVALID_ID : id;
     }
 
 }
@@ -0,0 +1,109 @@
+package com.careerdevs.gorestfinal.utils;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.JsonSerializable;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.jsontype.TypeSerializer;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Every error body of the API, an RFC 9457 problem document:
+ * <pre>{"type":"about:blank","title":"Bad Request","status":400,"detail":"...","errors":{...}}</pre>
+ * {@code detail} and {@code errors} are left out when there are none. The body is written field by field
+ * straight to the response by the Jackson message converter, and the member names, titles and constant
+ * messages are {@link SerializedString}s, which encode their UTF-8 bytes once and reuse them.
+ */
+public class ApiProblem extends JsonSerializable.Base {
+
+    private static final SerializedString TYPE = new SerializedString("type");
+
+    private static final SerializedString ABOUT_BLANK = new SerializedString("about:blank");
+
+    private static final SerializedString TITLE = new SerializedString("title");
+
+    private static final SerializedString STATUS = new SerializedString("status");
+
+    private static final SerializedString DETAIL = new SerializedString("detail");
+
+    private static final SerializedString ERRORS = new SerializedString("errors");
+
+    private static final Map<Integer, SerializedString> TITLES = new ConcurrentHashMap<>();
+
+    private final HttpStatusCode status;
+
+    private final SerializableString detail;
+
+    private final JsonSerializable errors;
+
+    public ApiProblem(HttpStatusCode status, SerializableString detail, JsonSerializable errors) {
+        this.status = status;
+        this.detail = detail;
+        this.errors = errors;
+    }
+
+    public ApiProblem(HttpStatusCode status, String detail) {
+        this(status, detail == null ? null : new SerializedString(detail), null);
+    }
+
+    public HttpStatusCode getStatus() {
+        return status;
+    }
+
+    public String getDetail() {
+        return detail == null ? null : detail.getValue();
+    }
+
+    public ResponseEntity<ApiProblem> toResponseEntity() {
+        return ResponseEntity.status(status).contentType(MediaType.APPLICATION_PROBLEM_JSON).body(this);
+    }
+
+    @Override
+    public void serialize(JsonGenerator gen, SerializerProvider serializers) throws IOException {
+
+        gen.writeStartObject();
+
+        gen.writeFieldName(TYPE);
+        gen.writeString(ABOUT_BLANK);
+
+        gen.writeFieldName(TITLE);
+        gen.writeString(title(status));
+
+        gen.writeFieldName(STATUS);
+        gen.writeNumber(status.value());
+
+        if (detail != null) {
+            gen.writeFieldName(DETAIL);
+            gen.writeString(detail);
+        }
+
+        if (errors != null) {
+            gen.writeFieldName(ERRORS);
+            errors.serialize(gen, serializers);
+        }
+
+        gen.writeEndObject();
+    }
+
+    @Override
+    public void serializeWithType(JsonGenerator gen, SerializerProvider serializers, TypeSerializer typeSer) throws IOException {
+        serialize(gen, serializers);
+    }
+
+    private static SerializedString title(HttpStatusCode status) {
+
+        return TITLES.computeIfAbsent(status.value(), code -> {
+            HttpStatus known = HttpStatus.resolve(code);
+            return new SerializedString(known == null ? String.valueOf(code) : known.getReasonPhrase());
+        });
+    }
+
+}
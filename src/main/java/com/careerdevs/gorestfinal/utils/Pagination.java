@@ -0,0 +1,154 @@
+package com.careerdevs.gorestfinal.utils;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.util.List;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+/**
+ * Page and keyset listing shared by every resource, with the same X-Pagination-* headers GoREST sends.
+ *
+ * {@code ?page=N&limit=M} answers with total/pages/page/limit headers like GoREST does.
+ * {@code ?after=<id>&limit=M} skips the count and the offset and answers with a next cursor instead,
+ * so deep pages cost the same as the first one.
+ */
+public class Pagination {
+
+    public static final String TOTAL_HEADER = "X-Pagination-Total";
+    public static final String PAGES_HEADER = "X-Pagination-Pages";
+    public static final String PAGE_HEADER = "X-Pagination-Page";
+    public static final String LIMIT_HEADER = "X-Pagination-Limit";
+    public static final String NEXT_CURSOR_HEADER = "X-Pagination-Next-Cursor";
+
+    public static final int DEFAULT_LIMIT = 10;
+    public static final int MAX_LIMIT = 100;
+
+    private static final Sort BY_ID = Sort.by("id");
+
+    public static <T> ResponseEntity<?> list(String after, String page, String limit,
+                                             Function<Pageable, Page<T>> pageQuery,
+                                             BiFunction<Long, Pageable, List<T>> keysetQuery,
+                                             ToLongFunction<T> idOf) {
+
+        int pageSize = parseLimit(limit);
+
+        if (after != null) {
+
+            List<T> rows = keysetQuery.apply(parseCursor(after), keysetRequest(pageSize));
+
+            return new ResponseEntity<>(rows, keysetHeaders(rows, pageSize, idOf, ServletUriComponentsBuilder.fromCurrentRequest()), HttpStatus.OK);
+        }
+
+        int pageNum = parsePage(page);
+
+        Page<T> rows = pageQuery.apply(pageRequest(pageNum, pageSize));
+
+        return new ResponseEntity<>(rows.getContent(), pageHeaders(rows, pageNum, idOf, ServletUriComponentsBuilder.fromCurrentRequest()), HttpStatus.OK);
+    }
+
+    static PageRequest keysetRequest(int pageSize) {
+        return PageRequest.of(0, pageSize, BY_ID);
+    }
+
+    static PageRequest pageRequest(int pageNum, int pageSize) {
+        return PageRequest.of(pageNum - 1, pageSize, BY_ID);
+    }
+
+    static <T> HttpHeaders keysetHeaders(List<T> rows, int pageSize, ToLongFunction<T> idOf, UriComponentsBuilder currentRequest) {
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(LIMIT_HEADER, String.valueOf(pageSize));
+
+        // a short page means there is nothing after it
+        if (rows.size() == pageSize) {
+            addNextCursor(headers, currentRequest, idOf.applyAsLong(rows.get(rows.size() - 1)), pageSize);
+        }
+
+        return headers;
+    }
+
+    static <T> HttpHeaders pageHeaders(Page<T> rows, int pageNum, ToLongFunction<T> idOf, UriComponentsBuilder currentRequest) {
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(TOTAL_HEADER, String.valueOf(rows.getTotalElements()));
+        headers.set(PAGES_HEADER, String.valueOf(rows.getTotalPages()));
+        headers.set(PAGE_HEADER, String.valueOf(pageNum));
+        headers.set(LIMIT_HEADER, String.valueOf(rows.getSize()));
+
+        // lets a client switch from page numbers to the cheaper cursor after the first request
+        if (rows.hasNext()) {
+            List<T> content = rows.getContent();
+            addNextCursor(headers, currentRequest, idOf.applyAsLong(content.get(content.size() - 1)), rows.getSize());
+        }
+
+        return headers;
+    }
+
+    static long parseCursor(String after) {
+
+        long cursor = ApiErrorHandling.parseId(after);
+
+        if (cursor == ApiErrorHandling.INVALID_ID) {
+            throw new ApiClientError(HttpStatus.BAD_REQUEST, after + " is not a valid cursor.");
+        }
+
+        return cursor;
+    }
+
+    static int parsePage(String page) {
+
+        if (page == null) {
+            return 1;
+        }
+
+        long pageNum = ApiErrorHandling.parseId(page);
+
+        if (pageNum < 1 || pageNum > Integer.MAX_VALUE) {
+            throw new ApiClientError(HttpStatus.BAD_REQUEST, page + " is not a valid page.");
+        }
+
+        return (int) pageNum;
+    }
+
+    static int parseLimit(String limit) {
+
+        if (limit == null) {
+            return DEFAULT_LIMIT;
+        }
+
+        long pageSize = ApiErrorHandling.parseId(limit);
+
+        if (pageSize == ApiErrorHandling.INVALID_ID) {
+            throw new ApiClientError(HttpStatus.BAD_REQUEST, limit + " is not a valid limit.");
+        }
+
+        if (pageSize < 1 || pageSize > MAX_LIMIT) {
+            throw new ApiClientError(HttpStatus.BAD_REQUEST, "Limit must be between 1 and " + MAX_LIMIT + ".");
+        }
+
+        return (int) pageSize;
+    }
+
+    private static void addNextCursor(HttpHeaders headers, UriComponentsBuilder currentRequest, long lastId, int pageSize) {
+
+        String next = currentRequest
+                .replaceQueryParam("page")
+                .replaceQueryParam("after", lastId)
+                .replaceQueryParam("limit", pageSize)
+                .toUriString();
+
+        headers.set(NEXT_CURSOR_HEADER, String.valueOf(lastId));
+        headers.add(HttpHeaders.LINK, "<" + next + ">; rel=\"next\"");
+    }
+
+}
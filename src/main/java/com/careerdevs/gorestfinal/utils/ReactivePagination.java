@@ -0,0 +1,62 @@
+package com.careerdevs.gorestfinal.utils;
+
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.web.util.ForwardedHeaderUtils;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+
+/**
+ * {@link Pagination} for the reactive controllers: same parameters, same X-Pagination-* headers and
+ * next cursor, but the rows come from R2DBC and the current URL from the WebFlux request.
+ */
+public class ReactivePagination {
+
+    public static <T> Mono<ResponseEntity<?>> list(String after, String page, String limit, ServerHttpRequest request,
+                                                   Function<Pageable, Flux<T>> pageQuery,
+                                                   Supplier<Mono<Long>> countQuery,
+                                                   BiFunction<Long, Pageable, Flux<T>> keysetQuery,
+                                                   ToLongFunction<T> idOf) {
+
+        int pageSize = Pagination.parseLimit(limit);
+
+        if (after != null) {
+
+            long cursor = Pagination.parseCursor(after);
+
+            return keysetQuery.apply(cursor, Pagination.keysetRequest(pageSize))
+                    .collectList()
+                    .map(rows -> new ResponseEntity<>(rows,
+                            Pagination.keysetHeaders(rows, pageSize, idOf, currentUrl(request)),
+                            HttpStatus.OK));
+        }
+
+        int pageNum = Pagination.parsePage(page);
+        PageRequest pageable = Pagination.pageRequest(pageNum, pageSize);
+
+        // the page and the count go to the database at the same time
+        return Mono.zip(pageQuery.apply(pageable).collectList(), countQuery.get())
+                .map(rowsAndTotal -> {
+                    PageImpl<T> rows = new PageImpl<>(rowsAndTotal.getT1(), pageable, rowsAndTotal.getT2());
+                    return new ResponseEntity<>(rows.getContent(),
+                            Pagination.pageHeaders(rows, pageNum, idOf, currentUrl(request)),
+                            HttpStatus.OK);
+                });
+    }
+
+    // the request URL as the client saw it, honouring Forwarded and X-Forwarded-* headers
+    private static UriComponentsBuilder currentUrl(ServerHttpRequest request) {
+        return ForwardedHeaderUtils.adaptFromForwardedHeaders(request.getURI(), request.getHeaders());
+    }
+
+}
@@ -0,0 +1,70 @@
+package com.careerdevs.gorestfinal.validation;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.databind.JsonSerializable;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.jsontype.TypeSerializer;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * The {@link ValidationError}s of a bulk request, keyed by the index of the entry they belong to.
+ */
+public class BulkValidationError extends JsonSerializable.Base {
+
+    private final TreeMap<Integer, ValidationError> errors = new TreeMap<>();
+
+    private final String resource;
+
+    public BulkValidationError(String resource) {
+        this.resource = resource;
+    }
+
+    public void addErrors (int index, ValidationError entryErrors) {
+        if (entryErrors.hasError()) {
+            errors.put(index, entryErrors);
+        }
+    }
+
+    public void addError (int index, String key, String errorMsg) {
+        errors.computeIfAbsent(index, i -> new ValidationError(resource)).addError(key, errorMsg);
+    }
+
+    public void addError (int index, SerializableString key, SerializableString errorMsg) {
+        errors.computeIfAbsent(index, i -> new ValidationError(resource)).addError(key, errorMsg);
+    }
+
+    public boolean hasError() {
+        return !errors.isEmpty();
+    }
+
+    public int size() {
+        return errors.size();
+    }
+
+    public String toJSONString() {
+        return ValidationError.toJSONString(this);
+    }
+
+    @Override
+    public void serialize(JsonGenerator gen, SerializerProvider serializers) throws IOException {
+
+        gen.writeStartObject();
+
+        for (Map.Entry<Integer, ValidationError> err : errors.entrySet()) {
+            gen.writeFieldName(String.valueOf(err.getKey()));
+            err.getValue().serialize(gen, serializers);
+        }
+
+        gen.writeEndObject();
+    }
+
+    @Override
+    public void serializeWithType(JsonGenerator gen, SerializerProvider serializers, TypeSerializer typeSer) throws IOException {
+        serialize(gen, serializers);
+    }
+
+}
@@ -0,0 +1,20 @@
+package com.careerdevs.gorestfinal.validation;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * The String field, when not blank, must look like an address: one {@code @}, something before it, and a
+ * domain with a dot that neither starts nor ends it. No whitespace anywhere.
+ */
+@Target(ElementType.FIELD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface Email {
+
+    String message() default "";
+
+}
@@ -0,0 +1,401 @@
+package com.careerdevs.gorestfinal.validation;
+
+import com.careerdevs.gorestfinal.models.Comment;
+import com.careerdevs.gorestfinal.models.Post;
+import com.careerdevs.gorestfinal.models.ToDo;
+import com.careerdevs.gorestfinal.models.User;
+import com.fasterxml.jackson.core.io.SerializedString;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import jakarta.persistence.Id;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+/**
+ * Validates the models against the {@link NotBlank}, {@link Email}, {@link OneOf} and {@link References}
+ * annotations on their fields.
+ *
+ * The annotations are read once, when the bean is created: every field becomes a rule that calls the
+ * getter through a {@link LambdaMetafactory} function and reports with field names and messages that
+ * are already encoded. Validating a request is then a few getter calls and string scans, no reflection
+ * and no trimmed copies. {@link #validateAll} checks the references of a whole bulk request with one
+ * {@link ExistenceCheck#existing} per referenced resource instead of one lookup per row.
+ */
+@Component
+public class EntityValidator {
+
+    private static final List<Class<?>> MODELS = List.of(User.class, Post.class, Comment.class, ToDo.class);
+
+    private static final SerializedString ID = new SerializedString("id");
+    private static final SerializedString ID_BLANK = new SerializedString("ID cannot be left blank");
+
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+    // filled in the constructor and only read afterwards
+    private final Map<Class<?>, Rules> rules = new HashMap<>();
+
+    private final ExistenceCheck existenceCheck;
+
+    @Autowired
+    public EntityValidator(ObjectProvider<ExistenceCheck> existenceCheck) {
+        this(existenceCheck.getIfAvailable());
+    }
+
+    // without an ExistenceCheck references are only checked for being set
+    public EntityValidator(ExistenceCheck existenceCheck) {
+
+        this.existenceCheck = existenceCheck;
+
+        for (Class<?> model : MODELS) {
+            rules.put(model, compile(model));
+        }
+    }
+
+    public ValidationError validate(Object entity, boolean isUpdate) {
+
+        Rules entityRules = rulesFor(entity.getClass());
+        ValidationError errors = new ValidationError(entityRules.resource);
+
+        entityRules.check(entity, isUpdate, errors);
+
+        if (existenceCheck != null) {
+            for (Reference reference : entityRules.references) {
+                long id = reference.id.applyAsLong(entity);
+                if (id != 0 && !existenceCheck.exists(reference.target, id)) {
+                    errors.addError(reference.field, reference.notFound(id));
+                }
+            }
+        }
+
+        return errors;
+    }
+
+    /**
+     * The bulk form of {@link #validate}: the field rules run per row, then the ids of every reference
+     * field are collected and checked as one set.
+     */
+    public BulkValidationError validateAll(List<?> rows, boolean isUpdate) {
+
+        if (rows.isEmpty()) {
+            return new BulkValidationError(null);
+        }
+
+        Rules entityRules = rulesFor(rows.get(0).getClass());
+        BulkValidationError errors = new BulkValidationError(entityRules.resource);
+
+        for (int i = 0; i < rows.size(); i++) {
+            ValidationError rowErrors = new ValidationError(entityRules.resource);
+            entityRules.check(rows.get(i), isUpdate, rowErrors);
+            errors.addErrors(i, rowErrors);
+        }
+
+        if (existenceCheck != null) {
+            for (Reference reference : entityRules.references) {
+
+                Set<Long> ids = new HashSet<>();
+                for (Object row : rows) {
+                    long id = reference.id.applyAsLong(row);
+                    if (id != 0) {
+                        ids.add(id);
+                    }
+                }
+
+                if (ids.isEmpty()) {
+                    continue;
+                }
+
+                Set<Long> existing = existenceCheck.existing(reference.target, ids);
+
+                for (int i = 0; i < rows.size(); i++) {
+                    long id = reference.id.applyAsLong(rows.get(i));
+                    if (id != 0 && !existing.contains(id)) {
+                        errors.addError(i, reference.field, reference.notFound(id));
+                    }
+                }
+            }
+        }
+
+        return errors;
+    }
+
+    private Rules rulesFor(Class<?> type) {
+
+        Rules entityRules = rules.get(type);
+
+        if (entityRules == null) {
+            throw new IllegalArgumentException(type.getName() + " has no validation rules");
+        }
+
+        return entityRules;
+    }
+
+    private static Rules compile(Class<?> model) {
+
+        String resource = model.getSimpleName().toLowerCase() + "s";
+
+        ToLongFunction<Object> id = null;
+        List<FieldRule> fieldRules = new ArrayList<>();
+        List<Reference> references = new ArrayList<>();
+
+        for (Field field : model.getDeclaredFields()) {
+
+            String name = field.getName();
+            SerializedString key = new SerializedString(name);
+            String label = label(name);
+
+            if (field.isAnnotationPresent(Id.class)) {
+                id = longGetter(model, field);
+            }
+
+            References referenceTo = field.getAnnotation(References.class);
+            if (referenceTo != null) {
+
+                if (field.getType() != long.class) {
+                    throw new IllegalStateException(model.getSimpleName() + "." + name + " has to be a long to be a @References");
+                }
+
+                Reference reference = new Reference(key, referenceTo.value(), longGetter(model, field),
+                        label + " is invalid because there is no " + referenceTo.value().getSimpleName().toLowerCase() +
+                                " found with the ID: ");
+                SerializedString blank = new SerializedString(label + " cannot be left blank.");
+
+                references.add(reference);
+                fieldRules.add((entity, errors) -> {
+                    if (reference.id.applyAsLong(entity) == 0) {
+                        errors.addError(key, blank);
+                    }
+                });
+            }
+
+            NotBlank notBlank = field.getAnnotation(NotBlank.class);
+            Email email = field.getAnnotation(Email.class);
+            OneOf oneOf = field.getAnnotation(OneOf.class);
+
+            if (notBlank == null && email == null && oneOf == null) {
+                continue;
+            }
+
+            // anything that is not text, a timestamp for instance, can only be missing
+            if (field.getType() != String.class && notBlank != null && email == null && oneOf == null) {
+
+                Function<Object, Object> value = getter(model, field);
+                SerializedString blank = message(notBlank.message(), label + " cannot be left blank.");
+
+                fieldRules.add((entity, errors) -> {
+                    if (value.apply(entity) == null) {
+                        errors.addError(key, blank);
+                    }
+                });
+                continue;
+            }
+
+            if (field.getType() != String.class) {
+                throw new IllegalStateException(model.getSimpleName() + "." + name + " has to be a String to be validated as text");
+            }
+
+            fieldRules.add(new TextRule(EntityValidator.<String>getter(model, field), key,
+                    notBlank == null ? null : message(notBlank.message(), label + " cannot be left blank."),
+                    email == null ? null : message(email.message(), label + " is not a valid email address."),
+                    oneOf == null ? null : oneOf.value(),
+                    oneOf == null ? null : message(oneOf.message(), label + " must be one of: " + String.join(", ", oneOf.value()) + ".")));
+        }
+
+        if (id == null) {
+            throw new IllegalStateException(model.getSimpleName() + " has no @Id field");
+        }
+
+        return new Rules(resource, id, fieldRules.toArray(new FieldRule[0]), references.toArray(new Reference[0]));
+    }
+
+    // user_id -> User_ID, due_on -> Due_On, the way the messages always spelled them
+    static String label(String fieldName) {
+
+        StringBuilder label = new StringBuilder(fieldName.length());
+
+        for (String part : fieldName.split("_")) {
+
+            if (label.length() > 0) {
+                label.append('_');
+            }
+
+            if (part.equals("id")) {
+                label.append("ID");
+            } else if (!part.isEmpty()) {
+                label.append(Character.toUpperCase(part.charAt(0))).append(part, 1, part.length());
+            }
+        }
+
+        return label.toString();
+    }
+
+    private static SerializedString message(String message, String defaultMessage) {
+        return new SerializedString(message.isEmpty() ? defaultMessage : message);
+    }
+
+    /**
+     * One {@code @}, at least one character before it, and a dot after it that is neither right after the
+     * {@code @} nor the last character. Whitespace and control characters are not allowed anywhere.
+     */
+    static boolean isEmail(String value) {
+
+        int at = -1;
+        int lastDot = -1;
+        int length = value.length();
+
+        for (int i = 0; i < length; i++) {
+
+            char c = value.charAt(i);
+
+            if (c == '@') {
+                if (at != -1) {
+                    return false;
+                }
+                at = i;
+            } else if (c == '.') {
+                lastDot = i;
+            } else if (c <= ' ') {
+                return false;
+            }
+        }
+
+        return at > 0 && lastDot > at + 1 && lastDot < length - 1;
+    }
+
+    private static Method getterMethod(Class<?> model, Field field) {
+
+        String name = field.getName();
+        String getter = "get" + Character.toUpperCase(name.charAt(0)) + name.substring(1);
+
+        try {
+            return model.getMethod(getter);
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException(model.getSimpleName() + " has no " + getter + "() for its validated field " + name, e);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <V> Function<Object, V> getter(Class<?> model, Field field) {
+
+        try {
+            MethodHandle getter = LOOKUP.unreflect(getterMethod(model, field));
+            return (Function<Object, V>) LambdaMetafactory.metafactory(LOOKUP, "apply",
+                    MethodType.methodType(Function.class), MethodType.methodType(Object.class, Object.class),
+                    getter, getter.type()).getTarget().invoke();
+        } catch (Throwable e) {
+            throw new IllegalStateException("Cannot bind the getter of " + model.getSimpleName() + "." + field.getName(), e);
+        }
+    }
+
+    // long and Long getters alike, null reads as 0
+    @SuppressWarnings("unchecked")
+    private static ToLongFunction<Object> longGetter(Class<?> model, Field field) {
+
+        if (field.getType() == Long.class) {
+            Function<Object, Long> boxed = getter(model, field);
+            return entity -> {
+                Long value = boxed.apply(entity);
+                return value == null ? 0 : value;
+            };
+        }
+
+        if (field.getType() != long.class) {
+            throw new IllegalStateException(model.getSimpleName() + "." + field.getName() + " has to be a long or a Long");
+        }
+
+        try {
+            MethodHandle getter = LOOKUP.unreflect(getterMethod(model, field));
+            return (ToLongFunction<Object>) LambdaMetafactory.metafactory(LOOKUP, "applyAsLong",
+                    MethodType.methodType(ToLongFunction.class), MethodType.methodType(long.class, Object.class),
+                    getter, getter.type()).getTarget().invoke();
+        } catch (Throwable e) {
+            throw new IllegalStateException("Cannot bind the getter of " + model.getSimpleName() + "." + field.getName(), e);
+        }
+    }
+
+    @FunctionalInterface
+    private interface FieldRule {
+        void check(Object entity, ValidationError errors);
+    }
+
+    private record Rules(String resource, ToLongFunction<Object> id, FieldRule[] fieldRules, Reference[] references) {
+
+        void check(Object entity, boolean isUpdate, ValidationError errors) {
+
+            // existence is decided by the UPDATE itself, see the updateRow of each repository
+            if (isUpdate && id.applyAsLong(entity) == 0) {
+                errors.addError(ID, ID_BLANK);
+            }
+
+            for (FieldRule fieldRule : fieldRules) {
+                fieldRule.check(entity, errors);
+            }
+        }
+
+    }
+
+    private record Reference(SerializedString field, Class<?> target, ToLongFunction<Object> id, String notFoundPrefix) {
+
+        // only built for the rows that fail, the id makes every message different
+        SerializedString notFound(long id) {
+            return new SerializedString(notFoundPrefix + id);
+        }
+
+    }
+
+    /**
+     * The checks of one String field. The format checks only run on values that are not blank, so a
+     * missing value is reported once.
+     */
+    private record TextRule(Function<Object, String> getter, SerializedString field, SerializedString blank,
+                            SerializedString invalidEmail, String[] allowed, SerializedString notAllowed) implements FieldRule {
+
+        @Override
+        public void check(Object entity, ValidationError errors) {
+
+            String value = getter.apply(entity);
+
+            if (value == null || value.isBlank()) {
+                if (blank != null) {
+                    errors.addError(field, blank);
+                }
+                return;
+            }
+
+            if (invalidEmail != null && !isEmail(value)) {
+                errors.addError(field, invalidEmail);
+            }
+
+            if (allowed != null && !isAllowed(value)) {
+                errors.addError(field, notAllowed);
+            }
+        }
+
+        // a handful of values, comparing them beats hashing the request's string
+        private boolean isAllowed(String value) {
+
+            for (String candidate : allowed) {
+                if (candidate.equals(value)) {
+                    return true;
+                }
+            }
+
+            return false;
+        }
+
+    }
+
+}
@@ -0,0 +1,17 @@
+package com.careerdevs.gorestfinal.validation;
+
+import java.util.Collection;
+import java.util.Set;
+
+/**
+ * Answers {@link References} checks. Without a bean of this type the references are only checked for
+ * being present.
+ */
+public interface ExistenceCheck {
+
+    boolean exists(Class<?> entity, long id);
+
+    // the subset of ids that exist
+    Set<Long> existing(Class<?> entity, Collection<Long> ids);
+
+}
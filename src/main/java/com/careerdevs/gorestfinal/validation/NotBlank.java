@@ -0,0 +1,21 @@
+package com.careerdevs.gorestfinal.validation;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * The String field must be present and contain something other than whitespace, any other field must
+ * not be null. The default message is "{Field} cannot be left blank.", e.g. "Due_On cannot be left
+ * blank." for {@code due_on}.
+ */
+@Target(ElementType.FIELD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface NotBlank {
+
+    String message() default "";
+
+}
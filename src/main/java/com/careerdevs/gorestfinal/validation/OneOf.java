@@ -0,0 +1,21 @@
+package com.careerdevs.gorestfinal.validation;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * The String field, when not blank, must be exactly one of {@link #value()}, e.g. a GoREST status.
+ */
+@Target(ElementType.FIELD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface OneOf {
+
+    String[] value();
+
+    String message() default "";
+
+}
@@ -0,0 +1,21 @@
+package com.careerdevs.gorestfinal.validation;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * The long field holds the id of a {@link #value()} that has to exist. 0 counts as left blank.
+ * Existence is asked of the {@link ExistenceCheck} bean, one id at a time for single requests and
+ * one set per chunk for bulk requests.
+ */
+@Target(ElementType.FIELD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface References {
+
+    Class<?> value();
+
+}
@@ -1,16 +1,63 @@
 package com.careerdevs.gorestfinal.validation;
 
-import org.json.JSONObject;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.JsonSerializable;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.jsontype.TypeSerializer;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Metrics;
 
-import java.util.HashMap;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
-public class ValidationError {
+/**
+ * Field name to message, written as the {@code errors} object of an
+ * {@link com.careerdevs.gorestfinal.utils.ApiProblem}. The validators pass their field names and fixed
+ * messages as constant {@link SerializedString}s, so the UTF-8 form of each is encoded once and copied
+ * into every response that reports it.
+ */
+public class ValidationError extends JsonSerializable.Base {
 
-    private final HashMap<String, String> errors = new HashMap<>();
+    // counted per resource and field, e.g. gorest_validation_failures_total{resource="users",field="email"}
+    public static final String FAILURES_METRIC = "gorest.validation.failures";
+
+    static final JsonFactory JSON = new JsonFactory();
+
+    // global registry meters keep working when registries are added later, so they can be looked up once
+    private static final Map<String, Map<String, Counter>> FAILURES = new ConcurrentHashMap<>();
+
+    private final LinkedHashMap<SerializableString, SerializableString> errors = new LinkedHashMap<>(4);
+
+    private final String resource;
+
+    public ValidationError() {
+        this(null);
+    }
+
+    public ValidationError(String resource) {
+        this.resource = resource;
+    }
 
     public void addError (String key, String errorMsg) {
+        addError(new SerializedString(key), new SerializedString(errorMsg));
+    }
+
+    public void addError (SerializableString key, SerializableString errorMsg) {
+
         errors.put(key, errorMsg);
+
+        if (resource != null) {
+            FAILURES.computeIfAbsent(resource, r -> new ConcurrentHashMap<>())
+                    .computeIfAbsent(key.getValue(), field -> Metrics.counter(FAILURES_METRIC, "resource", resource, "field", field))
+                    .increment();
+        }
     }
 
     public boolean hasError() {
@@ -22,15 +69,46 @@ public class ValidationError {
 
         StringBuilder errorMessage = new StringBuilder("ValidationError:\n");
 
-        for (Map.Entry<String, String> err : errors.entrySet()) {
-            errorMessage.append(err.getKey()).append(": ").append(err.getValue()).append("\n");
+        for (Map.Entry<SerializableString, SerializableString> err : errors.entrySet()) {
+            errorMessage.append(err.getKey().getValue()).append(": ").append(err.getValue().getValue()).append("\n");
         }
 
         return errorMessage.toString();
     }
 
     public String toJSONString() {
-        return new JSONObject(errors).toString();
+        return toJSONString(this);
+    }
+
+    @Override
+    public void serialize(JsonGenerator gen, SerializerProvider serializers) throws IOException {
+
+        gen.writeStartObject();
+
+        for (Map.Entry<SerializableString, SerializableString> err : errors.entrySet()) {
+            gen.writeFieldName(err.getKey());
+            gen.writeString(err.getValue());
+        }
+
+        gen.writeEndObject();
+    }
+
+    @Override
+    public void serializeWithType(JsonGenerator gen, SerializerProvider serializers, TypeSerializer typeSer) throws IOException {
+        serialize(gen, serializers);
+    }
+
+    static String toJSONString(JsonSerializable errors) {
+
+        StringWriter json = new StringWriter();
+
+        try (JsonGenerator gen = JSON.createGenerator(json)) {
+            errors.serialize(gen, null);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        return json.toString();
     }
 
 }
@@ -0,0 +1,45 @@
+-- the schema Hibernate's H2Dialect built for the models before the migrations took over, kept in step
+-- with mysql/V1__baseline.sql so the tests run the same migrations the application does
+create sequence user_seq start with 1 increment by 50;
+create sequence post_seq start with 1 increment by 50;
+create sequence comment_seq start with 1 increment by 50;
+create sequence todo_seq start with 1 increment by 50;
+
+create table user (
+    id bigint not null,
+    email varchar(255),
+    gender varchar(255),
+    name varchar(255),
+    status varchar(255),
+    primary key (id)
+);
+
+create table post (
+    id bigint not null,
+    user_id bigint not null,
+    body varchar(512),
+    title varchar(255),
+    primary key (id)
+);
+
+create table comment (
+    id bigint not null,
+    post_id bigint not null,
+    body varchar(255),
+    email varchar(255),
+    name varchar(255),
+    primary key (id)
+);
+
+create table to_do (
+    id bigint not null,
+    user_id bigint not null,
+    due_on varchar(255),
+    status varchar(255),
+    title varchar(255),
+    primary key (id)
+);
+
+create index idx_post_user_id on post (user_id);
+create index idx_comment_post_id on comment (post_id);
+create index idx_to_do_user_id on to_do (user_id);
@@ -0,0 +1,12 @@
+-- see mysql/V2__constraints_and_column_types.sql
+alter table user add constraint uk_user_email unique (email);
+
+alter table post alter column body set data type text;
+alter table comment alter column body set data type text;
+
+alter table to_do add column due_on_utc timestamp(3);
+update to_do
+set due_on_utc = cast(cast(due_on as timestamp(3) with time zone) at time zone 'UTC' as timestamp(3))
+where regexp_like(due_on, '^[0-9]{4}-[0-9]{2}-[0-9]{2}T[0-9]{2}:[0-9]{2}:[0-9]{2}(\.[0-9]+)?[+-][0-9]{2}:[0-9]{2}$');
+alter table to_do drop column due_on;
+alter table to_do alter column due_on_utc rename to due_on;
@@ -0,0 +1,12 @@
+-- see mysql/V3__incremental_sync.sql
+alter table user add column sync_hash bigint;
+alter table post add column sync_hash bigint;
+alter table comment add column sync_hash bigint;
+alter table to_do add column sync_hash bigint;
+
+create table sync_state (
+    resource varchar(16) not null,
+    high_water_id bigint not null,
+    synced_at timestamp(3) not null,
+    primary key (resource)
+);
@@ -0,0 +1,8 @@
+-- see mysql/V4__import_checkpoints.sql
+create table import_checkpoint (
+    resource varchar(16) not null,
+    next_page int not null,
+    total_pages int not null,
+    updated_at timestamp(3) not null,
+    primary key (resource)
+);
@@ -0,0 +1,51 @@
+-- the schema hibernate.ddl-auto=update built for the models before the migrations took over; databases
+-- created that way are baselined at this version (spring.flyway.baseline-on-migrate) and start at V2
+
+-- MySQL has no sequences, Hibernate emulates each one with a one row table
+create table user_seq (next_val bigint) engine=InnoDB;
+insert into user_seq values (1);
+create table post_seq (next_val bigint) engine=InnoDB;
+insert into post_seq values (1);
+create table comment_seq (next_val bigint) engine=InnoDB;
+insert into comment_seq values (1);
+create table todo_seq (next_val bigint) engine=InnoDB;
+insert into todo_seq values (1);
+
+create table user (
+    id bigint not null,
+    email varchar(255),
+    gender varchar(255),
+    name varchar(255),
+    status varchar(255),
+    primary key (id)
+) engine=InnoDB;
+
+create table post (
+    id bigint not null,
+    user_id bigint not null,
+    body varchar(512),
+    title varchar(255),
+    primary key (id)
+) engine=InnoDB;
+
+create table comment (
+    id bigint not null,
+    post_id bigint not null,
+    body varchar(255),
+    email varchar(255),
+    name varchar(255),
+    primary key (id)
+) engine=InnoDB;
+
+create table to_do (
+    id bigint not null,
+    user_id bigint not null,
+    due_on varchar(255),
+    status varchar(255),
+    title varchar(255),
+    primary key (id)
+) engine=InnoDB;
+
+create index idx_post_user_id on post (user_id);
+create index idx_comment_post_id on comment (post_id);
+create index idx_to_do_user_id on to_do (user_id);
@@ -0,0 +1,19 @@
+-- one account per email, the way GoREST itself enforces it; fails if the table already holds duplicates,
+-- which have to be cleaned up by hand first
+alter table user add constraint uk_user_email unique (email);
+
+-- bodies are free text, varchar(512) / varchar(255) cut them off
+alter table post modify body text;
+alter table comment modify body text;
+
+-- due_on held GoREST's text (2024-07-05T00:00:00.000+05:30), it becomes a timestamp normalised to UTC
+-- (hibernate.timezone.default_storage=NORMALIZE_UTC)
+alter table to_do add column due_on_utc timestamp(3) null;
+update to_do
+set due_on_utc = convert_tz(str_to_date(substr(due_on, 1, 19), '%Y-%m-%dT%H:%i:%s'), substr(due_on, -6), '+00:00')
+where due_on regexp '^[0-9]{4}-[0-9]{2}-[0-9]{2}T[0-9]{2}:[0-9]{2}:[0-9]{2}(\\.[0-9]+)?[+-][0-9]{2}:[0-9]{2}$';
+alter table to_do drop column due_on;
+alter table to_do rename column due_on_utc to due_on;
+
+-- idx_post_user_id, idx_comment_post_id and idx_to_do_user_id from V1 stay: InnoDB appends the primary key to
+-- every secondary index, so the children of a parent in id order (/api/users/{id}/posts) are one index range
@@ -0,0 +1,14 @@
+-- what GoRestSyncService needs to only write what changed upstream: a hash of the GoREST version of every
+-- row it wrote (null for rows created here or by a full /uploadall), and per resource the highest id the last
+-- completed sync saw
+alter table user add column sync_hash bigint null;
+alter table post add column sync_hash bigint null;
+alter table comment add column sync_hash bigint null;
+alter table to_do add column sync_hash bigint null;
+
+create table sync_state (
+    resource varchar(16) not null,
+    high_water_id bigint not null,
+    synced_at timestamp(3) not null,
+    primary key (resource)
+) engine=InnoDB;
@@ -0,0 +1,9 @@
+-- where a background /uploadall job that did not finish picks up again: every page before next_page has been
+-- written, the row is deleted once the import completes
+create table import_checkpoint (
+    resource varchar(16) not null,
+    next_page int not null,
+    total_pages int not null,
+    updated_at timestamp(3) not null,
+    primary key (resource)
+) engine=InnoDB;
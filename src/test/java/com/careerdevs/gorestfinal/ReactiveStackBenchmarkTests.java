@@ -0,0 +1,112 @@
+package com.careerdevs.gorestfinal;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * The same read load against the servlet stack (Tomcat, 16 threads, JPA) and the reactive profile
+ * (Netty, R2DBC): 256 clients in flight asking for users by id, then a handful of /all downloads.
+ * Prints requests per second for both.
+ */
+@Tag("benchmark")
+class ReactiveStackBenchmarkTests {
+
+    private static final int USERS = 500;
+
+    private static final int REQUESTS = 5_000;
+
+    private static final int IN_FLIGHT = 256;
+
+    @Test
+    void servletAndReactiveSideBySide() throws Exception {
+
+        try (ConfigurableApplicationContext servlet = new SpringApplicationBuilder(GorestfinalApplication.class)
+                .profiles("test")
+                .run("--server.port=0", "--server.tomcat.threads.max=16")) {
+            report("servlet (Tomcat, 16 threads)", port(servlet));
+        }
+
+        try (ConfigurableApplicationContext reactive = new SpringApplicationBuilder(GorestfinalApplication.class)
+                .profiles("test", "reactive")
+                .run("--server.port=0",
+                        "--spring.r2dbc.url=r2dbc:h2:mem:///benchmark?options=MODE=MySQL;NON_KEYWORDS=USER;DB_CLOSE_DELAY=-1",
+                        "--spring.r2dbc.username=sa",
+                        "--spring.r2dbc.password=",
+                        "--spring.flyway.url=jdbc:h2:mem:benchmark;MODE=MySQL;NON_KEYWORDS=USER;DB_CLOSE_DELAY=-1")) {
+            report("reactive (Netty, R2DBC)", port(reactive));
+        }
+    }
+
+    private void report(String stack, int port) throws Exception {
+
+        HttpClient client = HttpClient.newBuilder().executor(Executors.newFixedThreadPool(32)).build();
+        String base = "http://localhost:" + port + "/api/users/";
+
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < USERS; i++) {
+            HttpResponse<String> created = client.send(HttpRequest.newBuilder(URI.create(base))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString("{\"name\":\"User " + i + "\",\"email\":\"user" + i +
+                            "@example.com\",\"gender\":\"male\",\"status\":\"active\"}"))
+                    .build(), HttpResponse.BodyHandlers.ofString());
+            assertEquals(201, created.statusCode());
+            ids.add(Long.parseLong(created.body().replaceAll(".*\"id\":(\\d+).*", "$1")));
+        }
+
+        // warm up both the JIT and the connection pools before measuring
+        requestsPerSecond(client, base, ids, REQUESTS / 5);
+
+        double byId = requestsPerSecond(client, base, ids, REQUESTS);
+        System.out.printf("%s: %d GET /api/users/{id} with %d in flight: %.0f req/s%n", stack, REQUESTS, IN_FLIGHT, byId);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < 20; i++) {
+            HttpResponse<String> all = client.send(HttpRequest.newBuilder(URI.create(base + "all")).build(),
+                    HttpResponse.BodyHandlers.ofString());
+            assertEquals(200, all.statusCode());
+        }
+        System.out.printf("%s: 20 GET /api/users/all of %d rows: %.1f ms each%n", stack, USERS,
+                (System.nanoTime() - start) / 20 / 1_000_000.0);
+    }
+
+    private double requestsPerSecond(HttpClient client, String base, List<Long> ids, int requests) throws Exception {
+
+        Semaphore inFlight = new Semaphore(IN_FLIGHT);
+        List<CompletableFuture<HttpResponse<Void>>> responses = new ArrayList<>(requests);
+
+        long start = System.nanoTime();
+
+        for (int i = 0; i < requests; i++) {
+            inFlight.acquire();
+            HttpRequest request = HttpRequest.newBuilder(URI.create(base + ids.get(i % ids.size()))).build();
+            responses.add(client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, error) -> inFlight.release()));
+        }
+
+        for (CompletableFuture<HttpResponse<Void>> response : responses) {
+            assertEquals(200, response.get().statusCode());
+        }
+
+        return requests * 1_000_000_000.0 / (System.nanoTime() - start);
+    }
+
+    private static int port(ConfigurableApplicationContext app) {
+        return ((WebServerApplicationContext) app).getWebServer().getPort();
+    }
+
+}
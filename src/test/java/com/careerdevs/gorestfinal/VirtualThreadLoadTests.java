@@ -0,0 +1,130 @@
+package com.careerdevs.gorestfinal;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.system.JavaVersion;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Fires many concurrent POST /api/users/upload/{id} requests while the stub upstream takes a second per
+ * answer, once on a small Tomcat pool and once with spring.threads.virtual.enabled, and prints the
+ * throughput of both runs.
+ */
+@Tag("benchmark")
+class VirtualThreadLoadTests {
+
+    private static final int REQUESTS = 200;
+
+    private static final int UPSTREAM_DELAY_MILLIS = 1000;
+
+    private HttpServer stub;
+
+    @BeforeEach
+    void startStub() throws IOException {
+
+        stub = HttpServer.create(new InetSocketAddress("localhost", 0), 1024);
+        stub.setExecutor(Executors.newCachedThreadPool());
+
+        stub.createContext("/public/v2/users/", exchange -> {
+
+            String path = exchange.getRequestURI().getPath();
+            String id = path.substring(path.lastIndexOf('/') + 1);
+
+            try {
+                Thread.sleep(UPSTREAM_DELAY_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+
+            byte[] body = ("{\"id\":" + id + ",\"name\":\"User " + id + "\",\"email\":\"user" + id +
+                    "@example.com\",\"gender\":\"male\",\"status\":\"active\"}").getBytes(StandardCharsets.UTF_8);
+
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+            exchange.close();
+        });
+
+        stub.start();
+    }
+
+    @AfterEach
+    void stopStub() {
+        stub.stop(0);
+    }
+
+    @Test
+    void virtualThreadsKeepUpWithSlowUpstream() throws Exception {
+
+        double platform = requestsPerSecond(false);
+        System.out.printf("%d uploads, Tomcat pool of 16 platform threads: %.0f req/s%n", REQUESTS, platform);
+
+        if (!JavaVersion.getJavaVersion().isEqualOrNewerThan(JavaVersion.TWENTY_ONE)) {
+            System.out.println("virtual threads need a Java 21 runtime, skipping the virtual thread run");
+            return;
+        }
+
+        double virtual = requestsPerSecond(true);
+        System.out.printf("%d uploads, virtual threads: %.0f req/s%n", REQUESTS, virtual);
+
+        assertTrue(virtual > platform, "virtual threads should not be limited by the Tomcat pool size");
+    }
+
+    private double requestsPerSecond(boolean virtualThreads) throws Exception {
+
+        try (ConfigurableApplicationContext app = new SpringApplicationBuilder(GorestfinalApplication.class)
+                .profiles("test")
+                // command line arguments, so they win over application-test.properties
+                .run("--server.port=0",
+                        "--server.tomcat.threads.max=16",
+                        "--server.tomcat.accept-count=1000",
+                        "--spring.threads.virtual.enabled=" + virtualThreads,
+                        "--gorest.base-url=http://localhost:" + stub.getAddress().getPort() + "/public/v2")) {
+
+            int port = ((WebServerApplicationContext) app).getWebServer().getPort();
+            HttpClient client = HttpClient.newBuilder().executor(Executors.newFixedThreadPool(32)).build();
+
+            long start = System.nanoTime();
+
+            List<CompletableFuture<HttpResponse<Void>>> responses = new ArrayList<>();
+            for (int i = 1; i <= REQUESTS; i++) {
+                HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/users/upload/" + i))
+                        .POST(HttpRequest.BodyPublishers.noBody())
+                        .build();
+                responses.add(client.sendAsync(request, HttpResponse.BodyHandlers.discarding()));
+            }
+
+            for (CompletableFuture<HttpResponse<Void>> response : responses) {
+                assertEquals(201, response.get().statusCode());
+            }
+
+            long elapsedNanos = System.nanoTime() - start;
+
+            return REQUESTS * 1_000_000_000.0 / elapsedNanos;
+        }
+    }
+
+}
@@ -0,0 +1,243 @@
+package com.careerdevs.gorestfinal.client;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The GoREST client against a stub that answers with whatever faults a test queues up, and with a 200
+ * once the queue is empty.
+ */
+class GoRestClientTests {
+
+    private static final Duration READ_TIMEOUT = Duration.ofMillis(300);
+
+    private HttpServer stub;
+
+    private final Queue<Fault> faults = new ConcurrentLinkedQueue<>();
+
+    private final AtomicInteger requests = new AtomicInteger();
+
+    private TokenBucket rateLimiter;
+
+    private CircuitBreaker circuitBreaker;
+
+    @BeforeEach
+    void startStub() throws IOException {
+
+        stub = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        stub.setExecutor(Executors.newCachedThreadPool());
+
+        stub.createContext("/public/v2/users", exchange -> {
+
+            requests.incrementAndGet();
+            Fault fault = faults.poll();
+
+            try {
+                if (fault == null) {
+                    respond(exchange, 200, "{\"id\":1}");
+                } else {
+                    fault.respond(exchange);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                exchange.close();
+            }
+        });
+
+        stub.start();
+
+        rateLimiter = new TokenBucket(1_000, 100);
+        circuitBreaker = new CircuitBreaker(3, Duration.ofMillis(300));
+    }
+
+    @AfterEach
+    void stopStub() {
+        stub.stop(0);
+    }
+
+    @Test
+    void transientFailuresAreRetried() {
+
+        faults.add(exchange -> respond(exchange, 503, ""));
+        faults.add(exchange -> respond(exchange, 502, ""));
+        // the connection is dropped without a response
+        faults.add(exchange -> { });
+
+        assertEquals("{\"id\":1}", client(4).getForObject(url(), String.class));
+        assertEquals(4, requests.get());
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+    }
+
+    @Test
+    void aSlowResponseTimesOutAndIsRetried() {
+
+        faults.add(exchange -> {
+            Thread.sleep(READ_TIMEOUT.toMillis() * 3);
+            respond(exchange, 200, "{\"id\":0}");
+        });
+
+        long start = System.nanoTime();
+
+        assertEquals("{\"id\":1}", client(2).getForObject(url(), String.class));
+        assertEquals(2, requests.get());
+        assertTrue(System.nanoTime() - start < TimeUnit.MILLISECONDS.toNanos(READ_TIMEOUT.toMillis() * 3));
+    }
+
+    @Test
+    void attemptsRunOut() {
+
+        for (int i = 0; i < 3; i++) {
+            faults.add(exchange -> respond(exchange, 503, ""));
+        }
+
+        assertThrows(HttpServerErrorException.ServiceUnavailable.class, () -> client(2).getForObject(url(), String.class));
+        assertEquals(2, requests.get());
+    }
+
+    @Test
+    void clientErrorsAreNotRetried() {
+
+        faults.add(exchange -> respond(exchange, 404, "{\"message\":\"Resource not found\"}"));
+
+        assertThrows(HttpClientErrorException.NotFound.class, () -> client(4).getForObject(url(), String.class));
+        assertEquals(1, requests.get());
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+    }
+
+    @Test
+    void anExhaustedRateLimitIsWaitedOut() {
+
+        faults.add(exchange -> {
+            exchange.getResponseHeaders().add(ResilientRequestInterceptor.RATE_LIMIT_LIMIT, "90");
+            exchange.getResponseHeaders().add(ResilientRequestInterceptor.RATE_LIMIT_REMAINING, "0");
+            exchange.getResponseHeaders().add(ResilientRequestInterceptor.RATE_LIMIT_RESET, "1");
+            respond(exchange, 429, "{\"message\":\"Too many requests\"}");
+        });
+
+        long start = System.nanoTime();
+
+        assertEquals("{\"id\":1}", client(2).getForObject(url(), String.class));
+        assertEquals(2, requests.get());
+        assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(900));
+    }
+
+    @Test
+    void theCircuitOpensAndClosesAgain() throws Exception {
+
+        RestTemplate client = client(1);
+
+        for (int i = 0; i < 3; i++) {
+            faults.add(exchange -> respond(exchange, 500, ""));
+            assertThrows(HttpServerErrorException.class, () -> client.getForObject(url(), String.class));
+        }
+
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+
+        // open: nothing reaches GoREST
+        assertThrows(CircuitOpenException.class, () -> client.getForObject(url(), String.class));
+        assertEquals(3, requests.get());
+
+        Thread.sleep(400);
+
+        // the trial request succeeds and closes the circuit
+        assertEquals("{\"id\":1}", client.getForObject(url(), String.class));
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+    }
+
+    @Test
+    void aFailedTrialKeepsTheCircuitOpen() throws Exception {
+
+        RestTemplate client = client(1);
+
+        for (int i = 0; i < 4; i++) {
+            faults.add(exchange -> respond(exchange, 500, ""));
+        }
+        for (int i = 0; i < 3; i++) {
+            assertThrows(HttpServerErrorException.class, () -> client.getForObject(url(), String.class));
+        }
+
+        Thread.sleep(400);
+
+        assertThrows(HttpServerErrorException.class, () -> client.getForObject(url(), String.class));
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+        assertThrows(CircuitOpenException.class, () -> client.getForObject(url(), String.class));
+    }
+
+    @Test
+    void aDeadServerIsAnIoError() {
+
+        stub.stop(0);
+
+        assertThrows(ResourceAccessException.class, () -> client(2).getForObject(url(), String.class));
+    }
+
+    @Test
+    void theBucketSpacesRequests() throws Exception {
+
+        TokenBucket bucket = new TokenBucket(50, 1);
+        long start = System.nanoTime();
+
+        // the first permit is there, the other ten come 20ms apart
+        for (int i = 0; i < 11; i++) {
+            bucket.acquire();
+        }
+
+        assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(180));
+    }
+
+    private RestTemplate client(int maxAttempts) {
+
+        ResilientRequestInterceptor interceptor = new ResilientRequestInterceptor(rateLimiter, circuitBreaker,
+                maxAttempts, Duration.ofMillis(10), Duration.ofMillis(50));
+
+        return GoRestClientConfig.resilientRestTemplate(new RestTemplateBuilder(), Duration.ofSeconds(1), READ_TIMEOUT,
+                interceptor);
+    }
+
+    private String url() {
+        return "http://localhost:" + stub.getAddress().getPort() + "/public/v2/users";
+    }
+
+    private static void respond(HttpExchange exchange, int status, String json) throws IOException {
+
+        byte[] body = json.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, body.length == 0 ? -1 : body.length);
+
+        if (body.length > 0) {
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface Fault {
+        void respond(HttpExchange exchange) throws IOException, InterruptedException;
+    }
+
+}
@@ -0,0 +1,106 @@
+package com.careerdevs.gorestfinal.controllers;
+
+import com.careerdevs.gorestfinal.models.Post;
+import com.careerdevs.gorestfinal.models.User;
+import com.careerdevs.gorestfinal.repositories.PostRepository;
+import com.careerdevs.gorestfinal.repositories.UserRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class AllEndpointStreamingTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @AfterEach
+    void cleanUp() {
+        postRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void allUsersStreamsEveryRowAsJsonArray() throws Exception {
+
+        // more rows than one cursor fetch and one generator flush
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < 1_200; i++) {
+            User user = new User();
+            user.setName("User " + i);
+            user.setEmail("user" + i + "@example.com");
+            user.setGender("male");
+            user.setStatus("active");
+            users.add(user);
+        }
+        userRepository.saveAll(users);
+
+        MvcResult result = mockMvc.perform(get("/api/users/all"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$", hasSize(1_200)))
+                .andExpect(jsonPath("$[0].email").value("user0@example.com"));
+    }
+
+    @Test
+    void emptyTableStreamsEmptyArray() throws Exception {
+
+        MvcResult result = mockMvc.perform(get("/api/posts/all"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().json("[]"));
+    }
+
+    @Test
+    void allPostsStreamsSavedPosts() throws Exception {
+
+        postRepository.save(objectMapper.readValue("{\"user_id\":7,\"title\":\"Hello\",\"body\":\"World\"}", Post.class));
+
+        MvcResult result = mockMvc.perform(get("/api/posts/all"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].title").value("Hello"))
+                .andExpect(jsonPath("$[0].user_id").value(7));
+    }
+
+}
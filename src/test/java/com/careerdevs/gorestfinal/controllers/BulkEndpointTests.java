@@ -0,0 +1,254 @@
+package com.careerdevs.gorestfinal.controllers;
+
+import com.careerdevs.gorestfinal.models.User;
+import com.careerdevs.gorestfinal.repositories.PostRepository;
+import com.careerdevs.gorestfinal.repositories.UserRepository;
+import com.careerdevs.gorestfinal.services.BulkWriteService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import jakarta.persistence.EntityManagerFactory;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.not;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.properties.hibernate.session.events.log=false"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class BulkEndpointTests {
+
+    private static final int USERS = 1_200;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private BulkWriteService bulkWriteService;
+
+    @AfterEach
+    void cleanUp() {
+        postRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void jsonArrayIsInsertedInBatches() throws Exception {
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        String body = mockMvc.perform(post("/api/users/bulk").contentType(MediaType.APPLICATION_JSON)
+                        .content(usersJsonArray(USERS)))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.rows").value(USERS))
+                .andReturn().getResponse().getContentAsString();
+
+        assertEquals(USERS, userRepository.count());
+        assertEquals(USERS, objectMapper.readTree(body).get("ids").size());
+
+        // one INSERT per 50 rows plus one sequence call per 50 ids, instead of one INSERT per row
+        assertTrue(statistics.getPrepareStatementCount() <= USERS / 50 * 2 + 10,
+                "expected batched inserts but saw " + statistics.getPrepareStatementCount() + " statements");
+    }
+
+    @Test
+    void ndjsonIsAcceptedAndClientIdsAreIgnored() throws Exception {
+
+        String ndjson = "{\"id\":999999,\"name\":\"A\",\"email\":\"a@example.com\",\"gender\":\"male\",\"status\":\"active\"}\n" +
+                "{\"name\":\"B\",\"email\":\"b@example.com\",\"gender\":\"female\",\"status\":\"inactive\"}\n";
+
+        String body = mockMvc.perform(post("/api/users/bulk").contentType(MediaType.APPLICATION_NDJSON).content(ndjson))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.rows").value(2))
+                .andReturn().getResponse().getContentAsString();
+
+        long firstId = objectMapper.readTree(body).get("ids").get(0).asLong();
+
+        assertTrue(firstId != 999999);
+        assertEquals("A", userRepository.findById(firstId).orElseThrow().getName());
+    }
+
+    @Test
+    void invalidEntriesAreReportedByIndexAndNothingIsWritten() throws Exception {
+
+        String body = "[" +
+                "{\"name\":\"Ok\",\"email\":\"ok@example.com\",\"gender\":\"male\",\"status\":\"active\"}," +
+                "{\"name\":\"\",\"email\":\"blank@example.com\",\"gender\":\"male\",\"status\":\"active\"}," +
+                "{\"name\":\"Ok\",\"email\":\"other@example.com\",\"gender\":\"male\",\"status\":\"active\"}," +
+                "{\"name\":\"No email\",\"gender\":\"male\",\"status\":\"active\"}" +
+                "]";
+
+        mockMvc.perform(post("/api/users/bulk").contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string(containsString("\"1\":{\"name\":\"Name cannot be left blank.\"}")))
+                .andExpect(content().string(containsString("\"3\":{\"email\":\"Email cannot be left blank.\"}")))
+                .andExpect(content().string(not(containsString("\"0\""))))
+                .andExpect(content().string(not(containsString("\"2\""))));
+
+        assertEquals(0, userRepository.count());
+    }
+
+    @Test
+    void malformedBodyIsA400() throws Exception {
+
+        mockMvc.perform(post("/api/users/bulk").contentType(MediaType.APPLICATION_JSON).content("[{\"name\":"))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(post("/api/users/bulk").contentType(MediaType.APPLICATION_JSON).content("[]"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void bulkUpdateChecksExistenceWithOneQueryPerChunk() throws Exception {
+
+        List<User> saved = new ArrayList<>();
+        userRepository.saveAll(users(USERS)).forEach(saved::add);
+
+        StringBuilder body = new StringBuilder();
+        for (User user : saved) {
+            body.append("{\"id\":").append(user.getId()).append(",\"name\":\"Renamed\",\"email\":\"")
+                    .append(user.getEmail()).append("\",\"gender\":\"male\",\"status\":\"inactive\"}\n");
+        }
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        mockMvc.perform(put("/api/users/bulk").contentType(MediaType.APPLICATION_NDJSON).content(body.toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.rows").value(USERS));
+
+        // two chunks: one SELECT ... IN and the batched UPDATEs each
+        assertTrue(statistics.getPrepareStatementCount() <= 2 + USERS / 50 + 2,
+                "expected batched updates but saw " + statistics.getPrepareStatementCount() + " statements");
+
+        userRepository.findAll().forEach(user -> assertEquals("Renamed", user.getName()));
+    }
+
+    @Test
+    void bulkUpdateWithMissingIdsRollsBack() throws Exception {
+
+        User existing = userRepository.save(users(1).get(0));
+
+        String body = "[" +
+                "{\"id\":" + existing.getId() + ",\"name\":\"Renamed\",\"email\":\"x@example.com\",\"gender\":\"male\",\"status\":\"active\"}," +
+                "{\"id\":" + (existing.getId() + 1000) + ",\"name\":\"Ghost\",\"email\":\"g@example.com\",\"gender\":\"male\",\"status\":\"active\"}" +
+                "]";
+
+        String response = mockMvc.perform(put("/api/users/bulk").contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isBadRequest())
+                .andReturn().getResponse().getContentAsString();
+
+        JsonNode errors = objectMapper.readTree(response).get("errors");
+        assertEquals("No user found with the ID: " + (existing.getId() + 1000), errors.get("1").get("id").asText());
+
+        assertEquals("User 0", userRepository.findById(existing.getId()).orElseThrow().getName());
+    }
+
+    @Test
+    void aGetDuringTheBulkTransactionLeavesNoStaleRowCached() throws Exception {
+
+        User existing = userRepository.save(users(1).get(0));
+
+        // userRepository, except that another request reads the row while the bulk transaction is still open
+        @SuppressWarnings("unchecked")
+        CrudRepository<User, Long> readDuringTheWrite = (CrudRepository<User, Long>) Proxy.newProxyInstance(
+                getClass().getClassLoader(), new Class<?>[]{CrudRepository.class}, (proxy, method, args) -> {
+
+                    Object result = method.invoke(userRepository, args);
+
+                    if (method.getName().equals("saveAll")) {
+                        ExecutorService otherRequest = Executors.newSingleThreadExecutor();
+                        try {
+                            otherRequest.submit(() -> mockMvc.perform(get("/api/users/" + existing.getId()))
+                                    .andExpect(jsonPath("$.name").value("User 0"))).get(10, TimeUnit.SECONDS);
+                        } finally {
+                            otherRequest.shutdown();
+                        }
+                    }
+
+                    return result;
+                });
+
+        User renamed = users(1).get(0);
+        renamed.setId(existing.getId());
+        renamed.setName("Renamed");
+
+        bulkWriteService.update("users", List.of(renamed), readDuringTheWrite, User::getId, "No user found with the ID: ");
+
+        mockMvc.perform(get("/api/users/" + existing.getId())).andExpect(jsonPath("$.name").value("Renamed"));
+    }
+
+    @Test
+    void postsHaveBulkEndpointsToo() throws Exception {
+
+        User author = userRepository.save(users(1).get(0));
+
+        mockMvc.perform(post("/api/posts/bulk").contentType(MediaType.APPLICATION_NDJSON)
+                        .content("{\"user_id\":" + author.getId() + ",\"title\":\"One\",\"body\":\"Body\"}\n" +
+                                "{\"user_id\":" + author.getId() + ",\"title\":\"Two\",\"body\":\"Body\"}\n"))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.resource").value("posts"))
+                .andExpect(jsonPath("$.rows").value(2));
+
+        assertEquals(2, postRepository.count());
+    }
+
+    private static List<User> users(int count) {
+
+        List<User> users = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            User user = new User();
+            user.setName("User " + i);
+            user.setEmail("user" + i + "@example.com");
+            user.setGender("female");
+            user.setStatus("active");
+            users.add(user);
+        }
+        return users;
+    }
+
+    private String usersJsonArray(int count) throws Exception {
+        return objectMapper.writeValueAsString(users(count));
+    }
+
+}
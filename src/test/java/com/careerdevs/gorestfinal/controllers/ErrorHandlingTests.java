@@ -0,0 +1,117 @@
+package com.careerdevs.gorestfinal.controllers;
+
+import com.careerdevs.gorestfinal.utils.ApiClientError;
+import com.careerdevs.gorestfinal.utils.ApiErrorHandling;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ErrorHandlingTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void invalidIdsAreA400WithTheSameMessageEverywhere() throws Exception {
+
+        mockMvc.perform(get("/api/users/abc"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.detail").value("abc is not a valid ID"));
+
+        mockMvc.perform(delete("/api/posts/-1"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.detail").value("-1 is not a valid ID"));
+
+        mockMvc.perform(get("/api/todos/99999999999999999999"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.detail").value("99999999999999999999 is not a valid ID"));
+    }
+
+    @Test
+    void errorsAreProblemDocuments() throws Exception {
+
+        mockMvc.perform(get("/api/users/abc"))
+                .andExpect(content().contentType(MediaType.APPLICATION_PROBLEM_JSON))
+                .andExpect(content().json("{\"type\":\"about:blank\",\"title\":\"Bad Request\",\"status\":400," +
+                        "\"detail\":\"abc is not a valid ID\"}", true));
+
+        mockMvc.perform(post("/api/users/").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\" \",\"gender\":\"male\",\"status\":\"active\"}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().contentType(MediaType.APPLICATION_PROBLEM_JSON))
+                .andExpect(content().json("{\"type\":\"about:blank\",\"title\":\"Bad Request\",\"status\":400," +
+                        "\"detail\":\"Validation failed.\",\"errors\":{\"name\":\"Name cannot be left blank.\"," +
+                        "\"email\":\"Email cannot be left blank.\"}}", true));
+    }
+
+    @Test
+    void idsBeyondIntegerRangeAreLookedUp() throws Exception {
+
+        mockMvc.perform(get("/api/comments/3000000000"))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.detail").value("Comment Not Found With ID: 3000000000"));
+    }
+
+    @Test
+    void clientErrorsKeepTheirBodies() throws Exception {
+
+        mockMvc.perform(put("/api/users/").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"id\":123456,\"name\":\"Nobody\",\"email\":\"n@example.com\",\"gender\":\"male\",\"status\":\"active\"}"))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.detail").value("No user found with the ID: 123456"));
+
+        mockMvc.perform(get("/api/users/?limit=0"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.detail").value("Limit must be between 1 and 100."));
+
+        mockMvc.perform(post("/api/users/bulk").contentType(MediaType.APPLICATION_JSON).content("[]"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.detail").value("A bulk request needs at least one entry."));
+    }
+
+    @Test
+    void malformedBodiesKeepSpringsHandling() throws Exception {
+
+        mockMvc.perform(post("/api/users/").contentType(MediaType.APPLICATION_JSON).content("{\"name\":"))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(post("/api/users/").contentType(MediaType.TEXT_PLAIN).content("name"))
+                .andExpect(status().isUnsupportedMediaType());
+    }
+
+    @Test
+    void parseIdNeverThrows() {
+
+        assertEquals(0, ApiErrorHandling.parseId("0"));
+        assertEquals(Long.MAX_VALUE, ApiErrorHandling.parseId(String.valueOf(Long.MAX_VALUE)));
+
+        assertEquals(ApiErrorHandling.INVALID_ID, ApiErrorHandling.parseId("9223372036854775808"));
+        assertEquals(ApiErrorHandling.INVALID_ID, ApiErrorHandling.parseId("+1"));
+        assertEquals(ApiErrorHandling.INVALID_ID, ApiErrorHandling.parseId(" 1"));
+        assertEquals(ApiErrorHandling.INVALID_ID, ApiErrorHandling.parseId(""));
+        assertEquals(ApiErrorHandling.INVALID_ID, ApiErrorHandling.parseId(null));
+    }
+
+    @Test
+    void apiClientErrorsHaveNoStackTrace() {
+        assertEquals(0, new ApiClientError(HttpStatus.BAD_REQUEST, "bad").getStackTrace().length);
+    }
+
+}
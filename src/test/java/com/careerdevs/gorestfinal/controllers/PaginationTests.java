@@ -0,0 +1,128 @@
+package com.careerdevs.gorestfinal.controllers;
+
+import com.careerdevs.gorestfinal.models.User;
+import com.careerdevs.gorestfinal.repositories.UserRepository;
+import com.careerdevs.gorestfinal.utils.Pagination;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class PaginationTests {
+
+    private static final int USERS = 25;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private List<User> savedUsers;
+
+    @BeforeEach
+    void seed() {
+
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < USERS; i++) {
+            User user = new User();
+            user.setName("User " + i);
+            user.setEmail("user" + i + "@example.com");
+            user.setGender("female");
+            user.setStatus("active");
+            users.add(user);
+        }
+
+        savedUsers = new ArrayList<>();
+        userRepository.saveAll(users).forEach(savedUsers::add);
+    }
+
+    @AfterEach
+    void cleanUp() {
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void pageModeSendsGoRestStyleHeaders() throws Exception {
+
+        mockMvc.perform(get("/api/users/").param("page", "2").param("limit", "10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(10)))
+                .andExpect(jsonPath("$[0].id").value(savedUsers.get(10).getId()))
+                .andExpect(header().string(Pagination.TOTAL_HEADER, String.valueOf(USERS)))
+                .andExpect(header().string(Pagination.PAGES_HEADER, "3"))
+                .andExpect(header().string(Pagination.PAGE_HEADER, "2"))
+                .andExpect(header().string(Pagination.LIMIT_HEADER, "10"))
+                .andExpect(header().string(Pagination.NEXT_CURSOR_HEADER, String.valueOf(savedUsers.get(19).getId())));
+    }
+
+    @Test
+    void keysetModeWalksEveryRowOnce() throws Exception {
+
+        Set<Long> seen = new HashSet<>();
+        String cursor = "0";
+        int requests = 0;
+
+        while (cursor != null) {
+
+            MvcResult result = mockMvc.perform(get("/api/users/").param("after", cursor).param("limit", "10"))
+                    .andExpect(status().isOk())
+                    .andExpect(header().doesNotExist(Pagination.TOTAL_HEADER))
+                    .andReturn();
+
+            JsonNode page = objectMapper.readTree(result.getResponse().getContentAsString());
+            page.forEach(user -> seen.add(user.get("id").asLong()));
+
+            cursor = result.getResponse().getHeader(Pagination.NEXT_CURSOR_HEADER);
+            requests++;
+        }
+
+        assertEquals(USERS, seen.size());
+        assertEquals(3, requests);
+    }
+
+    @Test
+    void lastKeysetPageHasNoNextCursor() throws Exception {
+
+        String lastId = String.valueOf(savedUsers.get(USERS - 1).getId());
+
+        mockMvc.perform(get("/api/users/").param("after", lastId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(0)))
+                .andExpect(header().doesNotExist(Pagination.NEXT_CURSOR_HEADER));
+    }
+
+    @Test
+    void invalidParametersAreRejected() throws Exception {
+
+        mockMvc.perform(get("/api/users/").param("after", "abc")).andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/users/").param("page", "0")).andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/users/").param("limit", "1000")).andExpect(status().isBadRequest());
+    }
+
+}
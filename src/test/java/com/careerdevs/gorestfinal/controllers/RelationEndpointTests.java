@@ -0,0 +1,262 @@
+package com.careerdevs.gorestfinal.controllers;
+
+import com.careerdevs.gorestfinal.models.Comment;
+import com.careerdevs.gorestfinal.models.Post;
+import com.careerdevs.gorestfinal.models.ToDo;
+import com.careerdevs.gorestfinal.models.User;
+import com.careerdevs.gorestfinal.repositories.CommentRepository;
+import com.careerdevs.gorestfinal.repositories.IdIndex;
+import com.careerdevs.gorestfinal.repositories.PostRepository;
+import com.careerdevs.gorestfinal.repositories.ToDoRepository;
+import com.careerdevs.gorestfinal.repositories.UserRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import jakarta.persistence.EntityManagerFactory;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * The /{id}/posts and /{id}/comments endpoints, the cascading deletes and the batch fetching of the
+ * lazy many-to-one associations. The second-level cache is off so every load shows up as a statement.
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+        "spring.jpa.properties.hibernate.cache.use_query_cache=false",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.properties.hibernate.session.events.log=false"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class RelationEndpointTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private ToDoRepository toDoRepository;
+
+    @Autowired
+    private IdIndex idIndex;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    void cleanUp() {
+        commentRepository.deleteAll();
+        toDoRepository.deleteAll();
+        postRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void childrenAreOneStatementHoweverManyThereAre() throws Exception {
+
+        User author = userRepository.save(user("author@example.com"));
+        Post first = postRepository.save(newPost(author, "First"));
+        postRepository.save(newPost(author, "Second"));
+        postRepository.save(newPost(author, "Third"));
+        commentRepository.save(comment(first, "One"));
+        commentRepository.save(comment(first, "Two"));
+
+        Statistics statistics = statistics();
+
+        mockMvc.perform(get("/api/users/" + author.getId() + "/posts"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(3))
+                .andExpect(jsonPath("$[0].title").value("First"))
+                .andExpect(jsonPath("$[0].user_id").value(author.getId()))
+                .andExpect(jsonPath("$[0].user").doesNotExist());
+
+        mockMvc.perform(get("/api/posts/" + first.getId() + "/comments"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2));
+
+        assertEquals(2, statistics.getPrepareStatementCount());
+
+        mockMvc.perform(get("/api/users/" + (author.getId() + 1000) + "/posts")).andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/posts/" + (first.getId() + 1000) + "/comments")).andExpect(status().isNotFound());
+
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void deletingAUserDeletesWhatReferencesIt() throws Exception {
+
+        User leaving = userRepository.save(user("leaving@example.com"));
+        User staying = userRepository.save(user("staying@example.com"));
+
+        Post leavingPost = postRepository.save(newPost(leaving, "Leaving"));
+        Post stayingPost = postRepository.save(newPost(staying, "Staying"));
+        Comment goneComment = commentRepository.save(comment(leavingPost, "Gone"));
+        commentRepository.save(comment(stayingPost, "Kept"));
+        ToDo goneToDo = toDoRepository.save(toDo(leaving));
+        toDoRepository.save(toDo(staying));
+
+        mockMvc.perform(delete("/api/users/" + leaving.getId())).andExpect(status().isOk());
+
+        assertFalse(postRepository.existsById(leavingPost.getId()));
+        assertEquals(List.of("Kept"), commentRepository.findByPostId(stayingPost.getId()).stream().map(Comment::getName).toList());
+        assertEquals(1, commentRepository.count());
+        assertEquals(1, toDoRepository.count());
+        assertTrue(postRepository.existsById(stayingPost.getId()));
+
+        assertFalse(idIndex.exists(Comment.class, goneComment.getId()));
+        assertFalse(idIndex.exists(ToDo.class, goneToDo.getId()));
+        mockMvc.perform(get("/api/comments/" + goneComment.getId())).andExpect(status().isNotFound());
+
+        // the deleted post left the IdIndex with the user, so it can no longer be commented on
+        mockMvc.perform(post("/api/comments/").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"post_id\":" + leavingPost.getId() + ",\"name\":\"Late\",\"email\":\"late@example.com\",\"body\":\"Body\"}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errors.post_id")
+                        .value("Post_ID is invalid because there is no post found with the ID: " + leavingPost.getId()));
+    }
+
+    @Test
+    void deletingAPostDeletesItsComments() throws Exception {
+
+        User author = userRepository.save(user("author@example.com"));
+        Post leavingPost = postRepository.save(newPost(author, "Leaving"));
+        Post stayingPost = postRepository.save(newPost(author, "Staying"));
+        Comment goneComment = commentRepository.save(comment(leavingPost, "Gone"));
+        commentRepository.save(comment(stayingPost, "Kept"));
+
+        mockMvc.perform(delete("/api/posts/" + leavingPost.getId())).andExpect(status().isOk());
+
+        assertEquals(List.of("Kept"), commentRepository.findByPostId(stayingPost.getId()).stream().map(Comment::getName).toList());
+        assertEquals(1, commentRepository.count());
+        assertFalse(idIndex.exists(Comment.class, goneComment.getId()));
+    }
+
+    @Test
+    void deletingAllUsersLeavesNoOrphans() throws Exception {
+
+        User author = userRepository.save(user("author@example.com"));
+        Post post = postRepository.save(newPost(author, "Post"));
+        Comment comment = commentRepository.save(comment(post, "Comment"));
+        ToDo toDo = toDoRepository.save(toDo(author));
+
+        mockMvc.perform(delete("/api/users/deleteall")).andExpect(status().isOk());
+
+        assertEquals(0, postRepository.count());
+        assertEquals(0, commentRepository.count());
+        assertEquals(0, toDoRepository.count());
+
+        assertFalse(idIndex.exists(Post.class, post.getId()));
+        assertFalse(idIndex.exists(Comment.class, comment.getId()));
+        assertFalse(idIndex.exists(ToDo.class, toDo.getId()));
+    }
+
+    @Test
+    void deletingAllPostsDeletesEveryComment() throws Exception {
+
+        User author = userRepository.save(user("author@example.com"));
+        Post post = postRepository.save(newPost(author, "Post"));
+        Comment comment = commentRepository.save(comment(post, "Comment"));
+        toDoRepository.save(toDo(author));
+
+        mockMvc.perform(delete("/api/posts/deleteall")).andExpect(status().isOk());
+
+        assertEquals(0, commentRepository.count());
+        assertFalse(idIndex.exists(Comment.class, comment.getId()));
+
+        // the users and their todos stay
+        assertEquals(1, userRepository.count());
+        assertEquals(1, toDoRepository.count());
+    }
+
+    @Test
+    void lazyParentsAreFetchedInBatches() {
+
+        for (int i = 0; i < 10; i++) {
+            User author = userRepository.save(user("author" + i + "@example.com"));
+            Post post = postRepository.save(newPost(author, "Post " + i));
+            commentRepository.save(comment(post, "Comment " + i));
+        }
+
+        Statistics statistics = statistics();
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            for (Comment comment : commentRepository.findAll()) {
+                assertEquals(comment.getPost_id(), comment.getPost().getId());
+                assertTrue(comment.getPost().getTitle().startsWith("Post "));
+            }
+        });
+
+        // the comments, then all ten posts in one batch instead of one SELECT each
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    private Statistics statistics() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        return statistics;
+    }
+
+    private static User user(String email) {
+
+        User user = new User();
+        user.setName("Related");
+        user.setEmail(email);
+        user.setGender("male");
+        user.setStatus("active");
+        return user;
+    }
+
+    private Post newPost(User author, String title) {
+        return read("{\"user_id\":" + author.getId() + ",\"title\":\"" + title + "\",\"body\":\"Body\"}", Post.class);
+    }
+
+    private Comment comment(Post post, String name) {
+        return read("{\"post_id\":" + post.getId() + ",\"name\":\"" + name + "\",\"email\":\"c@example.com\",\"body\":\"Body\"}", Comment.class);
+    }
+
+    private ToDo toDo(User user) {
+        return read("{\"user_id\":" + user.getId() + ",\"title\":\"Todo\",\"due_on\":\"2026-10-17T00:00:00.000+05:30\",\"status\":\"pending\"}", ToDo.class);
+    }
+
+    private <T> T read(String json, Class<T> type) {
+        try {
+            return objectMapper.readValue(json, type);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+}
@@ -0,0 +1,184 @@
+package com.careerdevs.gorestfinal.controllers;
+
+import com.careerdevs.gorestfinal.models.Post;
+import com.careerdevs.gorestfinal.models.User;
+import com.careerdevs.gorestfinal.repositories.ChunkedDelete;
+import com.careerdevs.gorestfinal.repositories.PostRepository;
+import com.careerdevs.gorestfinal.repositories.UserRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultMatcher;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import jakarta.persistence.EntityManagerFactory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Regression test for the write paths: every PUT by id is exactly one SQL statement, whether or not
+ * the row exists. A DELETE by id is one statement for the row and two per table it cascades to (the ids
+ * for the IdIndex, then the delete), and none for an id the IdIndex does not know. /deleteall is one
+ * statement per chunk of each table it cascades to, however many rows it removes.
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.properties.hibernate.session.events.log=false"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class WriteStatementCountTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User savedUser;
+
+    private Post savedPost;
+
+    @BeforeEach
+    void seed() throws Exception {
+
+        User user = new User();
+        user.setName("Writer");
+        user.setEmail("writer@example.com");
+        user.setGender("male");
+        user.setStatus("active");
+        savedUser = userRepository.save(user);
+
+        savedPost = postRepository.save(objectMapper.readValue(
+                "{\"user_id\":" + savedUser.getId() + ",\"title\":\"Title\",\"body\":\"Body\"}", Post.class));
+    }
+
+    @AfterEach
+    void cleanUp() {
+        postRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void updateUserIsOneStatement() throws Exception {
+
+        assertStatements(1, put("/api/users/").contentType(MediaType.APPLICATION_JSON)
+                        .content(userJson(savedUser.getId(), "Renamed")),
+                status().isOk());
+
+        assertEquals("Renamed", userRepository.findById(savedUser.getId()).orElseThrow().getName());
+    }
+
+    @Test
+    void updateUserOutsideTheSecondLevelCacheIsOneStatement() throws Exception {
+
+        // nothing to look up first, so a cold row costs no extra SELECT
+        entityManagerFactory.getCache().evict(User.class);
+
+        assertStatements(1, put("/api/users/").contentType(MediaType.APPLICATION_JSON)
+                        .content(userJson(savedUser.getId(), "Cold")),
+                status().isOk());
+    }
+
+    @Test
+    void updateMissingUserIsOneStatementAnd404() throws Exception {
+
+        assertStatements(1, put("/api/users/").contentType(MediaType.APPLICATION_JSON)
+                        .content(userJson(savedUser.getId() + 1000, "Nobody")),
+                status().isNotFound());
+    }
+
+    @Test
+    void deleteUserIsOneStatementPerTable() throws Exception {
+
+        // the user, then the ids and the delete of their comments, posts and todos
+        assertStatements(7, delete("/api/users/" + savedUser.getId()), status().isOk());
+
+        assertFalse(userRepository.existsById(savedUser.getId()));
+        assertFalse(postRepository.existsById(savedPost.getId()));
+    }
+
+    @Test
+    void deleteMissingUserIsNoStatementAnd404() throws Exception {
+
+        assertStatements(0, delete("/api/users/" + (savedUser.getId() + 1000)), status().isNotFound());
+    }
+
+    @Test
+    void updatePostIsOneStatement() throws Exception {
+
+        assertStatements(1, put("/api/posts/").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"id\":" + savedPost.getId() + ",\"user_id\":" + savedUser.getId() +
+                                ",\"title\":\"New title\",\"body\":\"New body\"}"),
+                status().isOk(), jsonPath("$.title").value("New title"));
+    }
+
+    @Test
+    void deletePostIsOneStatementPerTable() throws Exception {
+
+        // the post, then the ids and the delete of its comments
+        assertStatements(3, delete("/api/posts/" + savedPost.getId()), status().isOk());
+        assertStatements(0, delete("/api/posts/" + savedPost.getId()), status().isNotFound());
+    }
+
+    @Test
+    void deleteAllIsOneStatementPerChunk() throws Exception {
+
+        jdbcTemplate.update("insert into user (id, name, email, gender, status) " +
+                "select 1000000 + x, 'Bulk', 'bulk' || x || '@example.com', 'male', 'active' from system_range(1, ?)",
+                ChunkedDelete.DELETE_CHUNK_SIZE);
+
+        // one chunk each for the comments, posts and todos, two for the seeded user plus a full chunk,
+        // then one IdIndex rescan per table
+        assertStatements(9, delete("/api/users/deleteall"),
+                status().isOk(), content().string("Users Deleted: " + (ChunkedDelete.DELETE_CHUNK_SIZE + 1)));
+
+        assertEquals(0, userRepository.count());
+    }
+
+    private void assertStatements(long expected, MockHttpServletRequestBuilder request, ResultMatcher... matchers)
+            throws Exception {
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        mockMvc.perform(request).andExpectAll(matchers);
+
+        assertEquals(expected, statistics.getPrepareStatementCount(),
+                request.buildRequest(null).getMethod() + " sent the wrong number of statements");
+    }
+
+    private static String userJson(long id, String name) {
+        return "{\"id\":" + id + ",\"name\":\"" + name + "\",\"email\":\"writer@example.com\"," +
+                "\"gender\":\"male\",\"status\":\"active\"}";
+    }
+
+}
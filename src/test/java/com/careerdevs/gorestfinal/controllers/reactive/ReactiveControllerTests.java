@@ -0,0 +1,254 @@
+package com.careerdevs.gorestfinal.controllers.reactive;
+
+import com.careerdevs.gorestfinal.models.Comment;
+import com.careerdevs.gorestfinal.models.Post;
+import com.careerdevs.gorestfinal.models.ToDo;
+import com.careerdevs.gorestfinal.models.User;
+import com.careerdevs.gorestfinal.repositories.reactive.ReactiveCommentRepository;
+import com.careerdevs.gorestfinal.repositories.reactive.ReactivePostRepository;
+import com.careerdevs.gorestfinal.repositories.reactive.ReactiveToDoRepository;
+import com.careerdevs.gorestfinal.repositories.reactive.ReactiveUserRepository;
+import com.careerdevs.gorestfinal.utils.Pagination;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+/**
+ * Runs the reactive profile against an in-memory H2 over R2DBC and checks the endpoints answer like
+ * the servlet ones.
+ */
+@SpringBootTest(properties = {
+        "spring.r2dbc.url=r2dbc:h2:mem:///reactive-controller-tests?options=MODE=MySQL;NON_KEYWORDS=USER;DB_CLOSE_DELAY=-1",
+        "spring.r2dbc.username=sa",
+        "spring.r2dbc.password=",
+        // the same in-memory database over JDBC, for the migrations
+        "spring.flyway.url=jdbc:h2:mem:reactive-controller-tests;MODE=MySQL;NON_KEYWORDS=USER;DB_CLOSE_DELAY=-1"
+})
+@AutoConfigureWebTestClient
+@ActiveProfiles({"test", "reactive"})
+class ReactiveControllerTests {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private ReactiveUserRepository userRepository;
+
+    @Autowired
+    private ReactivePostRepository postRepository;
+
+    @Autowired
+    private ReactiveCommentRepository commentRepository;
+
+    @Autowired
+    private ReactiveToDoRepository toDoRepository;
+
+    @AfterEach
+    void cleanUp() {
+        commentRepository.deleteAll().block();
+        toDoRepository.deleteAll().block();
+        postRepository.deleteAll().block();
+        userRepository.deleteAll().block();
+    }
+
+    @Test
+    void userCrudRoundTrip() {
+
+        User created = createUser("Reactive");
+        assertNotNull(created.getId());
+
+        webTestClient.get().uri("/api/users/" + created.getId()).exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$.name").isEqualTo("Reactive");
+
+        webTestClient.put().uri("/api/users/").contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(userJson(created.getId(), "Renamed"))
+                .exchange()
+                .expectStatus().isOk();
+
+        assertEquals("Renamed", userRepository.findById(created.getId()).block().getName());
+
+        webTestClient.delete().uri("/api/users/" + created.getId()).exchange()
+                .expectStatus().isOk()
+                .expectBody(String.class).isEqualTo("User Deleted With ID: " + created.getId());
+
+        webTestClient.delete().uri("/api/users/" + created.getId()).exchange().expectStatus().isNotFound();
+        webTestClient.get().uri("/api/users/" + created.getId()).exchange().expectStatus().isNotFound();
+    }
+
+    @Test
+    void clientErrorsMatchTheServletStack() {
+
+        webTestClient.get().uri("/api/users/abc").exchange()
+                .expectStatus().isBadRequest()
+                .expectBody().jsonPath("$.detail").isEqualTo("abc is not a valid ID");
+
+        webTestClient.post().uri("/api/users/").contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"name\":\"No email\",\"gender\":\"male\",\"status\":\"active\"}")
+                .exchange()
+                .expectStatus().isBadRequest();
+
+        webTestClient.put().uri("/api/users/").contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(userJson(123456, "Nobody"))
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    void idsComeFromTheSharedSequence() {
+
+        long first = createUser("First").getId();
+        long second = createUser("Second").getId();
+
+        // one sequence value per insert, each value is the top of its own block of 50
+        assertEquals(50, second - first);
+    }
+
+    @Test
+    void pageAndKeysetHeaders() {
+
+        for (int i = 0; i < 5; i++) {
+            createUser("User " + i);
+        }
+
+        List<User> firstPage = webTestClient.get().uri("/api/users/?page=1&limit=2").exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(Pagination.TOTAL_HEADER, "5")
+                .expectHeader().valueEquals(Pagination.PAGES_HEADER, "3")
+                .expectBodyList(User.class).hasSize(2)
+                .returnResult().getResponseBody();
+
+        long cursor = firstPage.get(1).getId();
+
+        webTestClient.get().uri("/api/users/?after=" + cursor + "&limit=2").exchange()
+                .expectStatus().isOk()
+                .expectHeader().exists(Pagination.NEXT_CURSOR_HEADER)
+                .expectBodyList(User.class).hasSize(2);
+
+        webTestClient.get().uri("/api/users/?limit=500").exchange().expectStatus().isBadRequest();
+    }
+
+    @Test
+    void allStreamsAsJsonArrayOrNdjson() {
+
+        for (int i = 0; i < 3; i++) {
+            createUser("User " + i);
+        }
+
+        webTestClient.get().uri("/api/users/all").exchange()
+                .expectStatus().isOk()
+                .expectBodyList(User.class).hasSize(3);
+
+        String ndjson = webTestClient.get().uri("/api/users/all").accept(MediaType.APPLICATION_NDJSON).exchange()
+                .expectStatus().isOk()
+                .expectBody(String.class).returnResult().getResponseBody();
+
+        assertEquals(3, ndjson.trim().split("\n").length);
+    }
+
+    @Test
+    void postUpdateAndDeleteAll() {
+
+        long userId = createUser("Author").getId();
+
+        String created = webTestClient.post().uri("/api/posts/").contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"user_id\":" + userId + ",\"title\":\"Title\",\"body\":\"Body\"}")
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody(String.class).returnResult().getResponseBody();
+
+        long postId = Long.parseLong(created.replaceAll(".*\"id\":(\\d+).*", "$1"));
+
+        webTestClient.put().uri("/api/posts/").contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"id\":" + postId + ",\"user_id\":" + userId + ",\"title\":\"New title\",\"body\":\"Body\"}")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$.title").isEqualTo("New title");
+
+        createComment(postId);
+
+        webTestClient.delete().uri("/api/posts/deleteall").exchange()
+                .expectStatus().isOk()
+                .expectBody(String.class).isEqualTo("Posts Deleted: 1");
+
+        assertEquals(0, commentRepository.count().block());
+    }
+
+    @Test
+    void deletingAUserDeletesWhatReferencesIt() {
+
+        long leaving = createUser("Leaving").getId();
+        long staying = createUser("Staying").getId();
+
+        long leavingPost = createPost(leaving);
+        long stayingPost = createPost(staying);
+        createComment(leavingPost);
+        createComment(stayingPost);
+        createToDo(leaving);
+        createToDo(staying);
+
+        webTestClient.delete().uri("/api/users/" + leaving).exchange().expectStatus().isOk();
+
+        assertEquals(List.of(stayingPost), postRepository.findAll().map(Post::getId).collectList().block());
+        assertEquals(List.of(stayingPost), commentRepository.findAll().map(Comment::getPost_id).collectList().block());
+        assertEquals(List.of(staying), toDoRepository.findAll().map(ToDo::getUser_id).collectList().block());
+
+        webTestClient.delete().uri("/api/users/deleteall").exchange()
+                .expectStatus().isOk()
+                .expectBody(String.class).isEqualTo("Users Deleted: 1");
+
+        assertEquals(0, postRepository.count().block());
+        assertEquals(0, commentRepository.count().block());
+        assertEquals(0, toDoRepository.count().block());
+    }
+
+    private User createUser(String name) {
+
+        return webTestClient.post().uri("/api/users/").contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"name\":\"" + name + "\",\"email\":\"" + name.toLowerCase().replace(' ', '.') + "@example.com\"," +
+                        "\"gender\":\"female\",\"status\":\"active\"}")
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody(User.class).returnResult().getResponseBody();
+    }
+
+    private long createPost(long userId) {
+        return create("/api/posts/", "{\"user_id\":" + userId + ",\"title\":\"Title\",\"body\":\"Body\"}");
+    }
+
+    private long createComment(long postId) {
+        return create("/api/comments/", "{\"post_id\":" + postId + ",\"name\":\"Name\",\"email\":\"c@example.com\",\"body\":\"Body\"}");
+    }
+
+    private long createToDo(long userId) {
+        return create("/api/todos/", "{\"user_id\":" + userId + ",\"title\":\"Todo\"," +
+                "\"due_on\":\"2026-10-17T00:00:00.000+05:30\",\"status\":\"pending\"}");
+    }
+
+    private long create(String uri, String json) {
+
+        String created = webTestClient.post().uri(uri).contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(json)
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody(String.class).returnResult().getResponseBody();
+
+        return Long.parseLong(created.replaceAll(".*\"id\":(\\d+).*", "$1"));
+    }
+
+    private static String userJson(long id, String name) {
+        return "{\"id\":" + id + ",\"name\":\"" + name + "\",\"email\":\"reactive@example.com\"," +
+                "\"gender\":\"female\",\"status\":\"active\"}";
+    }
+
+}
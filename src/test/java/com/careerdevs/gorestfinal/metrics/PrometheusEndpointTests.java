@@ -0,0 +1,132 @@
+package com.careerdevs.gorestfinal.metrics;
+
+import com.careerdevs.gorestfinal.utils.ApiErrorHandling;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureObservability(tracing = false)
+@ActiveProfiles("test")
+class PrometheusEndpointTests {
+
+    private static final HttpServer stub = startStub();
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @DynamicPropertySource
+    static void goRest(DynamicPropertyRegistry registry) {
+        registry.add("gorest.base-url", () -> "http://localhost:" + stub.getAddress().getPort() + "/public/v2");
+    }
+
+    @AfterAll
+    static void stopStub() {
+        stub.stop(0);
+    }
+
+    @Test
+    void requestsRepositoryCallsUpstreamCallsAndValidationFailuresAreScrapeable() throws Exception {
+
+        mockMvc.perform(post("/api/users/").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"\",\"gender\":\"male\",\"status\":\"active\"}"))
+                .andExpect(status().isBadRequest());
+
+        String uploaded = mockMvc.perform(post("/api/users/upload/7")).andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+
+        mockMvc.perform(get("/api/users/" + uploaded.replaceAll(".*\"id\":(\\d+).*", "$1"))).andExpect(status().isOk());
+
+        String scrape = mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        assertScraped(scrape, "http_server_requests_seconds_bucket{", "method=\"GET\"", "outcome=\"SUCCESS\"",
+                "resource=\"users\"", "uri=\"/api/users/{id}\"");
+        assertScraped(scrape, "http_server_requests_seconds_count{", "outcome=\"CLIENT_ERROR\"", "resource=\"users\"");
+        assertScraped(scrape, "http_client_requests_seconds_bucket{", "outcome=\"SUCCESS\"", "resource=\"users\"",
+                "uri=\"/public/v2/users/{id}\"");
+        assertScraped(scrape, "spring_data_repository_invocations_seconds_bucket{", "method=\"save\"",
+                "resource=\"users\"", "state=\"SUCCESS\"");
+        assertScraped(scrape, "gorest_validation_failures_total{", "field=\"email\"", "resource=\"users\"");
+        assertScraped(scrape, "gorest_validation_failures_total{", "field=\"name\"", "resource=\"users\"");
+    }
+
+    @Test
+    void serverErrorsAreCountedByException() throws Exception {
+
+        assertEquals(500, ApiErrorHandling.genericApiError(new IllegalStateException("Broken")).getStatusCode().value());
+
+        String scrape = mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        assertScraped(scrape, "gorest_errors_total{", "exception=\"IllegalStateException\"");
+    }
+
+    @Test
+    void resourceNames() {
+
+        assertEquals("users", MetricsConfig.apiResource("/api/users/{id}"));
+        assertEquals("todos", MetricsConfig.apiResource("/api/todos"));
+        assertEquals("none", MetricsConfig.apiResource("/actuator/prometheus"));
+        assertEquals("none", MetricsConfig.apiResource(null));
+
+        assertEquals("posts", MetricsConfig.upstreamResource("/public/v2/posts/42"));
+        assertEquals("posts", MetricsConfig.upstreamResource("/public/v2/posts"));
+
+        assertEquals("todos", MetricsConfig.repositoryResource("ToDoRepository"));
+        assertEquals("comments", MetricsConfig.repositoryResource("ReactiveCommentRepository"));
+    }
+
+    private static void assertScraped(String scrape, String metric, String... tags) {
+        assertTrue(scrape.lines().anyMatch(line -> line.startsWith(metric) && Arrays.stream(tags).allMatch(line::contains)),
+                "no " + metric + "} sample with " + String.join(", ", tags));
+    }
+
+    private static HttpServer startStub() {
+
+        try {
+            HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+
+            server.createContext("/public/v2/users/7", exchange -> {
+                byte[] body = "{\"id\":7,\"name\":\"Upstream\",\"email\":\"upstream@example.com\",\"gender\":\"male\",\"status\":\"active\"}"
+                        .getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().add("Content-Type", "application/json");
+                exchange.sendResponseHeaders(200, body.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(body);
+                }
+            });
+
+            server.start();
+            return server;
+
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+}
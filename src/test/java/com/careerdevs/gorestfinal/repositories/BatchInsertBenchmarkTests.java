@@ -0,0 +1,124 @@
+package com.careerdevs.gorestfinal.repositories;
+
+import com.careerdevs.gorestfinal.models.User;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Inserts 10k users through {@link UserRepository#saveAll} once with JDBC batching switched off for the
+ * session and once with the configured batch size, and prints rows per second for both runs.
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+class BatchInsertBenchmarkTests {
+
+    private static final int ROWS = 10_000;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void reset() {
+        userRepository.deleteAll();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void batchedInsertsBeatRowByRowInserts() {
+
+        // warm up the JIT and the sequence before measuring anything
+        insertUsers(1_000, 50);
+        userRepository.deleteAll();
+
+        Run unbatched = insertUsers(ROWS, 1);
+        userRepository.deleteAll();
+        Run batched = insertUsers(ROWS, 50);
+
+        System.out.printf("saveAll of %d users without batching: %.0f rows/sec, %d statements%n",
+                ROWS, unbatched.rowsPerSecond(), unbatched.statements);
+        System.out.printf("saveAll of %d users with batch_size=50: %.0f rows/sec, %d statements%n",
+                ROWS, batched.rowsPerSecond(), batched.statements);
+
+        assertEquals(ROWS, userRepository.count());
+
+        // one prepared INSERT per batch plus one sequence call per 50 ids
+        assertTrue(batched.statements <= ROWS / 50 * 2 + 10,
+                "expected a few hundred statements but saw " + batched.statements);
+        assertTrue(unbatched.statements >= ROWS, "row-by-row run should prepare one INSERT per row");
+    }
+
+    private Run insertUsers(int rows, int batchSize) {
+
+        List<User> users = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            User user = new User();
+            user.setName("User " + i);
+            user.setEmail("user" + i + "@example.com");
+            user.setGender(i % 2 == 0 ? "female" : "male");
+            user.setStatus("active");
+            users.add(user);
+        }
+
+        statistics.clear();
+        long start = System.nanoTime();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            entityManager.unwrap(Session.class).setJdbcBatchSize(batchSize);
+            userRepository.saveAll(users);
+        });
+
+        long elapsedNanos = System.nanoTime() - start;
+
+        return new Run(rows, elapsedNanos, statistics.getPrepareStatementCount());
+    }
+
+    private static class Run {
+
+        private final int rows;
+
+        private final long elapsedNanos;
+
+        private final long statements;
+
+        private Run(int rows, long elapsedNanos, long statements) {
+            this.rows = rows;
+            this.elapsedNanos = elapsedNanos;
+            this.statements = statements;
+        }
+
+        private double rowsPerSecond() {
+            return rows * 1_000_000_000.0 / elapsedNanos;
+        }
+
+    }
+
+}
@@ -0,0 +1,154 @@
+package com.careerdevs.gorestfinal.repositories;
+
+import com.careerdevs.gorestfinal.models.Post;
+import com.careerdevs.gorestfinal.models.User;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import jakarta.persistence.EntityManagerFactory;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Checks the {@link IdIndex} follows every way a user can be written: repository saves and deletes,
+ * the single statement DELETE endpoint, rolled back inserts and rows written behind Hibernate's back,
+ * and that the endpoints answer unknown ids from it.
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.properties.hibernate.session.events.log=false"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class IdIndexTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private IdIndex idIndex;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @AfterEach
+    void cleanUp() {
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void followsRepositoryWrites() {
+
+        User saved = userRepository.save(user("saved@example.com"));
+        assertTrue(idIndex.exists(User.class, saved.getId()));
+        assertFalse(idIndex.exists(Post.class, saved.getId()));
+
+        userRepository.delete(saved);
+        assertFalse(idIndex.exists(User.class, saved.getId()));
+    }
+
+    @Test
+    void followsTheDeleteEndpoint() throws Exception {
+
+        User saved = userRepository.save(user("endpoint@example.com"));
+
+        mockMvc.perform(delete("/api/users/" + saved.getId())).andExpect(status().isOk());
+
+        assertFalse(idIndex.exists(User.class, saved.getId()));
+    }
+
+    @Test
+    void rolledBackInsertsAreNotIndexed() {
+
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+
+        long id = transaction.execute(status -> {
+            User saved = userRepository.save(user("rollback@example.com"));
+            status.setRollbackOnly();
+            return saved.getId();
+        });
+
+        assertFalse(idIndex.exists(User.class, id));
+    }
+
+    @Test
+    void loadPicksUpRowsWrittenWithoutHibernate() {
+
+        jdbcTemplate.update("insert into user (id, name, email, gender, status) values (?, 'Raw', 'raw@example.com', 'male', 'active')",
+                900_000_001L);
+
+        assertFalse(idIndex.exists(User.class, 900_000_001L));
+
+        idIndex.load();
+
+        assertEquals(Set.of(900_000_001L), idIndex.existing(User.class, List.of(900_000_001L, 900_000_002L)));
+    }
+
+    @Test
+    void unknownIdsAreA404WithoutAStatement() throws Exception {
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        mockMvc.perform(get("/api/users/123456789")).andExpect(status().isNotFound());
+        mockMvc.perform(delete("/api/users/123456789")).andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/todos/123456789")).andExpect(status().isNotFound());
+        mockMvc.perform(delete("/api/comments/123456789")).andExpect(status().isNotFound());
+
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void deleteAllEmptiesTheIndex() throws Exception {
+
+        for (int i = 0; i < 3; i++) {
+            userRepository.save(user("count" + i + "@example.com"));
+        }
+
+        assertEquals(3, idIndex.count(User.class));
+
+        mockMvc.perform(delete("/api/users/deleteall"))
+                .andExpect(status().isOk())
+                .andExpect(content().string("Users Deleted: 3"));
+
+        assertEquals(0, idIndex.count(User.class));
+    }
+
+    private static User user(String email) {
+
+        User user = new User();
+        user.setName("Indexed");
+        user.setEmail(email);
+        user.setGender("female");
+        user.setStatus("active");
+        return user;
+    }
+
+}
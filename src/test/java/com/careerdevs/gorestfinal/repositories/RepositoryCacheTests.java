@@ -0,0 +1,123 @@
+package com.careerdevs.gorestfinal.repositories;
+
+import com.careerdevs.gorestfinal.models.User;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class RepositoryCacheTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private User savedUser;
+
+    @BeforeEach
+    void seed() {
+        userRepository.deleteAll();
+
+        User user = new User();
+        user.setName("Cached");
+        user.setEmail("cached@example.com");
+        user.setGender("male");
+        user.setStatus("active");
+        savedUser = userRepository.save(user);
+
+        nativeCache().invalidateAll();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void repeatedGetIsServedFromCache() throws Exception {
+
+        CacheStats before = nativeCache().stats();
+
+        for (int i = 0; i < 3; i++) {
+            mockMvc.perform(get("/api/users/" + savedUser.getId()))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.name").value("Cached"));
+        }
+
+        CacheStats stats = nativeCache().stats().minus(before);
+        assertEquals(1, stats.missCount());
+        assertEquals(2, stats.hitCount());
+
+        assertNotNull(meterRegistry.find("cache.gets").tag("cache", "users").tag("result", "hit").functionCounter());
+    }
+
+    @Test
+    void deleteInvalidatesCachedEntry() throws Exception {
+
+        mockMvc.perform(get("/api/users/" + savedUser.getId())).andExpect(status().isOk());
+        assertNotNull(usersCache().get(savedUser.getId()));
+
+        mockMvc.perform(delete("/api/users/" + savedUser.getId())).andExpect(status().isOk());
+        assertNull(usersCache().get(savedUser.getId()));
+
+        mockMvc.perform(get("/api/users/" + savedUser.getId())).andExpect(status().isNotFound());
+    }
+
+    @Test
+    void saveReplacesCachedEntry() {
+
+        userRepository.findById(savedUser.getId());
+
+        savedUser.setName("Renamed");
+        userRepository.save(savedUser);
+
+        User cached = (User) usersCache().get(savedUser.getId()).get();
+        assertEquals("Renamed", cached.getName());
+    }
+
+    @Test
+    void deleteAllClearsTheCache() {
+
+        userRepository.findById(savedUser.getId());
+        userRepository.deleteAll();
+
+        assertEquals(0, nativeCache().estimatedSize());
+    }
+
+    private Cache usersCache() {
+        return cacheManager.getCache("users");
+    }
+
+    private com.github.benmanes.caffeine.cache.Cache<Object, Object> nativeCache() {
+        return ((CaffeineCache) usersCache()).getNativeCache();
+    }
+
+}
@@ -0,0 +1,130 @@
+package com.careerdevs.gorestfinal.repositories;
+
+import com.careerdevs.gorestfinal.models.User;
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.MigrationInfo;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * The schema the Flyway migrations build: the unique email index, the TEXT bodies and due_on as a
+ * timestamp, through the endpoints.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class SchemaMigrationTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private Flyway flyway;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private ToDoRepository toDoRepository;
+
+    @AfterEach
+    void cleanUp() {
+        toDoRepository.deleteAll();
+        postRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void everyMigrationIsApplied() {
+
+        List<String> applied = Arrays.stream(flyway.info().applied()).map(MigrationInfo::getScript).toList();
+
+        assertEquals(List.of("V1__baseline.sql", "V2__constraints_and_column_types.sql", "V3__incremental_sync.sql",
+                "V4__import_checkpoints.sql"), applied);
+        assertEquals(0, flyway.info().pending().length);
+    }
+
+    @Test
+    void emailsAreUnique() throws Exception {
+
+        String user = "{\"name\":\"Taken\",\"email\":\"taken@example.com\",\"gender\":\"male\",\"status\":\"active\"}";
+
+        mockMvc.perform(post("/api/users/").contentType(MediaType.APPLICATION_JSON).content(user))
+                .andExpect(status().isCreated());
+
+        mockMvc.perform(post("/api/users/").contentType(MediaType.APPLICATION_JSON).content(user))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.errors.email").value("Email has already been taken."));
+
+        assertEquals(1, userRepository.count());
+    }
+
+    @Test
+    void dueOnIsATimestampInUtc() throws Exception {
+
+        User user = saveUser();
+
+        String created = mockMvc.perform(post("/api/todos/").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"user_id\":" + user.getId() + ",\"title\":\"Due\",\"due_on\":\"2026-10-17T00:00:00.000+05:30\",\"status\":\"pending\"}"))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+
+        String id = created.replaceAll(".*\"id\":(\\d+).*", "$1");
+
+        mockMvc.perform(get("/api/todos/" + id))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.due_on").value("2026-10-16T18:30:00.000Z"));
+
+        assertEquals("2026-10-16 18:30:00", jdbcTemplate.queryForObject(
+                "select formatdatetime(due_on, 'yyyy-MM-dd HH:mm:ss') from to_do where id = ?", String.class, Long.parseLong(id)));
+
+        mockMvc.perform(post("/api/todos/").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"user_id\":" + user.getId() + ",\"title\":\"Due\",\"due_on\":\"tomorrow\",\"status\":\"pending\"}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void bodiesAreText() throws Exception {
+
+        User user = saveUser();
+        String body = "x".repeat(5_000);
+
+        mockMvc.perform(post("/api/posts/").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"user_id\":" + user.getId() + ",\"title\":\"Long\",\"body\":\"" + body + "\"}"))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.body").value(body));
+    }
+
+    private User saveUser() {
+
+        User user = new User();
+        user.setName("Migrated");
+        user.setEmail("migrated@example.com");
+        user.setGender("female");
+        user.setStatus("active");
+        return userRepository.save(user);
+    }
+
+}
@@ -0,0 +1,136 @@
+package com.careerdevs.gorestfinal.repositories;
+
+import com.careerdevs.gorestfinal.models.User;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import jakarta.persistence.EntityManagerFactory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Counts the SQL statements a PUT /api/users/ and a GET /api/users/{id} send with and without the row
+ * in the Hibernate second-level cache. The Spring read-through cache is switched off so only the
+ * second-level cache can save the lookup.
+ */
+@SpringBootTest(properties = {
+        "spring.cache.type=none",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.properties.hibernate.session.events.log=false"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class SecondLevelCacheTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private User savedUser;
+
+    @BeforeEach
+    void seed() {
+        User user = new User();
+        user.setName("Before");
+        user.setEmail("l2@example.com");
+        user.setGender("female");
+        user.setStatus("active");
+        savedUser = userRepository.save(user);
+    }
+
+    @AfterEach
+    void cleanUp() {
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void putOnWarmRowOnlySendsTheUpdate() throws Exception {
+
+        // an earlier read leaves the row in the second-level cache
+        mockMvc.perform(get("/api/users/" + savedUser.getId())).andExpect(status().isOk());
+
+        assertEquals(1, statementsForPut());
+    }
+
+    @Test
+    void getOnWarmRowSendsNoStatements() throws Exception {
+
+        // an earlier read leaves the row in the second-level cache
+        mockMvc.perform(get("/api/users/" + savedUser.getId())).andExpect(status().isOk());
+
+        assertEquals(0, statementsForGet());
+    }
+
+    @Test
+    void getOnColdRowSelects() throws Exception {
+
+        mockMvc.perform(get("/api/users/" + savedUser.getId())).andExpect(status().isOk());
+        entityManagerFactory.getCache().evict(User.class);
+
+        assertEquals(1, statementsForGet());
+    }
+
+    @Test
+    void streamingAllLeavesTheCacheAlone() throws Exception {
+
+        entityManagerFactory.getCache().evict(User.class);
+
+        MvcResult result = mockMvc.perform(get("/api/users/all")).andReturn();
+        mockMvc.perform(asyncDispatch(result)).andExpect(status().isOk());
+
+        assertFalse(entityManagerFactory.getCache().contains(User.class, savedUser.getId()));
+
+        // a lookup by id still caches the row
+        mockMvc.perform(get("/api/users/" + savedUser.getId())).andExpect(status().isOk());
+        assertTrue(entityManagerFactory.getCache().contains(User.class, savedUser.getId()));
+    }
+
+    private long statementsForPut() throws Exception {
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        mockMvc.perform(put("/api/users/")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"id\":" + savedUser.getId() + ",\"name\":\"After\",\"email\":\"l2@example.com\"," +
+                                "\"gender\":\"female\",\"status\":\"inactive\"}"))
+                .andExpect(status().isOk());
+
+        return statistics.getPrepareStatementCount();
+    }
+
+    private long statementsForGet() throws Exception {
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        mockMvc.perform(get("/api/users/" + savedUser.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("Before"));
+
+        return statistics.getPrepareStatementCount();
+    }
+
+}
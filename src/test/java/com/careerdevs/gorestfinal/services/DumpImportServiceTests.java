@@ -0,0 +1,187 @@
+package com.careerdevs.gorestfinal.services;
+
+import com.careerdevs.gorestfinal.repositories.CommentRepository;
+import com.careerdevs.gorestfinal.repositories.PostRepository;
+import com.careerdevs.gorestfinal.repositories.ToDoRepository;
+import com.careerdevs.gorestfinal.repositories.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.DefaultApplicationArguments;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Loads dump files from a temporary directory, with chunks small enough that every file is read as
+ * several of them in parallel.
+ */
+@SpringBootTest(properties = {"gorest.dump.chunk-size=2KB", "gorest.dump.concurrency=4", "gorest.dump.batch-size=50"})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class DumpImportServiceTests {
+
+    private static final int USERS = 500;
+
+    @TempDir
+    static Path dumpDirectory;
+
+    @DynamicPropertySource
+    static void dumpDirectory(DynamicPropertyRegistry registry) {
+        registry.add("gorest.dump.directory", () -> dumpDirectory.toString());
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private DumpImportService dumpImportService;
+
+    @Autowired
+    private ImportJobService importJobService;
+
+    @Autowired
+    private DumpImportRunner dumpImportRunner;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private ToDoRepository toDoRepository;
+
+    @BeforeEach
+    void writeDump() throws IOException {
+
+        StringBuilder users = new StringBuilder();
+        for (int id = 1; id <= USERS; id++) {
+            users.append("{\"id\":").append(id).append(",\"name\":\"Dumped ").append(id)
+                    .append("\",\"email\":\"dumped").append(id).append("@example.com\",\"gender\":\"male\",\"status\":\"active\"}")
+                    // Windows line endings and blank lines are skipped like any other whitespace
+                    .append(id % 100 == 0 ? "\r\n\n" : "\n");
+        }
+        // the last line has no newline
+        users.setLength(users.length() - 1);
+
+        Files.writeString(dumpDirectory.resolve("users.ndjson"), users, StandardCharsets.UTF_8);
+
+        Files.writeString(dumpDirectory.resolve("posts.ndjson"),
+                "{\"id\":11,\"user_id\":1,\"title\":\"First\",\"body\":\"Dumped\"}\n" +
+                        "{\"id\":12,\"user_id\":2,\"title\":\"Second\",\"body\":\"Dumped\"}\n", StandardCharsets.UTF_8);
+
+        Files.writeString(dumpDirectory.resolve("todos.json"),
+                "[{\"id\":21,\"user_id\":1,\"title\":\"Load\",\"due_on\":\"2026-10-17T00:00:00.000+05:30\",\"status\":\"pending\"}," +
+                        "{\"id\":22,\"user_id\":2,\"title\":\"Check\",\"due_on\":null,\"status\":\"completed\"}]", StandardCharsets.UTF_8);
+    }
+
+    @AfterEach
+    void cleanUp() throws IOException {
+        toDoRepository.deleteAll();
+        commentRepository.deleteAll();
+        postRepository.deleteAll();
+        userRepository.deleteAll();
+        Files.deleteIfExists(dumpDirectory.resolve("comments.ndjson"));
+    }
+
+    @Test
+    void anNdjsonFileIsReadInParallelChunks() throws Exception {
+
+        AtomicInteger chunks = new AtomicInteger();
+
+        ImportResult result = dumpImportService.importDump(GoRestSyncService.USERS, dumpDirectory,
+                (chunk, totalChunks, rows) -> chunks.incrementAndGet());
+
+        assertEquals(USERS, result.getRows());
+        assertTrue(result.getPages() > 10, "expected the file in many chunks, got " + result.getPages());
+        assertEquals(result.getPages(), chunks.get());
+        assertEquals(USERS, userRepository.count());
+
+        // written under their own ids, and the id index knows them
+        mockMvc.perform(get("/api/users/" + USERS)).andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("Dumped " + USERS));
+    }
+
+    @Test
+    void aJsonArrayFileIsStreamed() throws Exception {
+
+        dumpImportService.importDump(GoRestSyncService.USERS, dumpDirectory);
+        ImportResult result = dumpImportService.importDump(GoRestSyncService.TODOS, dumpDirectory);
+
+        assertEquals(2, result.getRows());
+        mockMvc.perform(get("/api/todos/21")).andExpect(jsonPath("$.due_on").value("2026-10-16T18:30:00.000Z"));
+    }
+
+    @Test
+    void theCommandLineModeLoadsEveryDumpFile() throws Exception {
+
+        dumpImportRunner.run(new DefaultApplicationArguments("--import-dump=" + dumpDirectory));
+
+        assertEquals(USERS, userRepository.count());
+        assertEquals(2, postRepository.count());
+        assertEquals(2, toDoRepository.count());
+        assertEquals(0, commentRepository.count());
+    }
+
+    @Test
+    void aDumpJobRunsInTheBackground() throws Exception {
+
+        mockMvc.perform(post("/api/jobs/users").param("type", "dump"))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.type").value("DUMP"));
+
+        ImportJob job = importJobService.list().get(0);
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+
+        while (!job.isDone()) {
+            assertTrue(System.nanoTime() < deadline, "job still " + job.getState());
+            Thread.sleep(10);
+        }
+
+        assertEquals(ImportJob.State.SUCCEEDED, job.getState());
+        assertEquals(USERS, job.getRows());
+        assertEquals(job.getTotalPages(), job.getPagesDone());
+
+        // no comments.ndjson
+        mockMvc.perform(post("/api/jobs/comments").param("type", "dump")).andExpect(status().isNotFound());
+    }
+
+    @Test
+    void aMalformedLineFailsTheImport() throws Exception {
+
+        Files.writeString(dumpDirectory.resolve("comments.ndjson"),
+                "{\"id\":31,\"post_id\":11,\"name\":\"Ok\",\"email\":\"ok@example.com\",\"body\":\"Fine\"}\n{\"id\":32,\n",
+                StandardCharsets.UTF_8);
+
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> dumpImportService.importDump(GoRestSyncService.COMMENTS, dumpDirectory));
+
+        // the first line and its newline are 74 bytes
+        assertTrue(e.getMessage().contains("byte 74 "), e.getMessage());
+    }
+
+}
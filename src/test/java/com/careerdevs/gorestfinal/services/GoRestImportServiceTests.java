@@ -0,0 +1,252 @@
+package com.careerdevs.gorestfinal.services;
+
+import com.careerdevs.gorestfinal.models.User;
+import com.careerdevs.gorestfinal.utils.Pagination;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GoRestImportServiceTests {
+
+    private static final int TOTAL_PAGES = 12;
+
+    private static final int USERS_PER_PAGE = 10;
+
+    private HttpServer stub;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+
+    @BeforeEach
+    void startStub() throws IOException {
+
+        stub = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        stub.setExecutor(Executors.newCachedThreadPool());
+
+        stub.createContext("/public/v2/users", exchange -> {
+
+            int now = inFlight.incrementAndGet();
+            maxInFlight.accumulateAndGet(now, Math::max);
+
+            try {
+                String query = exchange.getRequestURI().getQuery();
+                int page = query == null ? 1 : Integer.parseInt(query.substring("page=".length()));
+
+                // slow enough that several downloads overlap
+                Thread.sleep(20);
+
+                byte[] body = userPage(page).getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().add("Content-Type", "application/json");
+                exchange.getResponseHeaders().add(Pagination.PAGES_HEADER, String.valueOf(TOTAL_PAGES));
+                exchange.sendResponseHeaders(200, body.length);
+
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(body);
+                }
+
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                inFlight.decrementAndGet();
+                exchange.close();
+            }
+        });
+
+        // page 3 fails at once while the pages around it are still downloading
+        stub.createContext("/public/v2/flaky", exchange -> {
+
+            String query = exchange.getRequestURI().getQuery();
+            int page = query == null ? 1 : Integer.parseInt(query.substring("page=".length()));
+
+            try {
+                if (page == 3) {
+                    exchange.sendResponseHeaders(500, -1);
+                    return;
+                }
+
+                Thread.sleep(200);
+
+                byte[] body = userPage(page).getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().add("Content-Type", "application/json");
+                exchange.getResponseHeaders().add(Pagination.PAGES_HEADER, String.valueOf(TOTAL_PAGES));
+                exchange.sendResponseHeaders(200, body.length);
+
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(body);
+                }
+
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                exchange.close();
+            }
+        });
+
+        stub.createContext("/public/v2/broken", exchange -> {
+            exchange.sendResponseHeaders(500, -1);
+            exchange.close();
+        });
+
+        stub.start();
+    }
+
+    @AfterEach
+    void stopStub() {
+        stub.stop(0);
+    }
+
+    @Test
+    void importsEveryPageWithinConcurrencyLimit() throws Exception {
+
+        GoRestImportService importService = importService(3, 100);
+
+        Set<Long> savedIds = ConcurrentHashMap.newKeySet();
+        AtomicInteger writes = new AtomicInteger();
+
+        ImportResult result = importService.importAll("users", User.class, page -> {
+            writes.incrementAndGet();
+            page.forEach(user -> savedIds.add(user.getId()));
+        });
+
+        assertEquals(TOTAL_PAGES, result.getPages());
+        assertEquals(TOTAL_PAGES * USERS_PER_PAGE, result.getRows());
+        assertEquals(TOTAL_PAGES * USERS_PER_PAGE, savedIds.size());
+        assertEquals(TOTAL_PAGES, writes.get());
+        assertTrue(result.getPagesPerSecond() > 0);
+
+        assertTrue(maxInFlight.get() > 1, "pages should be downloaded concurrently");
+        assertTrue(maxInFlight.get() <= 3, "at most 3 downloads may run at once, saw " + maxInFlight.get());
+    }
+
+    @Test
+    void downloadThreadsWriteTheirBatchesConcurrently() throws Exception {
+
+        GoRestImportService importService = importService(2, 100);
+
+        CountDownLatch twoWriters = new CountDownLatch(2);
+
+        importService.importAll("users", User.class, (List<User> batch) -> {
+            // page 1 is written before the downloads start, the others meet here
+            if (batch.get(0).getId() > USERS_PER_PAGE) {
+                twoWriters.countDown();
+                awaitQuietly(twoWriters);
+            }
+        });
+
+        // each thread writes the batches it parses, one page's writes do not wait for another's
+        assertEquals(0, twoWriters.getCount(), "batches of different pages should be written at the same time");
+    }
+
+    @Test
+    void rowsAreWrittenInBatchesOfTheConfiguredSize() throws Exception {
+
+        GoRestImportService importService = importService(2, 4);
+
+        Set<Long> savedIds = ConcurrentHashMap.newKeySet();
+        Set<List<User>> buffers = Collections.synchronizedSet(Collections.newSetFromMap(new IdentityHashMap<>()));
+        AtomicInteger writes = new AtomicInteger();
+        AtomicInteger largestBatch = new AtomicInteger();
+
+        importService.importAll("users", User.class, batch -> {
+            writes.incrementAndGet();
+            largestBatch.accumulateAndGet(batch.size(), Math::max);
+            batch.forEach(user -> savedIds.add(user.getId()));
+            buffers.add(batch);
+        });
+
+        // ten users a page: 4 + 4 + 2
+        assertEquals(TOTAL_PAGES * 3, writes.get());
+        assertEquals(4, largestBatch.get());
+        assertEquals(TOTAL_PAGES * USERS_PER_PAGE, savedIds.size());
+
+        // one buffer for the first page and one per download thread, each reused for every batch
+        assertTrue(buffers.size() <= 3, "expected at most 3 buffers, saw " + buffers.size());
+    }
+
+    @Test
+    void failedUpstreamPageStopsTheImport() {
+
+        GoRestImportService importService = importService(2, 100);
+
+        assertThrows(Exception.class, () -> importService.importAll("broken", User.class, page -> { }));
+    }
+
+    @Test
+    void aFailedPageStopsTheOtherDownloadsWriting() throws Exception {
+
+        GoRestImportService importService = importService(3, 1);
+
+        AtomicInteger writes = new AtomicInteger();
+
+        assertThrows(Exception.class, () -> importService.importAll("flaky", User.class, batch -> writes.incrementAndGet()));
+
+        int writesWhenFailed = writes.get();
+
+        // pages 2 and 4 finish downloading after the failure, their rows must not be written
+        Thread.sleep(500);
+
+        assertEquals(writesWhenFailed, writes.get());
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private GoRestImportService importService(int concurrency, int batchSize) {
+        return new GoRestImportService(new RestTemplateBuilder().build(), new ObjectMapper(), stubUrl(), concurrency,
+                batchSize, new MockEnvironment());
+    }
+
+    private String stubUrl() {
+        return "http://localhost:" + stub.getAddress().getPort() + "/public/v2";
+    }
+
+    private static String userPage(int page) {
+
+        StringBuilder json = new StringBuilder("[");
+
+        for (int i = 0; i < USERS_PER_PAGE; i++) {
+
+            long id = (long) (page - 1) * USERS_PER_PAGE + i + 1;
+
+            if (i > 0) {
+                json.append(',');
+            }
+
+            json.append("{\"id\":").append(id)
+                    .append(",\"name\":\"User ").append(id)
+                    .append("\",\"email\":\"user").append(id).append("@example.com\"")
+                    .append(",\"gender\":\"female\",\"status\":\"active\"}");
+        }
+
+        return json.append(']').toString();
+    }
+
+}
@@ -0,0 +1,309 @@
+package com.careerdevs.gorestfinal.services;
+
+import com.careerdevs.gorestfinal.models.User;
+import com.careerdevs.gorestfinal.repositories.IdIndex;
+import com.careerdevs.gorestfinal.repositories.UserRepository;
+import com.careerdevs.gorestfinal.utils.Pagination;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Syncs users from a stub GoREST that lists them newest first, ten to a page, and checks later syncs
+ * only write what changed and stop paging where the previous one left off.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class GoRestSyncServiceTests {
+
+    private static final int USERS_PER_PAGE = 10;
+
+    // id -> name, served in descending id order
+    private static final NavigableMap<Long, String> UPSTREAM = new ConcurrentSkipListMap<>();
+
+    private static final AtomicInteger PAGE_REQUESTS = new AtomicInteger();
+
+    private static final HttpServer STUB = startStub();
+
+    @DynamicPropertySource
+    static void upstream(DynamicPropertyRegistry registry) {
+        registry.add("gorest.base-url", () -> "http://localhost:" + STUB.getAddress().getPort() + "/public/v2");
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private GoRestSyncService syncService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private GoRestUpsertWriter upsertWriter;
+
+    @Autowired
+    private IdIndex idIndex;
+
+    @AfterEach
+    void cleanUp() {
+        userRepository.deleteAll();
+        jdbcTemplate.update("delete from sync_state");
+        UPSTREAM.clear();
+    }
+
+    @AfterAll
+    static void stopStub() {
+        STUB.stop(0);
+    }
+
+    @Test
+    void laterSyncsOnlyWriteWhatChanged() throws Exception {
+
+        for (long id = 1; id <= 30; id++) {
+            UPSTREAM.put(id, "User " + id);
+        }
+
+        SyncResult first = sync();
+
+        assertEquals(3, first.getPages());
+        assertEquals(30, first.getInserted());
+        assertFalse(first.isStoppedEarly());
+        assertEquals(30, userRepository.count());
+
+        // nothing changed: the first page is all known rows, the other two are never requested
+        SyncResult unchanged = sync();
+
+        assertEquals(1, unchanged.getPages());
+        assertEquals(10, unchanged.getUnchanged());
+        assertEquals(0, unchanged.getInserted() + unchanged.getUpdated());
+        assertTrue(unchanged.isStoppedEarly());
+
+        // warm the caches, the sync has to evict what it overwrites
+        mockMvc.perform(get("/api/users/25")).andExpect(jsonPath("$.name").value("User 25"));
+
+        UPSTREAM.put(31L, "User 31");
+        UPSTREAM.put(25L, "Renamed");
+
+        SyncResult changed = sync();
+
+        // page 1 (31..22) holds both changes, page 2 (21..12) is where the last sync ended
+        assertEquals(2, changed.getPages());
+        assertEquals(1, changed.getInserted());
+        assertEquals(1, changed.getUpdated());
+        assertEquals(18, changed.getUnchanged());
+        assertTrue(changed.isStoppedEarly());
+
+        mockMvc.perform(get("/api/users/25")).andExpect(status().isOk()).andExpect(jsonPath("$.name").value("Renamed"));
+        mockMvc.perform(get("/api/users/31")).andExpect(status().isOk()).andExpect(jsonPath("$.name").value("User 31"));
+        assertEquals(31, userRepository.count());
+    }
+
+    @Test
+    void rowsDeletedHereAreWrittenAgain() throws Exception {
+
+        for (long id = 1; id <= 5; id++) {
+            UPSTREAM.put(id, "User " + id);
+        }
+
+        sync();
+        mockMvc.perform(delete("/api/users/3")).andExpect(status().isOk());
+
+        SyncResult result = sync();
+
+        assertEquals(1, result.getInserted());
+        assertEquals(4, result.getUnchanged());
+        mockMvc.perform(get("/api/users/3")).andExpect(status().isOk());
+    }
+
+    @Test
+    void aRowWhoseEmailIsStoredUnderAnotherIdIsSkipped() throws Exception {
+
+        for (long id = 1; id <= 5; id++) {
+            UPSTREAM.put(id, "User " + id);
+        }
+
+        // user 3 was deleted upstream and its email given to the new user 5
+        jdbcTemplate.update("insert into user (id, name, email, gender, status) " +
+                "values (3, 'Stale', 'user5@example.com', 'male', 'inactive')");
+        UPSTREAM.remove(3L);
+
+        SyncResult result = sync();
+
+        assertEquals(3, result.getInserted());
+        assertEquals(1, result.getCollisions());
+
+        // the stored row is left as it was, and the skipped id is neither written nor indexed
+        assertEquals("Stale", userRepository.findById(3L).orElseThrow().getName());
+        assertFalse(userRepository.existsById(5L));
+        assertFalse(idIndex.exists(User.class, 5));
+        mockMvc.perform(get("/api/users/5")).andExpect(status().isNotFound());
+    }
+
+    @Test
+    void anImportBatchSkipsTheSecondRowWithAnEmail() {
+
+        List<User> rows = List.of(user(41, "same@example.com"), user(42, "same@example.com"), user(43, "other@example.com"));
+
+        assertEquals(List.of(42L), upsertWriter.upsert(GoRestSyncService.USERS, rows));
+
+        assertTrue(idIndex.exists(User.class, 41));
+        assertFalse(idIndex.exists(User.class, 42));
+        assertTrue(idIndex.exists(User.class, 43));
+        assertEquals(2, userRepository.count());
+    }
+
+    @Test
+    void parallelBatchesNeverBothClaimAnEmail() throws Exception {
+
+        int rounds = 20;
+        ExecutorService writers = Executors.newFixedThreadPool(2);
+
+        try {
+            for (int round = 0; round < rounds; round++) {
+
+                String email = "race" + round + "@example.com";
+                long first = 100 + round * 2L;
+                CyclicBarrier together = new CyclicBarrier(2);
+
+                Future<List<Long>> one = writers.submit(() -> {
+                    together.await();
+                    return upsertWriter.upsert(GoRestSyncService.USERS, List.of(user(first, email)));
+                });
+                Future<List<Long>> other = writers.submit(() -> {
+                    together.await();
+                    return upsertWriter.upsert(GoRestSyncService.USERS, List.of(user(first + 1, email)));
+                });
+
+                List<Long> collided = new ArrayList<>(one.get(10, TimeUnit.SECONDS));
+                collided.addAll(other.get(10, TimeUnit.SECONDS));
+
+                assertEquals(1, collided.size(), email);
+                assertFalse(idIndex.exists(User.class, collided.get(0)));
+            }
+        } finally {
+            writers.shutdown();
+        }
+
+        // one row per email, each still holding what its own id wrote
+        assertEquals(rounds, userRepository.count());
+        userRepository.findAll().forEach(user -> assertEquals("Batch " + user.getId(), user.getName()));
+    }
+
+    @Test
+    void theEndpointReportsTheSync() throws Exception {
+
+        UPSTREAM.put(1L, "Only");
+
+        mockMvc.perform(post("/api/users/sync"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.resource").value("users"))
+                .andExpect(jsonPath("$.inserted").value(1))
+                .andExpect(jsonPath("$.stoppedEarly").value(false));
+
+        assertEquals(1L, jdbcTemplate.queryForObject("select high_water_id from sync_state where resource = 'users'", Long.class));
+    }
+
+    private static User user(long id, String email) {
+        User user = new User();
+        user.setId(id);
+        user.setName("Batch " + id);
+        user.setEmail(email);
+        user.setGender("female");
+        user.setStatus("active");
+        return user;
+    }
+
+    private SyncResult sync() {
+        PAGE_REQUESTS.set(0);
+        SyncResult result = syncService.sync(GoRestSyncService.USERS);
+        assertEquals(result.getPages(), PAGE_REQUESTS.get());
+        return result;
+    }
+
+    private static HttpServer startStub() {
+
+        try {
+            HttpServer stub = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+
+            stub.createContext("/public/v2/users", exchange -> {
+
+                PAGE_REQUESTS.incrementAndGet();
+
+                String query = exchange.getRequestURI().getQuery();
+                int page = query == null ? 1 : Integer.parseInt(query.substring("page=".length()));
+
+                List<Map.Entry<Long, String>> newestFirst = List.copyOf(UPSTREAM.descendingMap().entrySet());
+                int pages = Math.max(1, (newestFirst.size() + USERS_PER_PAGE - 1) / USERS_PER_PAGE);
+
+                StringBuilder json = new StringBuilder("[");
+                for (int i = (page - 1) * USERS_PER_PAGE; i < Math.min(page * USERS_PER_PAGE, newestFirst.size()); i++) {
+                    Map.Entry<Long, String> user = newestFirst.get(i);
+                    if (json.length() > 1) {
+                        json.append(',');
+                    }
+                    json.append("{\"id\":").append(user.getKey())
+                            .append(",\"name\":\"").append(user.getValue())
+                            .append("\",\"email\":\"user").append(user.getKey()).append("@example.com\"")
+                            .append(",\"gender\":\"female\",\"status\":\"active\"}");
+                }
+
+                byte[] body = json.append(']').toString().getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().add("Content-Type", "application/json");
+                exchange.getResponseHeaders().add(Pagination.PAGES_HEADER, String.valueOf(pages));
+                exchange.sendResponseHeaders(200, body.length);
+
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(body);
+                }
+                exchange.close();
+            });
+
+            stub.start();
+            return stub;
+
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+}
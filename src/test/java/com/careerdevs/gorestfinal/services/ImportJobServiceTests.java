@@ -0,0 +1,267 @@
+package com.careerdevs.gorestfinal.services;
+
+import com.careerdevs.gorestfinal.repositories.UserRepository;
+import com.careerdevs.gorestfinal.utils.Pagination;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Imports users from a stub GoREST with three pages of five as background jobs, through /uploadall and
+ * /api/jobs.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ImportJobServiceTests {
+
+    private static final int PAGES = 3;
+
+    private static final int USERS_PER_PAGE = 5;
+
+    private static final Queue<Integer> REQUESTED_PAGES = new ConcurrentLinkedQueue<>();
+
+    // the stub holds every request until this is counted down
+    private static volatile CountDownLatch upstreamOpen = new CountDownLatch(0);
+
+    private static final HttpServer STUB = startStub();
+
+    @DynamicPropertySource
+    static void upstream(DynamicPropertyRegistry registry) {
+        registry.add("gorest.base-url", () -> "http://localhost:" + STUB.getAddress().getPort() + "/public/v2");
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ImportJobService importJobService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void cleanUp() {
+        upstreamOpen.countDown();
+        userRepository.deleteAll();
+        jdbcTemplate.update("delete from import_checkpoint");
+        REQUESTED_PAGES.clear();
+    }
+
+    @AfterAll
+    static void stopStub() {
+        STUB.stop(0);
+    }
+
+    @Test
+    void uploadAllRunsInTheBackground() throws Exception {
+
+        mockMvc.perform(post("/api/users/uploadall"))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Location", "/api/jobs/" + latestJob().getId()))
+                .andExpect(jsonPath("$.resource").value("users"))
+                .andExpect(jsonPath("$.type").value("IMPORT"));
+
+        ImportJob job = awaitDone(latestJob());
+
+        assertEquals(ImportJob.State.SUCCEEDED, job.getState());
+        assertEquals(PAGES, job.getPagesDone());
+        assertEquals(PAGES, job.getTotalPages());
+        assertEquals(PAGES * USERS_PER_PAGE, job.getRows());
+        assertEquals(PAGES * USERS_PER_PAGE, userRepository.count());
+        mockMvc.perform(get("/api/users/7000015")).andExpect(jsonPath("$.name").value("User 7000015"));
+
+        mockMvc.perform(get("/api/jobs/" + job.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.state").value("SUCCEEDED"))
+                .andExpect(jsonPath("$.pagesDone").value(PAGES))
+                .andExpect(jsonPath("$.etaSeconds").doesNotExist());
+
+        mockMvc.perform(get("/api/jobs/")).andExpect(jsonPath("$[0].id").value(job.getId()));
+
+        // a finished import leaves no checkpoint behind
+        assertEquals(0, jdbcTemplate.queryForObject("select count(*) from import_checkpoint", Integer.class));
+    }
+
+    @Test
+    void aResourceRunsOneJobAtATime() throws Exception {
+
+        upstreamOpen = new CountDownLatch(1);
+
+        ImportJob first = importJobService.start("users", ImportJob.Type.IMPORT);
+
+        mockMvc.perform(post("/api/jobs/users").param("type", "sync"))
+                .andExpect(status().isConflict());
+
+        // other resources are not held up
+        ImportJob posts = importJobService.start("posts", ImportJob.Type.SYNC);
+        mockMvc.perform(delete("/api/jobs/" + posts.getId())).andExpect(status().isOk());
+
+        upstreamOpen.countDown();
+        assertEquals(ImportJob.State.SUCCEEDED, awaitDone(first).getState());
+
+        mockMvc.perform(post("/api/jobs/users").param("type", "sync"))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.type").value("SYNC"));
+
+        awaitDone(latestJob());
+    }
+
+    @Test
+    void jobsCancelledWhileQueuedFreeTheirQueueSlots() throws Exception {
+
+        upstreamOpen = new CountDownLatch(1);
+
+        // both workers busy, so every comments job below waits in the queue
+        ImportJob users = importJobService.start("users", ImportJob.Type.IMPORT);
+        ImportJob posts = importJobService.start("posts", ImportJob.Type.SYNC);
+
+        // more cycles than the queue has room for
+        for (int i = 0; i < 10; i++) {
+
+            mockMvc.perform(post("/api/jobs/comments").param("type", "sync")).andExpect(status().isAccepted());
+            ImportJob queued = latestJob();
+
+            assertEquals(ImportJob.State.QUEUED, queued.getState());
+            mockMvc.perform(delete("/api/jobs/" + queued.getId())).andExpect(status().isOk());
+            assertEquals(ImportJob.State.CANCELLED, queued.getState());
+        }
+
+        upstreamOpen.countDown();
+        awaitDone(users);
+        awaitDone(posts);
+
+        mockMvc.perform(post("/api/jobs/comments").param("type", "sync")).andExpect(status().isAccepted());
+        assertEquals(ImportJob.State.SUCCEEDED, awaitDone(latestJob()).getState());
+    }
+
+    @Test
+    void anImportResumesFromItsCheckpoint() throws Exception {
+
+        // an earlier import wrote pages 1 and 2 and stopped
+        jdbcTemplate.update("insert into import_checkpoint (resource, next_page, total_pages, updated_at) " +
+                "values ('users', 3, 3, current_timestamp)");
+
+        ImportJob job = awaitDone(importJobService.start("users", ImportJob.Type.IMPORT));
+
+        assertEquals(ImportJob.State.SUCCEEDED, job.getState());
+        assertEquals(3, job.getFirstPage());
+        assertEquals(1, job.getPagesDone());
+        assertEquals(List.of(3), List.copyOf(REQUESTED_PAGES));
+        assertEquals(USERS_PER_PAGE, userRepository.count());
+        assertEquals(0, jdbcTemplate.queryForObject("select count(*) from import_checkpoint", Integer.class));
+    }
+
+    @Test
+    void unknownJobsAndResources() throws Exception {
+
+        mockMvc.perform(get("/api/jobs/999999")).andExpect(status().isNotFound());
+        mockMvc.perform(post("/api/jobs/widgets")).andExpect(status().isNotFound());
+        mockMvc.perform(post("/api/jobs/users").param("type", "rebuild")).andExpect(status().isBadRequest());
+    }
+
+    private ImportJob latestJob() {
+        return importJobService.list().get(0);
+    }
+
+    private static ImportJob awaitDone(ImportJob job) throws InterruptedException {
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+
+        while (!job.isDone()) {
+            assertTrue(System.nanoTime() < deadline, "job " + job.getId() + " still " + job.getState());
+            Thread.sleep(10);
+        }
+
+        return job;
+    }
+
+    private static HttpServer startStub() {
+
+        try {
+            HttpServer stub = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+            stub.setExecutor(Executors.newCachedThreadPool());
+
+            stub.createContext("/public/v2/", exchange -> {
+
+                try {
+                    upstreamOpen.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+
+                String query = exchange.getRequestURI().getQuery();
+                int page = query == null ? 1 : Integer.parseInt(query.substring("page=".length()));
+
+                StringBuilder json = new StringBuilder("[");
+
+                if (exchange.getRequestURI().getPath().endsWith("/users")) {
+
+                    REQUESTED_PAGES.add(page);
+
+                    for (int i = 0; i < USERS_PER_PAGE; i++) {
+                        // ids in the range GoREST hands out, the import keeps them
+                        long id = 7_000_000 + PAGES * USERS_PER_PAGE - (page - 1) * USERS_PER_PAGE - i;
+                        if (json.length() > 1) {
+                            json.append(',');
+                        }
+                        json.append("{\"id\":").append(id)
+                                .append(",\"name\":\"User ").append(id)
+                                .append("\",\"email\":\"user").append(id).append("@example.com\"")
+                                .append(",\"gender\":\"male\",\"status\":\"active\"}");
+                    }
+                }
+
+                byte[] body = json.append(']').toString().getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().add("Content-Type", "application/json");
+                exchange.getResponseHeaders().add(Pagination.PAGES_HEADER, String.valueOf(PAGES));
+                exchange.sendResponseHeaders(200, body.length);
+
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(body);
+                }
+                exchange.close();
+            });
+
+            stub.start();
+            return stub;
+
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+}
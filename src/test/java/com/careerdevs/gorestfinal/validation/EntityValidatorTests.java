@@ -0,0 +1,134 @@
+package com.careerdevs.gorestfinal.validation;
+
+import com.careerdevs.gorestfinal.models.User;
+import com.careerdevs.gorestfinal.repositories.PostRepository;
+import com.careerdevs.gorestfinal.repositories.UserRepository;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import jakarta.persistence.EntityManagerFactory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.properties.hibernate.session.events.log=false"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class EntityValidatorTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @AfterEach
+    void cleanUp() {
+        postRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void formatsAndAllowedValuesAreChecked() throws Exception {
+
+        mockMvc.perform(post("/api/users/").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"A\",\"email\":\"not an email\",\"gender\":\"unknown\",\"status\":\"active\"}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().json("{\"errors\":{\"email\":\"Email is not a valid email address.\"," +
+                        "\"gender\":\"Gender must be one of: male, female.\"}}", false));
+
+        mockMvc.perform(post("/api/todos/").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"user_id\":0,\"title\":\"T\",\"due_on\":\"\",\"status\":\"done\"}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().json("{\"errors\":{\"user_id\":\"User_ID cannot be left blank.\"," +
+                        "\"due_on\":\"Due_On cannot be left blank.\",\"status\":\"Status must be one of: pending, completed.\"}}", false));
+    }
+
+    @Test
+    void referencesHaveToExist() throws Exception {
+
+        User author = userRepository.save(user());
+
+        mockMvc.perform(post("/api/posts/").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"user_id\":" + (author.getId() + 1000) + ",\"title\":\"T\",\"body\":\"B\"}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errors.user_id")
+                        .value("User_ID is invalid because there is no user found with the ID: " + (author.getId() + 1000)));
+
+        mockMvc.perform(post("/api/posts/").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"user_id\":" + author.getId() + ",\"title\":\"T\",\"body\":\"B\"}"))
+                .andExpect(status().isCreated());
+    }
+
+    @Test
+    void bulkReferencesAreCheckedWithoutQueries() throws Exception {
+
+        User author = userRepository.save(user());
+        long missing = author.getId() + 1000;
+
+        StringBuilder body = new StringBuilder();
+        for (int i = 0; i < 200; i++) {
+            body.append("{\"user_id\":").append(i == 150 ? missing : author.getId()).append(",\"title\":\"T\",\"body\":\"B\"}\n");
+        }
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        mockMvc.perform(post("/api/posts/bulk").contentType(MediaType.APPLICATION_NDJSON).content(body.toString()))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errors.150.user_id")
+                        .value("User_ID is invalid because there is no user found with the ID: " + missing))
+                .andExpect(jsonPath("$.errors.149").doesNotExist());
+
+        // answered by the IdIndex
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertEquals(0, postRepository.count());
+    }
+
+    @Test
+    void emailFormat() {
+
+        assertTrue(EntityValidator.isEmail("someone@example.com"));
+        assertTrue(EntityValidator.isEmail("first.last@mail.example.co.uk"));
+
+        assertFalse(EntityValidator.isEmail("@example.com"));
+        assertFalse(EntityValidator.isEmail("someone@example"));
+        assertFalse(EntityValidator.isEmail("someone@.com"));
+        assertFalse(EntityValidator.isEmail("someone@example."));
+        assertFalse(EntityValidator.isEmail("some one@example.com"));
+        assertFalse(EntityValidator.isEmail("a@b@example.com"));
+    }
+
+    private static User user() {
+
+        User user = new User();
+        user.setName("Author");
+        user.setEmail("author@example.com");
+        user.setGender("female");
+        user.setStatus("active");
+        return user;
+    }
+
+}